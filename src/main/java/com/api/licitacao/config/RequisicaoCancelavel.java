@@ -0,0 +1,60 @@
+package com.api.licitacao.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite abortar, a partir de outra thread, a requisição HTTP feita pelo RestTemplate.
+ *
+ * A chamada é executada dentro de {@link #executar}; a fábrica de requisições registra aqui a
+ * requisição criada na thread atual, e {@link #cancelar()} fecha a conexão mesmo que a resposta
+ * ainda esteja chegando. Cancelar antes do registro também funciona: a requisição é abortada assim
+ * que for criada.
+ */
+public final class RequisicaoCancelavel {
+
+    private static final ThreadLocal<RequisicaoCancelavel> ATUAL = new ThreadLocal<>();
+
+    private volatile Runnable cancelamento;
+    private volatile boolean cancelada;
+
+    /**
+     * Executa a chamada associando a ela as requisições HTTP feitas na thread atual
+     */
+    public <T> T executar(Supplier<T> chamada) {
+        ATUAL.set(this);
+        try {
+            return chamada.get();
+        } finally {
+            ATUAL.remove();
+        }
+    }
+
+    /**
+     * Aborta a requisição em andamento; sem efeito se ela já terminou
+     */
+    public void cancelar() {
+        cancelada = true;
+        Runnable acao = cancelamento;
+        if (acao != null) {
+            acao.run();
+        }
+    }
+
+    public boolean isCancelada() {
+        return cancelada;
+    }
+
+    /**
+     * Chamado pela fábrica de requisições ao criar a requisição na thread atual
+     */
+    static void registrar(Runnable acao) {
+        RequisicaoCancelavel atual = ATUAL.get();
+        if (atual == null) {
+            return;
+        }
+        atual.cancelamento = acao;
+        if (atual.cancelada) {
+            acao.run();
+        }
+    }
+}
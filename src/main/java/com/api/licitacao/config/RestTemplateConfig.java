@@ -1,14 +1,276 @@
 package com.api.licitacao.config;
 
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP usado nas chamadas externas (serviço de score na nuvem e cotação do dólar).
+ *
+ * Conexões keep-alive ficam num pool com limite global e por destino, e toda chamada tem
+ * timeout de conexão, de espera por conexão do pool, de leitura e um prazo total.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(RestTemplateConfig.class);
+
+    @Value("${http.cliente.max-conexoes:50}")
+    private int maxConexoes;
+
+    @Value("${http.cliente.max-por-rota:10}")
+    private int maxPorRota;
+
+    @Value("${http.cliente.max-por-rota-nuvem:10}")
+    private int maxPorRotaNuvem;
+
+    @Value("${http.cliente.max-por-rota-cotacao:2}")
+    private int maxPorRotaCotacao;
+
+    @Value("${http.cliente.timeout-conexao:5s}")
+    private Duration timeoutConexao;
+
+    @Value("${http.cliente.timeout-pool:2s}")
+    private Duration timeoutPool;
+
+    @Value("${http.cliente.timeout-leitura:60s}")
+    private Duration timeoutLeitura;
+
+    @Value("${http.cliente.timeout-total:120s}")
+    private Duration timeoutTotal;
+
+    @Value("${http.cliente.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${cloud.pdf.service.url:https://app-cbe-ultramar-dev-azb9fnfvandvg7dx.brazilsouth-01.azurewebsites.net/score}")
+    private String cloudServiceUrl;
+
+    @Value("${cotacao.dolar.url:https://economia.awesomeapi.com.br/last/USD-BRL}")
+    private String cotacaoUrl;
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConexoes)
+            .setMaxConnPerRoute(maxPorRota)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(timeoutConexao.toMillis()))
+                .setSocketTimeout(Timeout.ofMilliseconds(timeoutLeitura.toMillis()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+
+        limitarRota(manager, cloudServiceUrl, maxPorRotaNuvem);
+        limitarRota(manager, cotacaoUrl, maxPorRotaCotacao);
+        return manager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(timeoutPool.toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutLeitura.toMillis()))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+            .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new PrazoTotalRequestFactory(httpClient, timeoutTotal));
+    }
+
+    /**
+     * Aplica um limite de conexões específico ao destino da URL
+     */
+    private void limitarRota(PoolingHttpClientConnectionManager manager, String url, int limite) {
+        if (url == null || url.isBlank() || limite <= 0) {
+            return;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            boolean seguro = "https".equalsIgnoreCase(uri.getScheme());
+            int porta = uri.getPort() > 0 ? uri.getPort() : (seguro ? 443 : 80);
+            HttpHost host = new HttpHost(uri.getScheme(), uri.getHost(), porta);
+            manager.setMaxPerRoute(new HttpRoute(host, null, seguro), limite);
+        } catch (IllegalArgumentException e) {
+            logger.warn("URL inválida para limite de conexões '{}': {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Aborta a requisição quando o prazo total (conexão + envio + leitura) se esgota,
+     * mesmo que o servidor continue enviando dados aos poucos. A requisição também fica disponível
+     * para cancelamento explícito via {@link RequisicaoCancelavel}
+     */
+    static class PrazoTotalRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private static final ScheduledThreadPoolExecutor AGENDADOR = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "http-prazo-total");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            // Prazos cancelados saem da fila na hora, sem manter a requisição alcançável até expirarem
+            AGENDADOR.setRemoveOnCancelPolicy(true);
+        }
+
+        /** Requisição criada por {@link #postProcessHttpRequest} durante o {@link #createRequest} atual */
+        private static final ThreadLocal<HttpUriRequestBase> CRIADA = new ThreadLocal<>();
+
+        private final Duration prazoTotal;
+
+        PrazoTotalRequestFactory(CloseableHttpClient httpClient, Duration prazoTotal) {
+            super(httpClient);
+            this.prazoTotal = prazoTotal;
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            ClientHttpRequest requisicao;
+            HttpUriRequestBase cancelavel;
+            try {
+                requisicao = super.createRequest(uri, httpMethod);
+                cancelavel = CRIADA.get();
+            } finally {
+                CRIADA.remove();
+            }
+            if (cancelavel == null || prazoTotal == null || prazoTotal.isZero()) {
+                return requisicao;
+            }
+            return new RequisicaoComPrazo(requisicao, cancelavel, prazoTotal);
+        }
+
+        @Override
+        protected void postProcessHttpRequest(ClassicHttpRequest request) {
+            if (!(request instanceof HttpUriRequestBase cancelavel)) {
+                return;
+            }
+            CRIADA.set(cancelavel);
+            RequisicaoCancelavel.registrar(cancelavel::cancel);
+        }
+    }
+
+    /**
+     * Agenda o cancelamento ao enviar a requisição e desfaz o agendamento quando a resposta é
+     * fechada (ou o envio falha)
+     */
+    private static final class RequisicaoComPrazo implements ClientHttpRequest {
+
+        private final ClientHttpRequest requisicao;
+        private final HttpUriRequestBase cancelavel;
+        private final Duration prazoTotal;
+
+        RequisicaoComPrazo(ClientHttpRequest requisicao, HttpUriRequestBase cancelavel, Duration prazoTotal) {
+            this.requisicao = requisicao;
+            this.cancelavel = cancelavel;
+            this.prazoTotal = prazoTotal;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            ScheduledFuture<?> prazo = PrazoTotalRequestFactory.AGENDADOR.schedule(
+                cancelavel::cancel, prazoTotal.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                return new RespostaComPrazo(requisicao.execute(), prazo);
+            } catch (IOException | RuntimeException e) {
+                prazo.cancel(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return requisicao.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return requisicao.getHeaders();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return requisicao.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return requisicao.getURI();
+        }
+    }
+
+    private static final class RespostaComPrazo implements ClientHttpResponse {
+
+        private final ClientHttpResponse resposta;
+        private final ScheduledFuture<?> prazo;
+
+        RespostaComPrazo(ClientHttpResponse resposta, ScheduledFuture<?> prazo) {
+            this.resposta = resposta;
+            this.prazo = prazo;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return resposta.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return resposta.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return resposta.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return resposta.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                resposta.close();
+            } finally {
+                prazo.cancel(false);
+            }
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,601 @@
+package com.api.licitacao.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Substitutos locais das dependências externas, ativados pelo perfil "simulado".
+ *
+ * Um único servidor HTTP embutido atende o serviço de score (/score e /health), a cotação da
+ * AwesomeAPI (/last/USD-BRL) e o subconjunto da API REST do Azure Blob Storage usado pelo SDK
+ * (container, upload simples ou em blocos, propriedades, leitura, exclusão e listagem). Latência, cauda de latência, taxa de erro
+ * e tamanho da resposta são configuráveis, permitindo medir vazão e latência do fluxo completo sem
+ * acessar serviços reais. As URLs da aplicação apontam para cá em application-simulado.properties.
+ */
+@Component
+@Profile("simulado")
+public class ServidorSimulado {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServidorSimulado.class);
+
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final Pattern BLOCO = Pattern.compile("<(?:Latest|Committed|Uncommitted)>([^<]+)</");
+    /** Limite de blobs por página da listagem, o mesmo do serviço real */
+    private static final int MAXIMO_LISTAGEM = 5000;
+
+    /**
+     * Comportamento simulado de uma dependência
+     * @param latencia Latência típica
+     * @param variacao Variação uniforme para mais ou para menos
+     * @param taxaCauda Fração das chamadas que sofre a latência de cauda
+     * @param latenciaCauda Latência das chamadas na cauda
+     * @param taxaErro Fração das chamadas que responde com erro
+     */
+    record Perfil(Duration latencia, Duration variacao, double taxaCauda, Duration latenciaCauda, double taxaErro) {
+
+        void atrasar() throws InterruptedException {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            long atraso;
+            if (taxaCauda > 0 && aleatorio.nextDouble() < taxaCauda) {
+                atraso = latenciaCauda.toMillis();
+            } else {
+                long desvio = variacao.toMillis();
+                atraso = latencia.toMillis() + (desvio > 0 ? aleatorio.nextLong(-desvio, desvio + 1) : 0);
+            }
+            if (atraso > 0) {
+                Thread.sleep(atraso);
+            }
+        }
+
+        boolean falhar() {
+            return taxaErro > 0 && ThreadLocalRandom.current().nextDouble() < taxaErro;
+        }
+
+        Map<String, Object> resumo() {
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("latenciaMs", latencia.toMillis());
+            resumo.put("variacaoMs", variacao.toMillis());
+            resumo.put("taxaCauda", taxaCauda);
+            resumo.put("latenciaCaudaMs", latenciaCauda.toMillis());
+            resumo.put("taxaErro", taxaErro);
+            return resumo;
+        }
+    }
+
+    private record Blob(long tamanho, byte[] conteudo, String etag, ZonedDateTime modificadoEm) {}
+
+    @Value("${simulado.porta:8089}")
+    private int porta;
+
+    @Value("${simulado.nuvem.latencia:1500ms}")
+    private Duration nuvemLatencia;
+
+    @Value("${simulado.nuvem.variacao:500ms}")
+    private Duration nuvemVariacao;
+
+    @Value("${simulado.nuvem.taxa-cauda:0.0}")
+    private double nuvemTaxaCauda;
+
+    @Value("${simulado.nuvem.latencia-cauda:15s}")
+    private Duration nuvemLatenciaCauda;
+
+    @Value("${simulado.nuvem.taxa-erro:0.0}")
+    private double nuvemTaxaErro;
+
+    @Value("${simulado.nuvem.itens:5}")
+    private int nuvemItens;
+
+    @Value("${simulado.nuvem.tamanho-extra:0B}")
+    private DataSize nuvemTamanhoExtra;
+
+    @Value("${simulado.nuvem.exigir-blob:false}")
+    private boolean exigirBlob;
+
+    @Value("${simulado.cotacao.latencia:50ms}")
+    private Duration cotacaoLatencia;
+
+    @Value("${simulado.cotacao.variacao:20ms}")
+    private Duration cotacaoVariacao;
+
+    @Value("${simulado.cotacao.taxa-erro:0.0}")
+    private double cotacaoTaxaErro;
+
+    @Value("${simulado.azure.latencia:20ms}")
+    private Duration azureLatencia;
+
+    @Value("${simulado.azure.variacao:10ms}")
+    private Duration azureVariacao;
+
+    @Value("${simulado.azure.taxa-erro:0.0}")
+    private double azureTaxaErro;
+
+    @Value("${simulado.azure.guardar-conteudo:false}")
+    private boolean guardarConteudo;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Map<String, Blob>> containers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, byte[]>> blocosPendentes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> chamadas = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> erros = new ConcurrentHashMap<>();
+
+    private Perfil perfilNuvem;
+    private Perfil perfilCotacao;
+    private Perfil perfilAzure;
+    private String preenchimento;
+    private HttpServer servidor;
+    private ExecutorService executor;
+
+    public ServidorSimulado(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        perfilNuvem = new Perfil(nuvemLatencia, nuvemVariacao, nuvemTaxaCauda, nuvemLatenciaCauda, nuvemTaxaErro);
+        perfilCotacao = new Perfil(cotacaoLatencia, cotacaoVariacao, 0, Duration.ZERO, cotacaoTaxaErro);
+        perfilAzure = new Perfil(azureLatencia, azureVariacao, 0, Duration.ZERO, azureTaxaErro);
+        preenchimento = "x".repeat((int) Math.min(Integer.MAX_VALUE - 8, nuvemTamanhoExtra.toBytes()));
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", porta), 512);
+        // Latência simulada com sleep: uma thread virtual por requisição
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(executor);
+        servidor.createContext("/score", troca -> atender(troca, "score", this::pontuar));
+        servidor.createContext("/health", troca -> atender(troca, "health", this::saude));
+        servidor.createContext("/last/", troca -> atender(troca, "cotacao", this::cotar));
+        servidor.createContext("/simulado/", troca -> atender(troca, "azure", this::armazenar));
+        servidor.createContext("/estatisticas", troca -> atender(troca, "estatisticas", this::estatisticas));
+        servidor.start();
+        logger.warn("Perfil 'simulado' ativo: serviço de score, cotação e Azure Blob atendidos localmente em http://127.0.0.1:{}", porta);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Tratador {
+        void tratar(HttpExchange troca) throws IOException, InterruptedException;
+    }
+
+    private void atender(HttpExchange troca, String rota, Tratador tratador) {
+        chamadas.computeIfAbsent(rota, r -> new AtomicLong()).incrementAndGet();
+        try {
+            tratador.tratar(troca);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // Cliente desistiu (timeout, hedge cancelado) ou erro no próprio simulador
+            logger.debug("Requisição simulada em {} interrompida: {}", rota, e.getMessage());
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void contarErro(String rota) {
+        erros.computeIfAbsent(rota, r -> new AtomicLong()).incrementAndGet();
+    }
+
+    // ----- Serviço de score -----
+
+    private void pontuar(HttpExchange troca) throws IOException, InterruptedException {
+        if (!"POST".equals(troca.getRequestMethod())) {
+            responder(troca, 405, "application/json", "{\"detail\":\"Method Not Allowed\"}");
+            return;
+        }
+        JsonNode requisicao;
+        try (InputStream corpo = troca.getRequestBody()) {
+            requisicao = objectMapper.readTree(corpo);
+        }
+        perfilNuvem.atrasar();
+        if (perfilNuvem.falhar()) {
+            contarErro("score");
+            responder(troca, 500, "application/json", "{\"detail\":\"Erro simulado\"}");
+            return;
+        }
+
+        String arquivo = requisicao.path("file_name").asText("");
+        String container = requisicao.path("container_name").asText("");
+        if (exigirBlob && !containers.getOrDefault(container, Map.of()).containsKey(arquivo)) {
+            contarErro("score");
+            responder(troca, 404, "application/json", "{\"detail\":\"Blob não encontrado: " + arquivo + "\"}");
+            return;
+        }
+        responder(troca, 200, "application/json", objectMapper.writeValueAsString(respostaScore(arquivo)));
+    }
+
+    private ObjectNode respostaScore(String arquivo) {
+        ObjectNode edital = objectMapper.createObjectNode();
+        int numero = Math.abs(arquivo.hashCode() % 100000);
+        edital.put("processo", String.format("%05d/2025", numero));
+        edital.put("dataHora", "15/03/2025 10:00");
+        edital.put("cliente", "Órgão Simulado");
+        edital.put("objeto", "Aquisição de materiais (simulado) - " + arquivo);
+        edital.put("portal", "Compras.gov.br");
+        edital.put("edital", "9" + numero);
+        edital.put("modalidade", "Pregão Eletrônico");
+        edital.put("amostra", "Não");
+        edital.put("dataCertame", "15/03/2025");
+        edital.put("impugnacao", "12/03/2025");
+        edital.put("cotacaoDolar", 5.5);
+        ArrayNode itens = edital.putArray("items");
+        for (int i = 1; i <= nuvemItens; i++) {
+            ObjectNode item = itens.addObject();
+            item.put("item", i);
+            item.put("quantidade", 10 * i);
+            item.put("descricao", "Item simulado " + i);
+            item.put("custoUnitario", 100.0 + i);
+            item.put("frete", 10.0);
+        }
+
+        ObjectNode resposta = objectMapper.createObjectNode();
+        ObjectNode clausulas = resposta.putObject("extracted_clausules");
+        clausulas.putArray("edital").add(edital);
+        if (!preenchimento.isEmpty()) {
+            // Campo ignorado pelo leitor: só aumenta o tamanho da resposta
+            resposta.put("_preenchimento", preenchimento);
+        }
+        return resposta;
+    }
+
+    private void saude(HttpExchange troca) throws IOException {
+        responder(troca, 200, "application/json", "{\"status\":\"ok\"}");
+    }
+
+    // ----- Cotação (AwesomeAPI) -----
+
+    private void cotar(HttpExchange troca) throws IOException, InterruptedException {
+        perfilCotacao.atrasar();
+        if (perfilCotacao.falhar()) {
+            contarErro("cotacao");
+            responder(troca, 503, "application/json", "{\"status\":503,\"message\":\"Erro simulado\"}");
+            return;
+        }
+        String cotacao = String.format(Locale.ROOT, "%.4f", 5.0 + ThreadLocalRandom.current().nextDouble());
+        String agora = ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        responder(troca, 200, "application/json", "{\"USDBRL\":{\"code\":\"USD\",\"codein\":\"BRL\","
+            + "\"name\":\"Dólar Americano/Real Brasileiro\",\"bid\":\"" + cotacao + "\",\"ask\":\"" + cotacao
+            + "\",\"create_date\":\"" + agora + "\"}}");
+    }
+
+    // ----- Azure Blob Storage (estilo de caminho: /simulado/<container>/<blob>) -----
+
+    private void armazenar(HttpExchange troca) throws IOException, InterruptedException {
+        String caminho = troca.getRequestURI().getPath().substring("/simulado/".length());
+        Map<String, String> query = lerQuery(troca.getRequestURI().getRawQuery());
+        String metodo = troca.getRequestMethod();
+
+        // O corpo é consumido antes do atraso, como faria o servidor real
+        byte[] corpo;
+        try (InputStream entrada = troca.getRequestBody()) {
+            corpo = entrada.readAllBytes();
+        }
+        perfilAzure.atrasar();
+        if (perfilAzure.falhar()) {
+            contarErro("azure");
+            erroAzure(troca, 503, "ServerBusy");
+            return;
+        }
+
+        int barra = caminho.indexOf('/');
+        String container = barra < 0 ? caminho : caminho.substring(0, barra);
+        String nomeBlob = barra < 0 ? "" : URLDecoder.decode(caminho.substring(barra + 1), StandardCharsets.UTF_8);
+
+        if (nomeBlob.isEmpty() && "container".equals(query.get("restype"))) {
+            operarContainer(troca, metodo, query, container);
+        } else if (!nomeBlob.isEmpty()) {
+            operarBlob(troca, metodo, query, container, nomeBlob, corpo);
+        } else {
+            erroAzure(troca, 400, "InvalidUri");
+        }
+    }
+
+    private void operarContainer(HttpExchange troca, String metodo, Map<String, String> query,
+                                 String container) throws IOException {
+        if ("GET".equals(metodo) && "list".equals(query.get("comp"))) {
+            listar(troca, query, container);
+            return;
+        }
+        switch (metodo) {
+            case "GET", "HEAD" -> {
+                if (!containers.containsKey(container)) {
+                    erroAzure(troca, 404, "ContainerNotFound");
+                    return;
+                }
+                cabecalhosAzure(troca, "\"0x1\"", ZonedDateTime.now(ZoneOffset.UTC));
+                troca.sendResponseHeaders(200, -1);
+            }
+            case "PUT" -> {
+                if (containers.putIfAbsent(container, new ConcurrentHashMap<>()) != null) {
+                    erroAzure(troca, 409, "ContainerAlreadyExists");
+                    return;
+                }
+                cabecalhosAzure(troca, "\"0x1\"", ZonedDateTime.now(ZoneOffset.UTC));
+                troca.sendResponseHeaders(201, -1);
+            }
+            default -> erroAzure(troca, 405, "UnsupportedHttpVerb");
+        }
+    }
+
+    /**
+     * Listagem de blobs do container em ordem de nome, com filtro por prefixo e paginação por
+     * maxresults/marker (o marcador é o nome do primeiro blob da página seguinte)
+     */
+    private void listar(HttpExchange troca, Map<String, String> query, String container) throws IOException {
+        Map<String, Blob> blobs = containers.get(container);
+        if (blobs == null) {
+            erroAzure(troca, 404, "ContainerNotFound");
+            return;
+        }
+        String prefixo = query.getOrDefault("prefix", "");
+        String marcador = query.getOrDefault("marker", "");
+        int maximo;
+        try {
+            String maxResults = query.get("maxresults");
+            maximo = maxResults != null ? Math.min(MAXIMO_LISTAGEM, Integer.parseInt(maxResults)) : MAXIMO_LISTAGEM;
+        } catch (NumberFormatException e) {
+            maximo = 0;
+        }
+        if (maximo <= 0) {
+            erroAzure(troca, 400, "InvalidQueryParameterValue");
+            return;
+        }
+        List<String> nomes = blobs.keySet().stream()
+            .filter(nome -> nome.startsWith(prefixo) && nome.compareTo(marcador) >= 0)
+            .sorted()
+            .toList();
+
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?>")
+            .append("<EnumerationResults ContainerName=\"").append(escaparXml(container)).append("\">");
+        if (!prefixo.isEmpty()) {
+            xml.append("<Prefix>").append(escaparXml(prefixo)).append("</Prefix>");
+        }
+        if (!marcador.isEmpty()) {
+            xml.append("<Marker>").append(escaparXml(marcador)).append("</Marker>");
+        }
+        xml.append("<MaxResults>").append(maximo).append("</MaxResults><Blobs>");
+        for (String nome : nomes.subList(0, Math.min(maximo, nomes.size()))) {
+            Blob blob = blobs.get(nome);
+            if (blob == null) {
+                // Excluído durante a listagem
+                continue;
+            }
+            xml.append("<Blob><Name>").append(escaparXml(nome)).append("</Name><Properties>")
+                .append("<Last-Modified>").append(blob.modificadoEm().format(RFC_1123)).append("</Last-Modified>")
+                .append("<Etag>").append(blob.etag().replace("\"", "")).append("</Etag>")
+                .append("<Content-Length>").append(blob.tamanho()).append("</Content-Length>")
+                .append("<Content-Type>application/pdf</Content-Type>")
+                .append("<BlobType>BlockBlob</BlobType>")
+                .append("</Properties></Blob>");
+        }
+        xml.append("</Blobs>");
+        if (nomes.size() > maximo) {
+            xml.append("<NextMarker>").append(escaparXml(nomes.get(maximo))).append("</NextMarker>");
+        } else {
+            xml.append("<NextMarker />");
+        }
+        xml.append("</EnumerationResults>");
+
+        cabecalhosAzure(troca, null, null);
+        responder(troca, 200, "application/xml", xml.toString());
+    }
+
+    private void operarBlob(HttpExchange troca, String metodo, Map<String, String> query,
+                            String container, String nomeBlob, byte[] corpo) throws IOException {
+        Map<String, Blob> blobs = containers.get(container);
+        if (blobs == null) {
+            erroAzure(troca, 404, "ContainerNotFound");
+            return;
+        }
+        String chavePendente = container + "/" + nomeBlob;
+        String comp = query.getOrDefault("comp", "");
+
+        if ("PUT".equals(metodo) && "block".equals(comp)) {
+            blocosPendentes.computeIfAbsent(chavePendente, c -> new ConcurrentHashMap<>())
+                .put(query.get("blockid"), guardarConteudo ? corpo : new byte[corpo.length]);
+            cabecalhosAzure(troca, null, null);
+            troca.sendResponseHeaders(201, -1);
+        } else if ("PUT".equals(metodo) && "blocklist".equals(comp)) {
+            Map<String, byte[]> pendentes = blocosPendentes.remove(chavePendente);
+            if ("*".equals(troca.getRequestHeaders().getFirst("If-None-Match")) && blobs.containsKey(nomeBlob)) {
+                erroAzure(troca, 409, "BlobAlreadyExists");
+                return;
+            }
+            List<byte[]> partes = new ArrayList<>();
+            Matcher matcher = BLOCO.matcher(new String(corpo, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                byte[] parte = pendentes != null ? pendentes.get(matcher.group(1)) : null;
+                if (parte == null) {
+                    erroAzure(troca, 400, "InvalidBlockList");
+                    return;
+                }
+                partes.add(parte);
+            }
+            long tamanho = partes.stream().mapToLong(p -> p.length).sum();
+            byte[] conteudo = null;
+            if (guardarConteudo) {
+                conteudo = new byte[(int) tamanho];
+                int posicao = 0;
+                for (byte[] parte : partes) {
+                    System.arraycopy(parte, 0, conteudo, posicao, parte.length);
+                    posicao += parte.length;
+                }
+            }
+            Blob blob = gravar(blobs, nomeBlob, tamanho, conteudo);
+            cabecalhosAzure(troca, blob.etag(), blob.modificadoEm());
+            troca.sendResponseHeaders(201, -1);
+        } else if ("PUT".equals(metodo) && "properties".equals(comp)) {
+            Blob blob = blobs.get(nomeBlob);
+            if (blob == null) {
+                erroAzure(troca, 404, "BlobNotFound");
+                return;
+            }
+            cabecalhosAzure(troca, blob.etag(), blob.modificadoEm());
+            troca.sendResponseHeaders(200, -1);
+        } else if ("PUT".equals(metodo) && comp.isEmpty()) {
+            if ("*".equals(troca.getRequestHeaders().getFirst("If-None-Match")) && blobs.containsKey(nomeBlob)) {
+                erroAzure(troca, 409, "BlobAlreadyExists");
+                return;
+            }
+            Blob blob = gravar(blobs, nomeBlob, corpo.length, guardarConteudo ? corpo : null);
+            cabecalhosAzure(troca, blob.etag(), blob.modificadoEm());
+            troca.getResponseHeaders().set("x-ms-request-server-encrypted", "true");
+            troca.sendResponseHeaders(201, -1);
+        } else if ("DELETE".equals(metodo)) {
+            blocosPendentes.remove(chavePendente);
+            if (blobs.remove(nomeBlob) == null) {
+                erroAzure(troca, 404, "BlobNotFound");
+                return;
+            }
+            cabecalhosAzure(troca, null, null);
+            troca.getResponseHeaders().set("x-ms-delete-type-permanent", "true");
+            troca.sendResponseHeaders(202, -1);
+        } else if ("GET".equals(metodo) || "HEAD".equals(metodo)) {
+            Blob blob = blobs.get(nomeBlob);
+            if (blob == null) {
+                erroAzure(troca, 404, "BlobNotFound");
+                return;
+            }
+            cabecalhosAzure(troca, blob.etag(), blob.modificadoEm());
+            troca.getResponseHeaders().set("x-ms-blob-type", "BlockBlob");
+            troca.getResponseHeaders().set("Content-Type", "application/pdf");
+            if ("HEAD".equals(metodo)) {
+                troca.getResponseHeaders().set("Content-Length", String.valueOf(blob.tamanho()));
+                troca.sendResponseHeaders(200, -1);
+            } else {
+                byte[] conteudo = blob.conteudo() != null ? blob.conteudo() : new byte[(int) blob.tamanho()];
+                troca.sendResponseHeaders(200, conteudo.length == 0 ? -1 : conteudo.length);
+                try (OutputStream saida = troca.getResponseBody()) {
+                    saida.write(conteudo);
+                }
+            }
+        } else {
+            erroAzure(troca, 405, "UnsupportedHttpVerb");
+        }
+    }
+
+    private Blob gravar(Map<String, Blob> blobs, String nomeBlob, long tamanho, byte[] conteudo) {
+        Blob blob = new Blob(tamanho, conteudo, "\"0x" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase() + "\"",
+            ZonedDateTime.now(ZoneOffset.UTC));
+        blobs.put(nomeBlob, blob);
+        return blob;
+    }
+
+    private void cabecalhosAzure(HttpExchange troca, String etag, ZonedDateTime modificadoEm) {
+        var cabecalhos = troca.getResponseHeaders();
+        cabecalhos.set("x-ms-request-id", UUID.randomUUID().toString());
+        cabecalhos.set("x-ms-version", valorOu(troca.getRequestHeaders().getFirst("x-ms-version"), "2021-12-02"));
+        cabecalhos.set("Date", ZonedDateTime.now(ZoneOffset.UTC).format(RFC_1123));
+        if (etag != null) {
+            cabecalhos.set("ETag", etag);
+        }
+        if (modificadoEm != null) {
+            cabecalhos.set("Last-Modified", modificadoEm.format(RFC_1123));
+        }
+    }
+
+    private void erroAzure(HttpExchange troca, int status, String codigo) throws IOException {
+        cabecalhosAzure(troca, null, null);
+        troca.getResponseHeaders().set("x-ms-error-code", codigo);
+        if ("HEAD".equals(troca.getRequestMethod())) {
+            troca.sendResponseHeaders(status, -1);
+            return;
+        }
+        responder(troca, status, "application/xml", "<?xml version=\"1.0\" encoding=\"utf-8\"?><Error><Code>"
+            + codigo + "</Code><Message>Simulado: " + codigo + "</Message></Error>");
+    }
+
+    // ----- Estatísticas do simulador -----
+
+    private void estatisticas(HttpExchange troca) throws IOException {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        Map<String, Long> porRota = new LinkedHashMap<>();
+        chamadas.forEach((rota, contagem) -> porRota.put(rota, contagem.get()));
+        Map<String, Long> errosPorRota = new LinkedHashMap<>();
+        erros.forEach((rota, contagem) -> errosPorRota.put(rota, contagem.get()));
+        Map<String, Integer> blobsPorContainer = new LinkedHashMap<>();
+        containers.forEach((container, blobs) -> blobsPorContainer.put(container, blobs.size()));
+        estatisticas.put("chamadas", porRota);
+        estatisticas.put("erros", errosPorRota);
+        estatisticas.put("blobs", blobsPorContainer);
+        estatisticas.put("nuvem", perfilNuvem.resumo());
+        estatisticas.put("cotacao", perfilCotacao.resumo());
+        estatisticas.put("azure", perfilAzure.resumo());
+        responder(troca, 200, "application/json", objectMapper.writeValueAsString(estatisticas));
+    }
+
+    private void responder(HttpExchange troca, int status, String contentType, String corpo) throws IOException {
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        troca.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    private static Map<String, String> lerQuery(String query) {
+        Map<String, String> valores = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return valores;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String chave = URLDecoder.decode(igual < 0 ? par : par.substring(0, igual), StandardCharsets.UTF_8);
+            String valor = igual < 0 ? "" : URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8);
+            valores.put(chave, valor);
+        }
+        return valores;
+    }
+
+    private static String escaparXml(String texto) {
+        return texto.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String valorOu(String valor, String padrao) {
+        return valor != null ? valor : padrao;
+    }
+}
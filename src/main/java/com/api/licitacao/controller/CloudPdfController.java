@@ -1,19 +1,28 @@
 package com.api.licitacao.controller;
 
 import com.api.licitacao.dto.CapaDTO;
+import com.api.licitacao.exception.BulkheadCheioException;
+import com.api.licitacao.exception.FalhaServicoNuvemException;
 import com.api.licitacao.service.CloudPdfProcessingService;
-import com.api.licitacao.service.AzureBlobService;
+import com.api.licitacao.service.ArmazenamentoBlob;
+import com.api.licitacao.service.CacheExtracaoPdf;
+import com.api.licitacao.service.MonitorSaude;
+import com.api.licitacao.service.TriagemPdf;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/cloud-pdf")
@@ -21,77 +30,67 @@ import java.util.Map;
 public class CloudPdfController {
 
     private final CloudPdfProcessingService cloudPdfProcessingService;
-    private final AzureBlobService azureBlobService;
+    private final ArmazenamentoBlob armazenamentoBlob;
+    private final TriagemPdf triagemPdf;
+    private final CacheExtracaoPdf cacheExtracaoPdf;
+    private final MonitorSaude monitorSaude;
 
-    public CloudPdfController(CloudPdfProcessingService cloudPdfProcessingService, AzureBlobService azureBlobService) {
+    public CloudPdfController(CloudPdfProcessingService cloudPdfProcessingService, ArmazenamentoBlob armazenamentoBlob,
+                              TriagemPdf triagemPdf, CacheExtracaoPdf cacheExtracaoPdf, MonitorSaude monitorSaude) {
         this.cloudPdfProcessingService = cloudPdfProcessingService;
-        this.azureBlobService = azureBlobService;
+        this.armazenamentoBlob = armazenamentoBlob;
+        this.triagemPdf = triagemPdf;
+        this.cacheExtracaoPdf = cacheExtracaoPdf;
+        this.monitorSaude = monitorSaude;
     }
 
     @GetMapping("/status")
     @Operation(
         summary = "Verificar status do serviço",
-        description = "Verifica se o serviço de processamento na nuvem está disponível"
+        description = "Status do serviço de processamento na nuvem segundo a última verificação em segundo plano e o estado do circuit breaker"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Status do serviço obtido com sucesso"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<Map<String, Object>> verificarStatus() {
-        try {
-            boolean serviceAvailable = cloudPdfProcessingService.isServiceAvailable();
-            boolean connectionOk = cloudPdfProcessingService.testConnection();
-            String serviceUrl = cloudPdfProcessingService.getServiceUrl();
+        boolean serviceAvailable = cloudPdfProcessingService.isServiceAvailable();
+        MonitorSaude.Estado saude = monitorSaude.estado(MonitorSaude.Dependencia.NUVEM);
+        boolean connectionOk = saude.situacao() == MonitorSaude.Situacao.ONLINE;
 
-            Map<String, Object> status = Map.of(
-                "serviceEnabled", serviceAvailable,
-                "connectionOk", connectionOk,
-                "serviceUrl", serviceUrl,
-                "status", (serviceAvailable && connectionOk) ? "ONLINE" : "OFFLINE"
-            );
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("serviceEnabled", serviceAvailable);
+        status.put("connectionOk", connectionOk);
+        status.put("serviceUrl", cloudPdfProcessingService.getServiceUrl());
+        status.put("status", (serviceAvailable && connectionOk) ? "ONLINE" : "OFFLINE");
+        status.put("saude", saude.resumo());
+        status.put("circuito", cloudPdfProcessingService.getEstadoCircuito());
 
-            return ResponseEntity.ok(status);
-        } catch (Exception e) {
-            Map<String, Object> error = Map.of(
-                "serviceEnabled", false,
-                "connectionOk", false,
-                "serviceUrl", "N/A",
-                "status", "ERROR",
-                "error", e.getMessage()
-            );
-            return ResponseEntity.ok(error);
-        }
+        return ResponseEntity.ok(status);
     }
 
     @GetMapping("/azure-status")
     @Operation(
         summary = "Verificar status do Azure Blob Storage",
-        description = "Verifica se o Azure Blob Storage está configurado e acessível"
+        description = "Verifica se o Azure Blob Storage está configurado, se o cliente já foi inicializado e se respondeu na última verificação em segundo plano"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Status do Azure obtido com sucesso"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<Map<String, Object>> verificarStatusAzure() {
-        try {
-            boolean azureConfigured = azureBlobService.isConfigured();
-            
-            Map<String, Object> status = Map.of(
-                "azureConfigured", azureConfigured,
-                "containerName", azureBlobService.getContainerName(),
-                "status", azureConfigured ? "CONFIGURADO" : "NÃO CONFIGURADO"
-            );
+        boolean azureConfigured = armazenamentoBlob.isConfigured();
+        MonitorSaude.Estado saude = monitorSaude.estado(MonitorSaude.Dependencia.AZURE);
 
-            return ResponseEntity.ok(status);
-        } catch (Exception e) {
-            Map<String, Object> error = Map.of(
-                "azureConfigured", false,
-                "containerName", "N/A",
-                "status", "ERROR",
-                "error", e.getMessage()
-            );
-            return ResponseEntity.ok(error);
-        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("azureConfigured", azureConfigured);
+        status.put("containerName", armazenamentoBlob.getContainerName());
+        status.put("status", azureConfigured ? "CONFIGURADO" : "NÃO CONFIGURADO");
+        status.put("connectionOk", saude.situacao() == MonitorSaude.Situacao.ONLINE);
+        status.put("saude", saude.resumo());
+        status.put("prontidao", armazenamentoBlob.getProntidao());
+
+        return ResponseEntity.ok(status);
     }
 
     @PostMapping("/processar")
@@ -102,23 +101,19 @@ public class CloudPdfController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "PDF processado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
-        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor"),
+        @ApiResponse(responseCode = "502", description = "Serviço na nuvem falhou ou não retornou os dados do edital"),
+        @ApiResponse(responseCode = "503", description = "Serviço na nuvem desabilitado, circuito aberto ou capacidade esgotada")
     })
-    public ResponseEntity<CapaDTO> processarPdf(
+    public CompletableFuture<ResponseEntity<CapaDTO>> processarPdf(
             @Parameter(description = "Nome do arquivo PDF no Azure Blob Storage", required = true)
             @RequestParam("fileName") String fileName) {
         
-        try {
-            if (fileName == null || fileName.trim().isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            CapaDTO resultado = cloudPdfProcessingService.processarPdfNaNuvem(fileName);
-            return ResponseEntity.ok(resultado);
-
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        if (fileName == null || fileName.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+
+        return responder(cloudPdfProcessingService.processarPdfNaNuvemAsync(fileName));
     }
 
     @PostMapping("/processar-customizado")
@@ -129,9 +124,11 @@ public class CloudPdfController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "PDF processado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
-        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor"),
+        @ApiResponse(responseCode = "502", description = "Serviço na nuvem falhou ou não retornou os dados do edital"),
+        @ApiResponse(responseCode = "503", description = "Serviço na nuvem desabilitado, circuito aberto ou capacidade esgotada")
     })
-    public ResponseEntity<CapaDTO> processarPdfCustomizado(
+    public CompletableFuture<ResponseEntity<CapaDTO>> processarPdfCustomizado(
             @Parameter(description = "Nome do arquivo PDF", required = true)
             @RequestParam("fileName") String fileName,
             
@@ -144,23 +141,16 @@ public class CloudPdfController {
             @Parameter(description = "Lista de prompts (separados por vírgula)", required = false)
             @RequestParam(value = "prompts", defaultValue = "edital") String prompts) {
         
-        try {
-            if (fileName == null || fileName.trim().isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            // Converter string de prompts em lista
-            List<String> promptList = List.of(prompts.split(","));
+        if (fileName == null || fileName.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
 
-            CapaDTO resultado = cloudPdfProcessingService.processarPdfCustomizado(
-                fileName, containerName, pageLen, promptList
-            );
-            
-            return ResponseEntity.ok(resultado);
+        // Converter string de prompts em lista
+        List<String> promptList = List.of(prompts.split(","));
 
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return responder(cloudPdfProcessingService.processarPdfCustomizadoAsync(
+            fileName, containerName, pageLen, promptList
+        ));
     }
 
     @PostMapping("/processar-json")
@@ -171,28 +161,23 @@ public class CloudPdfController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "PDF processado com sucesso"),
         @ApiResponse(responseCode = "400", description = "JSON inválido"),
-        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor"),
+        @ApiResponse(responseCode = "502", description = "Serviço na nuvem falhou ou não retornou os dados do edital"),
+        @ApiResponse(responseCode = "503", description = "Serviço na nuvem desabilitado, circuito aberto ou capacidade esgotada")
     })
-    public ResponseEntity<CapaDTO> processarPdfJson(
+    public CompletableFuture<ResponseEntity<CapaDTO>> processarPdfJson(
             @RequestBody ProcessarPdfRequest request) {
         
-        try {
-            if (request.fileName() == null || request.fileName().trim().isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            CapaDTO resultado = cloudPdfProcessingService.processarPdfCustomizado(
-                request.fileName(),
-                request.containerName() != null ? request.containerName() : "editals",
-                request.pageLen() != null ? request.pageLen() : "4",
-                request.promptList() != null ? request.promptList() : List.of("edital")
-            );
-            
-            return ResponseEntity.ok(resultado);
-
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        if (request.fileName() == null || request.fileName().trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+
+        return responder(cloudPdfProcessingService.processarPdfCustomizadoAsync(
+            request.fileName(),
+            request.containerName() != null ? request.containerName() : "editals",
+            request.pageLen() != null ? request.pageLen() : "4",
+            request.promptList() != null ? request.promptList() : List.of("edital")
+        ));
     }
 
     @PostMapping("/teste-json-response")
@@ -245,40 +230,66 @@ public class CloudPdfController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "PDF processado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Arquivo inválido"),
+        @ApiResponse(responseCode = "502", description = "Serviço na nuvem falhou ou não retornou os dados do edital"),
+        @ApiResponse(responseCode = "503", description = "Circuito do serviço na nuvem aberto, capacidade esgotada ou armazenamento inacessível pela nuvem"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<CapaDTO> uploadEPprocessar(
+    public CompletableFuture<ResponseEntity<CapaDTO>> uploadEPprocessar(
             @Parameter(description = "Arquivo PDF para upload e processamento", required = true)
             @RequestParam("arquivo") MultipartFile arquivo) {
         
         try {
             if (arquivo.isEmpty()) {
-                return ResponseEntity.badRequest().build();
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
             }
 
-            // Verificar se é um PDF
-            String contentType = arquivo.getContentType();
-            String filename = arquivo.getOriginalFilename();
-            
-            if (contentType == null || !contentType.equals("application/pdf")) {
-                return ResponseEntity.badRequest().build();
+            // Verificar se é um PDF legível antes de gastar upload e chamada à nuvem
+            if (!triagemPdf.triar(arquivo).aceito()) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+            }
+            // Armazenamento local fora do alcance da nuvem: ela não encontraria o blob
+            if (!armazenamentoBlob.acessivelPelaNuvem() || !cloudPdfProcessingService.aceitaChamadas()) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
             }
 
             // Fazer upload para Azure Blob Storage
-            String nomeBlob = azureBlobService.uploadPdf(arquivo);
+            String nomeBlob = armazenamentoBlob.uploadPdf(arquivo);
             
             if (nomeBlob == null) {
-                return ResponseEntity.internalServerError().build();
+                return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
             }
 
-            // Processar via serviço na nuvem
-            CapaDTO resultado = cloudPdfProcessingService.processarPdfNaNuvem(nomeBlob);
-            
-            return ResponseEntity.ok(resultado);
+            // Processar via serviço na nuvem; a thread da requisição é liberada durante a chamada
+            // Envios repetidos do mesmo arquivo (duplo clique, retentativa) compartilham a chamada
+            return responder(cloudPdfProcessingService.processarPdfNaNuvemAsync(nomeBlob, cacheExtracaoPdf.hash(arquivo)));
 
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+
+    /**
+     * Converte o resultado assíncrono em resposta HTTP (ver {@link #responderFalha})
+     */
+    private CompletableFuture<ResponseEntity<CapaDTO>> responder(CompletableFuture<CapaDTO> resultado) {
+        return resultado
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> responderFalha(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+
+    /**
+     * 503 quando o bulkhead está cheio ou a chamada não pôde ser feita, 502 com a capa de falha quando
+     * o serviço falhou ou não retornou os dados, 500 nos demais erros
+     */
+    private ResponseEntity<CapaDTO> responderFalha(Throwable causa) {
+        if (causa instanceof BulkheadCheioException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (causa instanceof FalhaServicoNuvemException falha) {
+            HttpStatus status = falha.isIndisponivel() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_GATEWAY;
+            return ResponseEntity.status(status).body(cloudPdfProcessingService.capaFalha());
         }
+        return ResponseEntity.internalServerError().build();
     }
 
     /**
@@ -0,0 +1,149 @@
+package com.api.licitacao.controller;
+
+import com.api.licitacao.exception.FilaJobsCheiaException;
+import com.api.licitacao.service.JobsProcessamento;
+import com.api.licitacao.service.TriagemPdf;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/jobs")
+@Tag(name = "Jobs de Processamento", description = "Processamento completo de PDFs em segundo plano, com acompanhamento do status e download da planilha")
+public class JobProcessamentoController {
+
+    private final JobsProcessamento jobsProcessamento;
+    private final TriagemPdf triagemPdf;
+
+    public JobProcessamentoController(JobsProcessamento jobsProcessamento, TriagemPdf triagemPdf) {
+        this.jobsProcessamento = jobsProcessamento;
+        this.triagemPdf = triagemPdf;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Criar job de processamento",
+        description = "Recebe os PDFs e retorna imediatamente o id do job. O processamento (Azure, extração, fornecedores, cotação e capa.xlsx) "
+            + "roda em segundo plano; acompanhe por GET /api/jobs/{id} ou /api/jobs/{id}/eventos e baixe em /api/jobs/{id}/planilha"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Job criado"),
+        @ApiResponse(responseCode = "400", description = "Nenhum PDF válido foi enviado"),
+        @ApiResponse(responseCode = "503", description = "Fila de jobs cheia"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<Map<String, Object>> criar(
+            @Parameter(
+                description = "Lista de arquivos PDF para processamento",
+                required = true,
+                content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)
+            )
+            @RequestParam("arquivos") List<MultipartFile> arquivos) {
+
+        // Triagem antes de aceitar o job: arquivos inválidos não ocupam a fila nem o disco
+        List<MultipartFile> aceitos = new ArrayList<>();
+        for (MultipartFile arquivo : arquivos) {
+            if (!arquivo.isEmpty() && triagemPdf.triar(arquivo).aceito()) {
+                aceitos.add(arquivo);
+            }
+        }
+        if (aceitos.isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("erro", "Nenhum PDF válido foi enviado"));
+        }
+
+        try {
+            JobsProcessamento.Job job = jobsProcessamento.submeter(aceitos);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(job.resumo());
+        } catch (FilaJobsCheiaException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("erro", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("erro", "Erro ao receber PDFs: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "Status do job",
+        description = "Status (PENDENTE, PROCESSANDO, CONCLUIDO, FALHOU), etapa atual, horários e erro, se houver"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Status do job"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String id) {
+        return jobsProcessamento.buscar(id)
+            .map(job -> ResponseEntity.ok(job.resumo()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Eventos do job (SSE)",
+        description = "Stream de eventos 'status' a cada mudança de etapa; encerrado quando o job termina"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream de eventos"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<SseEmitter> eventos(@PathVariable String id) {
+        return jobsProcessamento.buscar(id)
+            .map(job -> ResponseEntity.ok(jobsProcessamento.assinar(job)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/planilha")
+    @Operation(
+        summary = "Baixar planilha do job",
+        description = "Planilha capa.xlsx gerada pelo job concluído"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Planilha Excel",
+                content = @Content(mediaType = "application/octet-stream")),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Job ainda em processamento ou com falha")
+    })
+    public ResponseEntity<byte[]> planilha(@PathVariable String id) {
+        Optional<JobsProcessamento.Job> encontrado = jobsProcessamento.buscar(id);
+        if (encontrado.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        JobsProcessamento.Job job = encontrado.get();
+        byte[] planilhaBytes = job.getPlanilha();
+        if (job.getStatus() != JobsProcessamento.Status.CONCLUIDO || planilhaBytes == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(("Planilha indisponível, status do job: " + job.getStatus()).getBytes());
+        }
+
+        // Configurar headers para download
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", job.getNomePlanilha());
+        headers.setContentLength(planilhaBytes.length);
+
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(planilhaBytes);
+    }
+}
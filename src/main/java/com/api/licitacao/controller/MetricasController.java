@@ -0,0 +1,188 @@
+package com.api.licitacao.controller;
+
+import com.api.licitacao.service.ArmazenamentoBlob;
+import com.api.licitacao.service.BulkheadNuvem;
+import com.api.licitacao.service.CacheExtracaoPdf;
+import com.api.licitacao.service.CarregadorPdf;
+import com.api.licitacao.service.CoalescedorNuvem;
+import com.api.licitacao.service.HedgeNuvem;
+import com.api.licitacao.service.JobsProcessamento;
+import com.api.licitacao.service.MonitorSaude;
+import com.api.licitacao.service.PdfReaderService;
+import com.api.licitacao.service.SeletorPaginasNuvem;
+import com.api.licitacao.service.TriagemPdf;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metricas")
+@Tag(name = "Métricas", description = "Contadores internos de uso de recursos do processamento de PDFs")
+public class MetricasController {
+
+    private final CarregadorPdf carregadorPdf;
+    private final CacheExtracaoPdf cacheExtracaoPdf;
+    private final PdfReaderService pdfReaderService;
+    private final TriagemPdf triagemPdf;
+    private final PoolingHttpClientConnectionManager httpConnectionManager;
+    private final BulkheadNuvem bulkheadNuvem;
+    private final HedgeNuvem hedgeNuvem;
+    private final CoalescedorNuvem coalescedorNuvem;
+    private final JobsProcessamento jobsProcessamento;
+    private final SeletorPaginasNuvem seletorPaginasNuvem;
+    private final MonitorSaude monitorSaude;
+    private final ArmazenamentoBlob armazenamentoBlob;
+
+    public MetricasController(CarregadorPdf carregadorPdf, CacheExtracaoPdf cacheExtracaoPdf,
+                              PdfReaderService pdfReaderService, TriagemPdf triagemPdf,
+                              PoolingHttpClientConnectionManager httpConnectionManager,
+                              BulkheadNuvem bulkheadNuvem, HedgeNuvem hedgeNuvem,
+                              CoalescedorNuvem coalescedorNuvem, JobsProcessamento jobsProcessamento,
+                              SeletorPaginasNuvem seletorPaginasNuvem, MonitorSaude monitorSaude,
+                              ArmazenamentoBlob armazenamentoBlob) {
+        this.carregadorPdf = carregadorPdf;
+        this.cacheExtracaoPdf = cacheExtracaoPdf;
+        this.pdfReaderService = pdfReaderService;
+        this.triagemPdf = triagemPdf;
+        this.httpConnectionManager = httpConnectionManager;
+        this.bulkheadNuvem = bulkheadNuvem;
+        this.hedgeNuvem = hedgeNuvem;
+        this.coalescedorNuvem = coalescedorNuvem;
+        this.jobsProcessamento = jobsProcessamento;
+        this.seletorPaginasNuvem = seletorPaginasNuvem;
+        this.monitorSaude = monitorSaude;
+        this.armazenamentoBlob = armazenamentoBlob;
+    }
+
+    @GetMapping("/pdf-memoria")
+    @Operation(
+        summary = "Uso do orçamento de memória dos PDFs",
+        description = "Documentos abertos, bytes de heap reservados e quantidade de documentos com spill para disco"
+    )
+    public ResponseEntity<Map<String, Object>> memoriaPdf() {
+        return ResponseEntity.ok(carregadorPdf.getEstatisticas());
+    }
+
+    @GetMapping("/cache-extracao")
+    @Operation(
+        summary = "Estatísticas do cache de extração",
+        description = "Acertos (memória e persistente), falhas, despejos e expirações do cache de resultados por hash do PDF"
+    )
+    public ResponseEntity<Map<String, Object>> cacheExtracao() {
+        return ResponseEntity.ok(cacheExtracaoPdf.getEstatisticas());
+    }
+
+    @GetMapping("/estrategia-extracao")
+    @Operation(
+        summary = "Estatísticas da estratégia de extração",
+        description = "Estratégia em uso e quantos PDFs foram aceitos pela extração local ou escalados para a nuvem"
+    )
+    public ResponseEntity<Map<String, Object>> estrategiaExtracao() {
+        return ResponseEntity.ok(pdfReaderService.getEstatisticas());
+    }
+
+    @GetMapping("/triagem")
+    @Operation(
+        summary = "Estatísticas da triagem de PDFs",
+        description = "Quantidade de documentos por rota (local, nuvem, lote, rejeitado) e tempo médio da triagem"
+    )
+    public ResponseEntity<Map<String, Object>> triagem() {
+        return ResponseEntity.ok(triagemPdf.getEstatisticas());
+    }
+
+    @GetMapping("/http-cliente")
+    @Operation(
+        summary = "Pool de conexões HTTP",
+        description = "Conexões em uso (leased), requisições aguardando conexão (pending) e conexões ociosas (available), no total e por destino"
+    )
+    public ResponseEntity<Map<String, Object>> httpCliente() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>(estatisticasPool(httpConnectionManager.getTotalStats()));
+        Map<String, Object> porDestino = new LinkedHashMap<>();
+        for (HttpRoute rota : httpConnectionManager.getRoutes()) {
+            porDestino.put(rota.getTargetHost().toURI(), estatisticasPool(httpConnectionManager.getStats(rota)));
+        }
+        estatisticas.put("porDestino", porDestino);
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    @GetMapping("/bulkhead-nuvem")
+    @Operation(
+        summary = "Ocupação do bulkhead da nuvem",
+        description = "Chamadas ao serviço na nuvem em voo e na fila, limites configurados e quantidade de rejeições"
+    )
+    public ResponseEntity<Map<String, Object>> bulkheadNuvem() {
+        return ResponseEntity.ok(bulkheadNuvem.getEstatisticas());
+    }
+
+    @GetMapping("/hedge-nuvem")
+    @Operation(
+        summary = "Requisições com hedge ao serviço na nuvem",
+        description = "Chamadas, tentativas extras disparadas, taxa de hedge, vitórias da tentativa extra e atraso atual"
+    )
+    public ResponseEntity<Map<String, Object>> hedgeNuvem() {
+        return ResponseEntity.ok(hedgeNuvem.getEstatisticas());
+    }
+
+    @GetMapping("/coalescimento-nuvem")
+    @Operation(
+        summary = "Agrupamento de chamadas idênticas à nuvem",
+        description = "Chamadas recebidas, quantas se juntaram a uma chamada em andamento e acertos do memo de resultados"
+    )
+    public ResponseEntity<Map<String, Object>> coalescimentoNuvem() {
+        return ResponseEntity.ok(coalescedorNuvem.getEstatisticas());
+    }
+
+    @GetMapping("/selecao-paginas")
+    @Operation(
+        summary = "Seleção de páginas enviadas à nuvem",
+        description = "Documentos por modo (padrão, prefixo, condensado), páginas sondadas e selecionadas e bytes dos PDFs condensados"
+    )
+    public ResponseEntity<Map<String, Object>> selecaoPaginas() {
+        return ResponseEntity.ok(seletorPaginasNuvem.getEstatisticas());
+    }
+
+    @GetMapping("/jobs")
+    @Operation(
+        summary = "Jobs de processamento",
+        description = "Jobs submetidos, concluídos, com falha, rejeitados por fila cheia, em execução, na fila e registrados em memória"
+    )
+    public ResponseEntity<Map<String, Object>> jobs() {
+        return ResponseEntity.ok(jobsProcessamento.getEstatisticas());
+    }
+
+    @GetMapping("/saude")
+    @Operation(
+        summary = "Saúde das dependências externas",
+        description = "Última verificação em segundo plano do serviço na nuvem e do Azure: situação, latência e falhas consecutivas"
+    )
+    public ResponseEntity<Map<String, Object>> saude() {
+        return ResponseEntity.ok(monitorSaude.getEstatisticas());
+    }
+
+    @GetMapping("/upload-azure")
+    @Operation(
+        summary = "Uploads para o armazenamento de PDFs (Azure Blob Storage ou diretório local)",
+        description = "Uploads concluídos e com falha, bytes enviados, tempo médio e máximo, vazão média, configuração dos blocos paralelos e acertos da deduplicação por conteúdo"
+    )
+    public ResponseEntity<Map<String, Object>> uploadAzure() {
+        return ResponseEntity.ok(armazenamentoBlob.getEstatisticas());
+    }
+
+    private Map<String, Object> estatisticasPool(PoolStats stats) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("leased", stats.getLeased());
+        valores.put("pending", stats.getPending());
+        valores.put("available", stats.getAvailable());
+        valores.put("max", stats.getMax());
+        return valores;
+    }
+}
@@ -2,6 +2,7 @@ package com.api.licitacao.controller;
 
 import com.api.licitacao.dto.CapaDTO;
 import com.api.licitacao.service.CapaService;
+import com.api.licitacao.service.TriagemPdf;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,9 +26,11 @@ import java.util.List;
 public class UploadController {
 
     private final CapaService capaService;
+    private final TriagemPdf triagemPdf;
 
-    public UploadController(CapaService capaService) {
+    public UploadController(CapaService capaService, TriagemPdf triagemPdf) {
         this.capaService = capaService;
+        this.triagemPdf = triagemPdf;
     }
 
     @PostMapping(value = "/documentos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -59,9 +62,10 @@ public class UploadController {
                 }
                 
                 // Valida se o arquivo é PDF
-                if (!isPdfFile(arquivo)) {
+                TriagemPdf.ResultadoTriagem triagem = triagemPdf.triar(arquivo);
+                if (!triagem.aceito()) {
                     throw new IllegalArgumentException(
-                        "Arquivo " + arquivo.getOriginalFilename() + " não é um PDF válido");
+                        "Arquivo " + arquivo.getOriginalFilename() + " não é um PDF válido: " + triagem.motivo());
                 }
                 
                 // Processa o PDF e extrai os dados
@@ -106,8 +110,9 @@ public class UploadController {
             }
             
             // Valida se o arquivo é PDF
-            if (!isPdfFile(arquivo)) {
-                throw new IllegalArgumentException("Arquivo não é um PDF válido");
+            TriagemPdf.ResultadoTriagem triagem = triagemPdf.triar(arquivo);
+            if (!triagem.aceito()) {
+                throw new IllegalArgumentException("Arquivo não é um PDF válido: " + triagem.motivo());
             }
             
             // Processa o PDF e extrai os dados
@@ -123,12 +128,4 @@ public class UploadController {
                     .body(null);
         }
     }
-
-    private boolean isPdfFile(MultipartFile arquivo) {
-        String contentType = arquivo.getContentType();
-        String filename = arquivo.getOriginalFilename();
-        
-        return (contentType != null && contentType.equals("application/pdf")) ||
-               (filename != null && filename.toLowerCase().endsWith(".pdf"));
-    }
 }
\ No newline at end of file
@@ -23,6 +23,9 @@ public record CloudServiceRequestDTO(
     @JsonProperty("prompt_list")
     List<String> promptList
 ) {
+
+    /** Quantidade de páginas lidas pelo serviço quando não há seleção de páginas */
+    public static final String PAGINAS_PADRAO = "4";
     
     /**
      * Cria uma requisição padrão para processamento de edital
@@ -30,10 +33,20 @@ public record CloudServiceRequestDTO(
      * @return CloudServiceRequestDTO configurado
      */
     public static CloudServiceRequestDTO createDefaultRequest(String fileName) {
+        return createDefaultRequest(fileName, PAGINAS_PADRAO);
+    }
+
+    /**
+     * Cria uma requisição padrão para processamento de edital com quantidade de páginas própria
+     * @param fileName Nome do arquivo PDF
+     * @param pageLen Quantidade de páginas (a partir da primeira)
+     * @return CloudServiceRequestDTO configurado
+     */
+    public static CloudServiceRequestDTO createDefaultRequest(String fileName, String pageLen) {
         return new CloudServiceRequestDTO(
             fileName,
             "editals",
-            "4",
+            pageLen,
             "./prompts",
             List.of("edital")
         );
@@ -0,0 +1,7 @@
+package com.api.licitacao.exception;
+
+public class BulkheadCheioException extends RuntimeException {
+    public BulkheadCheioException(String msg) {
+        super(msg);
+    }
+}
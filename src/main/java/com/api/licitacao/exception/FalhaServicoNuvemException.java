@@ -0,0 +1,27 @@
+package com.api.licitacao.exception;
+
+/**
+ * Falha no processamento pelo serviço na nuvem: chamada não realizada (serviço desabilitado ou
+ * circuito aberto), status diferente de 200 ou resposta sem os dados do edital
+ */
+public class FalhaServicoNuvemException extends RuntimeException {
+
+    private final boolean indisponivel;
+
+    public FalhaServicoNuvemException(String msg, boolean indisponivel) {
+        super(msg);
+        this.indisponivel = indisponivel;
+    }
+
+    public FalhaServicoNuvemException(String msg, Throwable causa) {
+        super(msg, causa);
+        this.indisponivel = false;
+    }
+
+    /**
+     * true quando a chamada nem chegou a ser feita (serviço desabilitado, sem URL ou circuito aberto)
+     */
+    public boolean isIndisponivel() {
+        return indisponivel;
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.licitacao.exception;
+
+public class FilaJobsCheiaException extends RuntimeException {
+    public FilaJobsCheiaException(String msg) {
+        super(msg);
+    }
+}
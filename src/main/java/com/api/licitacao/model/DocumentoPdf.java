@@ -0,0 +1,226 @@
+package com.api.licitacao.model;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * PDF recebido num upload e copiado para um arquivo temporário próprio.
+ *
+ * O MultipartFile do Spring deixa de existir ao fim da requisição; esta cópia permite processar o
+ * documento depois, numa thread de job, com a mesma API usada pelos serviços de extração.
+ *
+ * É também o contexto do documento durante o processamento: o upload é lido uma única vez, o
+ * SHA-256 é calculado na própria cópia, o nome do blob fica registrado após o primeiro envio ao
+ * Azure e o PDF aberto pelo PDFBox fica associado à cópia, para que triagem, cache, upload, extração
+ * e chamada à nuvem reutilizem os mesmos dados.
+ */
+public class DocumentoPdf implements MultipartFile {
+
+    private final Path caminho;
+    private final String nomeOriginal;
+    private final String contentType;
+    private final long tamanho;
+    private final String hash;
+    private volatile String nomeBlob;
+    private Closeable documentoAberto;
+
+    private DocumentoPdf(Path caminho, String nomeOriginal, String contentType, long tamanho, String hash) {
+        this.caminho = caminho;
+        this.nomeOriginal = nomeOriginal;
+        this.contentType = contentType;
+        this.tamanho = tamanho;
+        this.hash = hash;
+    }
+
+    /**
+     * Copia o upload para um arquivo temporário no diretório padrão da JVM
+     * @see #copiar(MultipartFile, Path)
+     */
+    public static DocumentoPdf copiar(MultipartFile arquivo) throws IOException {
+        return copiar(arquivo, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Copia o upload para um arquivo temporário
+     * @param arquivo Arquivo recebido na requisição
+     * @param diretorio Diretório dos temporários
+     * @return Documento independente da requisição; deve ser descartado com {@link #excluir()}
+     */
+    public static DocumentoPdf copiar(MultipartFile arquivo, Path diretorio) throws IOException {
+        Path destino = Files.createTempFile(diretorio, "pdf-", ".pdf");
+        MessageDigest digest = novoDigest();
+        // O hash é calculado na mesma leitura da cópia
+        try (InputStream entrada = new DigestInputStream(arquivo.getInputStream(), digest)) {
+            Files.copy(entrada, destino, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(destino);
+            throw e;
+        }
+        return new DocumentoPdf(destino, arquivo.getOriginalFilename(), arquivo.getContentType(), Files.size(destino),
+            HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Escrita do conteúdo de um documento gerado pela aplicação
+     */
+    @FunctionalInterface
+    public interface Gravacao {
+        void gravar(OutputStream saida) throws IOException;
+    }
+
+    /**
+     * Cria um documento gravando o conteúdo gerado (ex.: PDF condensado salvo pelo PDFBox) direto no
+     * arquivo temporário, sem montá-lo em memória; o hash é calculado durante a gravação
+     * @param nomeOriginal Nome do arquivo que deu origem ao conteúdo
+     * @param gravacao Escreve o conteúdo
+     * @return Documento; deve ser descartado com {@link #excluir()}
+     */
+    public static DocumentoPdf gerar(String nomeOriginal, Gravacao gravacao) throws IOException {
+        Path destino = Files.createTempFile(Path.of(System.getProperty("java.io.tmpdir")), "pdf-", ".pdf");
+        MessageDigest digest = novoDigest();
+        try (OutputStream saida = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(destino)), digest)) {
+            gravacao.gravar(saida);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(destino);
+            throw e;
+        }
+        return new DocumentoPdf(destino, nomeOriginal, "application/pdf", Files.size(destino),
+            HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+
+    /**
+     * Arquivo temporário com o conteúdo do PDF
+     */
+    public Path getCaminho() {
+        return caminho;
+    }
+
+    /**
+     * SHA-256 do conteúdo em hexadecimal
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Nome do blob no Azure, ou null se o documento ainda não foi enviado
+     */
+    public String getNomeBlob() {
+        return nomeBlob;
+    }
+
+    public void setNomeBlob(String nomeBlob) {
+        this.nomeBlob = nomeBlob;
+    }
+
+    /**
+     * Documento aberto a partir desta cópia, criado na primeira chamada e compartilhado pelas etapas
+     * seguintes do processamento, que assim não carregam o PDF de novo
+     * @param abrir Cria o documento quando ainda não há um aberto
+     * @return Documento associado à cópia; é fechado por {@link #fecharDocumentoAberto()} ou {@link #excluir()}
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends Closeable> T getDocumentoAberto(Supplier<T> abrir) {
+        if (documentoAberto == null) {
+            documentoAberto = abrir.get();
+        }
+        return (T) documentoAberto;
+    }
+
+    /**
+     * Fecha o documento aberto, liberando a memória dele; uma nova chamada a
+     * {@link #getDocumentoAberto} abre outro
+     */
+    public synchronized void fecharDocumentoAberto() {
+        if (documentoAberto == null) {
+            return;
+        }
+        try {
+            documentoAberto.close();
+        } catch (IOException e) {
+            // Nada a recuperar: o documento não será mais usado
+        } finally {
+            documentoAberto = null;
+        }
+    }
+
+    /**
+     * Fecha o documento aberto e remove o arquivo temporário
+     */
+    public void excluir() {
+        fecharDocumentoAberto();
+        try {
+            Files.deleteIfExists(caminho);
+        } catch (IOException e) {
+            caminho.toFile().deleteOnExit();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "arquivo";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return nomeOriginal;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return tamanho;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(caminho);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(caminho);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(caminho, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.copy(caminho, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,29 @@
+package com.api.licitacao.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de extração de PDF persistido, indexado pelo hash do conteúdo e pela estratégia
+ */
+@Entity
+@Table(name = "EXTRACAO_CACHE")
+@Data
+public class ExtracaoCache {
+    @Id
+    @Column(name = "CHAVE", length = 200)
+    private String chave;
+
+    @Lob
+    @Column(name = "CAPA_JSON")
+    private String capaJson;
+
+    @Column(name = "CRIADO_EM")
+    private LocalDateTime criadoEm;
+}
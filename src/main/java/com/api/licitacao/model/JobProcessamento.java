@@ -0,0 +1,108 @@
+package com.api.licitacao.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Job de processamento concluído, persistido para consulta e download após reinício ou despejo da memória
+ */
+@Entity
+@Table(name = "JOB_PROCESSAMENTO")
+@Data
+public class JobProcessamento {
+    @Id
+    @Column(name = "ID", length = 36)
+    private String id;
+
+    @Column(name = "STATUS", length = 20)
+    private String status;
+
+    @Column(name = "ARQUIVOS", length = 2000)
+    private String arquivos;
+
+    @Column(name = "ERRO", length = 2000)
+    private String erro;
+
+    @Column(name = "NOME_PLANILHA", length = 200)
+    private String nomePlanilha;
+
+    @Lob
+    @Column(name = "PLANILHA")
+    private byte[] planilha;
+
+    @Column(name = "CRIADO_EM")
+    private LocalDateTime criadoEm;
+
+    @Column(name = "CONCLUIDO_EM")
+    private LocalDateTime concluidoEm;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getArquivos() {
+        return arquivos;
+    }
+
+    public void setArquivos(String arquivos) {
+        this.arquivos = arquivos;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+
+    public String getNomePlanilha() {
+        return nomePlanilha;
+    }
+
+    public void setNomePlanilha(String nomePlanilha) {
+        this.nomePlanilha = nomePlanilha;
+    }
+
+    public byte[] getPlanilha() {
+        return planilha;
+    }
+
+    public void setPlanilha(byte[] planilha) {
+        this.planilha = planilha;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(LocalDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public LocalDateTime getConcluidoEm() {
+        return concluidoEm;
+    }
+
+    public void setConcluidoEm(LocalDateTime concluidoEm) {
+        this.concluidoEm = concluidoEm;
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.licitacao.repository;
+
+import com.api.licitacao.model.ExtracaoCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExtracaoCacheRepository extends JpaRepository<ExtracaoCache, String> {
+}
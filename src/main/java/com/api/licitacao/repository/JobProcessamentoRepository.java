@@ -0,0 +1,7 @@
+package com.api.licitacao.repository;
+
+import com.api.licitacao.model.JobProcessamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobProcessamentoRepository extends JpaRepository<JobProcessamento, String> {
+}
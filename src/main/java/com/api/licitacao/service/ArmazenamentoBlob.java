@@ -0,0 +1,99 @@
+package com.api.licitacao.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento dos PDFs recebidos. A implementação é escolhida por {@code armazenamento.tipo}:
+ * {@code azure} (padrão, {@link AzureBlobService}) ou {@code local} ({@link ArmazenamentoLocal}).
+ */
+public interface ArmazenamentoBlob {
+
+    /**
+     * Resultado do envio de um arquivo do lote
+     * @param nomeOriginal Nome do arquivo recebido
+     * @param nomeBlob Blob gravado, ou null se o arquivo não foi enviado
+     * @param erro Motivo da falha ou do arquivo ter sido ignorado
+     */
+    record ResultadoUpload(String nomeOriginal, String nomeBlob, String erro) {
+
+        static ResultadoUpload falha(MultipartFile arquivo, String erro) {
+            return new ResultadoUpload(arquivo.getOriginalFilename(), null, erro);
+        }
+
+        public boolean enviado() {
+            return nomeBlob != null;
+        }
+    }
+
+    /**
+     * Grava um PDF recebido
+     * @return Nome do blob gravado, ou null se o armazenamento não está configurado
+     */
+    String uploadPdf(MultipartFile arquivo) throws IOException;
+
+    /**
+     * Grava um PDF disponível apenas em memória
+     * @return Nome do blob gravado, ou null se o armazenamento não está configurado
+     */
+    String uploadPdf(byte[] conteudo, String nomeOriginal) throws IOException;
+
+    /**
+     * Grava vários PDFs
+     * @return Resultado de cada arquivo, na ordem recebida
+     */
+    List<ResultadoUpload> uploadLote(List<? extends MultipartFile> arquivos);
+
+    /**
+     * Abre o conteúdo de um blob para leitura; o stream deve ser fechado pelo chamador
+     * @throws IOException Se o blob não existir ou não puder ser lido
+     */
+    InputStream abrir(String nomeBlob) throws IOException;
+
+    boolean existe(String nomeBlob);
+
+    /**
+     * Remove um blob
+     * @return true se o blob existia
+     */
+    boolean excluir(String nomeBlob) throws IOException;
+
+    /**
+     * Nomes dos blobs que começam com o prefixo (vazio para todos)
+     */
+    List<String> listar(String prefixo);
+
+    /**
+     * Verifica se o armazenamento responde (usado pelo monitor de saúde)
+     * @throws RuntimeException Se não responder no prazo ou não estiver utilizável
+     */
+    void verificarConexao(Duration timeout);
+
+    boolean isConfigured();
+
+    /**
+     * Indica se o serviço na nuvem consegue ler os blobs gravados aqui. Quando false, o fluxo de
+     * extração não chama a nuvem: ela receberia um nome de blob que não consegue buscar
+     */
+    boolean acessivelPelaNuvem();
+
+    /**
+     * Container (Azure) ou diretório (local) onde os blobs ficam
+     */
+    String getContainerName();
+
+    /**
+     * Situação da inicialização do armazenamento
+     */
+    Map<String, Object> getProntidao();
+
+    /**
+     * Contadores de gravação
+     */
+    Map<String, Object> getEstatisticas();
+}
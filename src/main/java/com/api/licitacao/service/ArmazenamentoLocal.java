@@ -0,0 +1,294 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.model.DocumentoPdf;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento dos PDFs no sistema de arquivos local, para instalações sem Azure e testes de carga.
+ *
+ * Os blobs são endereçados pelo conteúdo ({@code <sha256>.pdf}) e distribuídos em subdiretórios
+ * pelos quatro primeiros caracteres do hash ({@code ab/cd/abcd....pdf}); o mesmo PDF é gravado uma
+ * única vez. A gravação usa {@link FileChannel#transferFrom}, que o sistema operacional executa sem
+ * passar o conteúdo pelo heap quando a origem é um arquivo; a leitura ({@link #abrir}) é um stream
+ * sobre o {@link FileChannel}, com cópia para o buffer do chamador.
+ *
+ * O serviço na nuvem lê os PDFs do Azure: com este armazenamento a nuvem só é chamada se
+ * {@code armazenamento.local.acessivel-pela-nuvem} indicar que ela enxerga o mesmo diretório (ou no
+ * perfil simulado, em que o serviço simulado não busca o blob).
+ */
+@Service
+@ConditionalOnProperty(name = "armazenamento.tipo", havingValue = "local")
+public class ArmazenamentoLocal implements ArmazenamentoBlob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArmazenamentoLocal.class);
+
+    private static final Pattern NOME_BLOB = Pattern.compile("[0-9a-f]{64}\\.pdf");
+
+    @Value("${armazenamento.local.diretorio:${java.io.tmpdir}/licitacao-blobs}")
+    private Path diretorio;
+
+    @Value("${armazenamento.local.acessivel-pela-nuvem:false}")
+    private boolean acessivelPelaNuvem;
+
+    private final TriagemPdf triagemPdf;
+    private final CacheExtracaoPdf cacheExtracaoPdf;
+
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong deduplicados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong bytesGravados = new AtomicLong();
+    private final AtomicLong bytesEconomizados = new AtomicLong();
+    private final AtomicLong nanosGravacao = new AtomicLong();
+
+    public ArmazenamentoLocal(TriagemPdf triagemPdf, CacheExtracaoPdf cacheExtracaoPdf) {
+        this.triagemPdf = triagemPdf;
+        this.cacheExtracaoPdf = cacheExtracaoPdf;
+    }
+
+    @PostConstruct
+    void inicializar() throws IOException {
+        Files.createDirectories(diretorio);
+        logger.info("Armazenamento local de PDFs em {}", diretorio.toAbsolutePath());
+    }
+
+    @Override
+    public String uploadPdf(MultipartFile arquivo) throws IOException {
+        if (arquivo instanceof DocumentoPdf documento) {
+            synchronized (documento) {
+                if (documento.getNomeBlob() == null) {
+                    // Arquivo temporário para arquivo final: cópia feita pelo kernel
+                    documento.setNomeBlob(gravar(documento.getHash(), documento.getSize(), documento.getOriginalFilename(),
+                        destino -> {
+                            try (FileChannel origem = FileChannel.open(documento.getCaminho(), StandardOpenOption.READ)) {
+                                transferir(origem, destino, documento.getSize());
+                            }
+                        }));
+                }
+                return documento.getNomeBlob();
+            }
+        }
+        return gravar(cacheExtracaoPdf.hash(arquivo), arquivo.getSize(), arquivo.getOriginalFilename(), destino -> {
+            try (ReadableByteChannel origem = Channels.newChannel(arquivo.getInputStream())) {
+                transferir(origem, destino, arquivo.getSize());
+            }
+        });
+    }
+
+    @Override
+    public String uploadPdf(byte[] conteudo, String nomeOriginal) throws IOException {
+        String hash = HexFormat.of().formatHex(CacheExtracaoPdf.novoDigest().digest(conteudo));
+        return gravar(hash, conteudo.length, nomeOriginal, destino -> {
+            ByteBuffer buffer = ByteBuffer.wrap(conteudo);
+            while (buffer.hasRemaining()) {
+                destino.write(buffer);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Escrita {
+        void escrever(FileChannel destino) throws IOException;
+    }
+
+    /**
+     * Grava num temporário do mesmo subdiretório e move para o nome final: leitores nunca veem
+     * um arquivo incompleto, e gravações simultâneas do mesmo conteúdo no máximo substituem o
+     * arquivo por outro idêntico
+     */
+    private String gravar(String hash, long tamanho, String nomeOriginal, Escrita escrita) throws IOException {
+        String nomeBlob = hash + ".pdf";
+        Path arquivoFinal = caminho(nomeBlob);
+        if (Files.exists(arquivoFinal)) {
+            registrarDeduplicado(nomeOriginal, nomeBlob, tamanho);
+            return nomeBlob;
+        }
+
+        long inicio = System.nanoTime();
+        Files.createDirectories(arquivoFinal.getParent());
+        Path temporario = Files.createTempFile(arquivoFinal.getParent(), hash, ".tmp");
+        try {
+            try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                escrita.escrever(destino);
+                destino.force(false);
+            }
+            Files.move(temporario, arquivoFinal, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Outra requisição gravou o mesmo conteúdo no intervalo (sistemas que não substituem no move atômico)
+            Files.deleteIfExists(temporario);
+            registrarDeduplicado(nomeOriginal, nomeBlob, tamanho);
+            return nomeBlob;
+        } catch (IOException e) {
+            falhas.incrementAndGet();
+            Files.deleteIfExists(temporario);
+            throw new IOException("Falha ao gravar '" + nomeOriginal + "' em " + diretorio + ": " + e.getMessage(), e);
+        }
+
+        long nanos = System.nanoTime() - inicio;
+        gravados.incrementAndGet();
+        bytesGravados.addAndGet(tamanho);
+        nanosGravacao.addAndGet(nanos);
+        logger.info("Arquivo '{}' gravado como '{}' ({} bytes em {} ms)", nomeOriginal, nomeBlob, tamanho, nanos / 1_000_000);
+        return nomeBlob;
+    }
+
+    private static void transferir(ReadableByteChannel origem, FileChannel destino, long tamanho) throws IOException {
+        long posicao = 0;
+        while (posicao < tamanho) {
+            long transferidos = destino.transferFrom(origem, posicao, tamanho - posicao);
+            if (transferidos <= 0) {
+                throw new IOException("Conteúdo terminou em " + posicao + " de " + tamanho + " bytes");
+            }
+            posicao += transferidos;
+        }
+    }
+
+    private void registrarDeduplicado(String nomeOriginal, String nomeBlob, long tamanho) {
+        deduplicados.incrementAndGet();
+        bytesEconomizados.addAndGet(tamanho);
+        logger.info("Arquivo '{}' já armazenado como '{}'", nomeOriginal, nomeBlob);
+    }
+
+    /**
+     * Caminho do blob: {@code <diretorio>/ab/cd/<hash>.pdf}
+     * @throws IllegalArgumentException Se o nome não for de um blob deste armazenamento
+     */
+    private Path caminho(String nomeBlob) {
+        if (nomeBlob == null || !NOME_BLOB.matcher(nomeBlob).matches()) {
+            throw new IllegalArgumentException("Nome de blob inválido: " + nomeBlob);
+        }
+        return diretorio.resolve(nomeBlob.substring(0, 2)).resolve(nomeBlob.substring(2, 4)).resolve(nomeBlob);
+    }
+
+    @Override
+    public List<ResultadoUpload> uploadLote(List<? extends MultipartFile> arquivos) {
+        // Gravação local é limitada pelo disco: sem ganho em paralelizar
+        List<ResultadoUpload> resultados = new ArrayList<>();
+        for (MultipartFile arquivo : arquivos) {
+            try {
+                if (arquivo.isEmpty()) {
+                    resultados.add(ResultadoUpload.falha(arquivo, "Arquivo vazio"));
+                    continue;
+                }
+                TriagemPdf.ResultadoTriagem triagem = triagemPdf.triar(arquivo);
+                if (!triagem.aceito()) {
+                    resultados.add(ResultadoUpload.falha(arquivo, "Rejeitado na triagem: " + triagem.motivo()));
+                    continue;
+                }
+                resultados.add(new ResultadoUpload(arquivo.getOriginalFilename(), uploadPdf(arquivo), null));
+            } catch (IOException e) {
+                logger.error("Erro ao gravar o arquivo '{}': {}", arquivo.getOriginalFilename(), e.getMessage());
+                resultados.add(ResultadoUpload.falha(arquivo, e.getMessage()));
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Abre o blob para leitura direto do arquivo, sem carregá-lo em memória
+     */
+    @Override
+    public InputStream abrir(String nomeBlob) throws IOException {
+        return Channels.newInputStream(FileChannel.open(caminho(nomeBlob), StandardOpenOption.READ));
+    }
+
+    @Override
+    public boolean existe(String nomeBlob) {
+        return Files.exists(caminho(nomeBlob));
+    }
+
+    @Override
+    public boolean excluir(String nomeBlob) throws IOException {
+        return Files.deleteIfExists(caminho(nomeBlob));
+    }
+
+    @Override
+    public List<String> listar(String prefixo) {
+        String filtro = prefixo != null ? prefixo : "";
+        try (Stream<Path> arquivos = Files.find(diretorio, 3,
+                (caminho, atributos) -> atributos.isRegularFile() && NOME_BLOB.matcher(caminho.getFileName().toString()).matches())) {
+            return arquivos.map(caminho -> caminho.getFileName().toString())
+                .filter(nome -> nome.startsWith(filtro))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar " + diretorio, e);
+        }
+    }
+
+    @Override
+    public void verificarConexao(Duration timeout) {
+        if (!Files.isDirectory(diretorio) || !Files.isWritable(diretorio)) {
+            throw new IllegalStateException("Diretório " + diretorio + " inexistente ou sem permissão de escrita");
+        }
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    @Override
+    public boolean acessivelPelaNuvem() {
+        return acessivelPelaNuvem;
+    }
+
+    @Override
+    public String getContainerName() {
+        return diretorio.toString();
+    }
+
+    @Override
+    public Map<String, Object> getProntidao() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("situacao", Files.isWritable(diretorio) ? "PRONTO" : "FALHOU");
+        estado.put("diretorio", diretorio.toAbsolutePath().toString());
+        return estado;
+    }
+
+    @Override
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        long total = gravados.get();
+        long nanos = nanosGravacao.get();
+        long consultas = total + deduplicados.get();
+        estatisticas.put("armazenamento", "local");
+        estatisticas.put("prontidao", getProntidao());
+        estatisticas.put("uploads", total);
+        estatisticas.put("uploadsComFalha", falhas.get());
+        estatisticas.put("bytesEnviados", bytesGravados.get());
+        estatisticas.put("tempoMedioMs", total > 0 ? nanos / 1_000_000.0 / total : 0.0);
+        estatisticas.put("vazaoMediaMBps", nanos > 0 ? bytesGravados.get() / (1024.0 * 1024.0) / (nanos / 1e9) : 0.0);
+        estatisticas.put("acertosDeduplicacao", deduplicados.get());
+        estatisticas.put("taxaAcertoDeduplicacao", consultas > 0 ? (double) deduplicados.get() / consultas : 0.0);
+        estatisticas.put("bytesEconomizados", bytesEconomizados.get());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,123 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.service.ExtratorCamposCapa.Campo;
+import com.api.licitacao.service.ExtratorCamposCapa.CamposExtraidos;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pontuação de confiança da extração local da capa.
+ *
+ * Cada campo recebe uma nota entre 0 e 1 conforme o valor capturado se parece com o esperado
+ * (identificadores com dígitos, datas válidas, textos com tamanho plausível). A confiança geral
+ * é a média das notas dos campos avaliados; campos ausentes contam como 0.
+ */
+@Component
+public class AvaliadorConfianca {
+
+    /** Abaixo disso um texto livre provavelmente é um pedaço de frase capturado pelo rótulo */
+    private static final int TAMANHO_MINIMO_TEXTO = 4;
+    private static final int TAMANHO_TEXTO_CONFIAVEL = 12;
+    /** Acima disso o valor provavelmente engoliu o restante do parágrafo */
+    private static final int TAMANHO_MAXIMO_TEXTO = 400;
+
+    private final NormalizadorDataHora normalizadorDataHora;
+
+    public AvaliadorConfianca(NormalizadorDataHora normalizadorDataHora) {
+        this.normalizadorDataHora = normalizadorDataHora;
+    }
+
+    /**
+     * Resultado da avaliação
+     * @param confianca Média das notas dos campos avaliados (0 a 1)
+     * @param porCampo Nota de cada campo avaliado
+     * @param ausentes Campos avaliados que não foram encontrados
+     */
+    public record Avaliacao(double confianca, Map<Campo, Double> porCampo, Set<Campo> ausentes) {
+
+        public boolean contemTodos(Collection<Campo> campos) {
+            for (Campo campo : campos) {
+                if (ausentes.contains(campo)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Avalia os campos extraídos
+     * @param campos Resultado da extração local
+     * @param avaliados Campos que compõem a confiança geral
+     */
+    public Avaliacao avaliar(CamposExtraidos campos, Collection<Campo> avaliados) {
+        Map<Campo, Double> porCampo = new EnumMap<>(Campo.class);
+        Set<Campo> ausentes = EnumSet.noneOf(Campo.class);
+        double soma = 0;
+        for (Campo campo : avaliados) {
+            String valor = campos.get(campo);
+            if (valor == null) {
+                ausentes.add(campo);
+            }
+            double nota = pontuar(campo, valor);
+            porCampo.put(campo, nota);
+            soma += nota;
+        }
+        double confianca = avaliados.isEmpty() ? 1.0 : soma / avaliados.size();
+        return new Avaliacao(confianca, porCampo, ausentes);
+    }
+
+    private double pontuar(Campo campo, String valor) {
+        if (valor == null || valor.isBlank()) {
+            return 0.0;
+        }
+        return switch (campo) {
+            case PROCESSO, EDITAL -> pontuarIdentificador(valor);
+            case DATA -> normalizadorDataHora.parseData(valor) != null ? 1.0 : 0.2;
+            case HORA -> normalizadorDataHora.parseHora(valor) != null ? 1.0 : 0.2;
+            case ATESTADO -> 1.0;
+            default -> pontuarTexto(valor);
+        };
+    }
+
+    /**
+     * Números de processo/edital costumam ter dígitos e separador (ex.: 123/2024)
+     */
+    private double pontuarIdentificador(String valor) {
+        boolean temDigito = false;
+        boolean temSeparador = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (Character.isDigit(c)) {
+                temDigito = true;
+            } else if (c == '/' || c == '-' || c == '.') {
+                temSeparador = true;
+            }
+        }
+        if (temDigito && temSeparador) {
+            return 1.0;
+        }
+        return temDigito ? 0.7 : 0.2;
+    }
+
+    private double pontuarTexto(String valor) {
+        int letras = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            if (Character.isLetter(valor.charAt(i))) {
+                letras++;
+            }
+        }
+        if (letras < TAMANHO_MINIMO_TEXTO) {
+            return 0.2;
+        }
+        if (valor.length() > TAMANHO_MAXIMO_TEXTO) {
+            return 0.5;
+        }
+        return valor.length() >= TAMANHO_TEXTO_CONFIAVEL ? 1.0 : 0.6;
+    }
+}
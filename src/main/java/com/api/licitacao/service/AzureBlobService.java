@@ -1,105 +1,415 @@
 package com.api.licitacao.service;
 
+import com.api.licitacao.model.DocumentoPdf;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.*;
 import com.azure.storage.blob.models.*;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
-public class AzureBlobService {
+@ConditionalOnProperty(name = "armazenamento.tipo", havingValue = "azure", matchIfMissing = true)
+public class AzureBlobService implements ArmazenamentoBlob {
 
     private static final Logger logger = LoggerFactory.getLogger(AzureBlobService.class);
 
+    /** Metadado com o nome do arquivo enviado, nos blobs endereçados pelo conteúdo */
+    static final String METADADO_NOME_ORIGINAL = "nome_original";
+
     @Value("${azure.storage.connection-string:#{null}}")
     private String connectionString;
 
     @Value("${azure.storage.container-name:licitacao-pdfs}")
     private String containerName;
 
-    private BlobServiceClient blobServiceClient;
-    private BlobContainerClient containerClient;
+    @Value("${azure.upload.tamanho-bloco:4MB}")
+    private DataSize tamanhoBloco;
+
+    @Value("${azure.upload.concorrencia:4}")
+    private int concorrencia;
+
+    @Value("${azure.upload.limite-envio-unico:8MB}")
+    private DataSize limiteEnvioUnico;
+
+    @Value("${azure.upload.deduplicar:false}")
+    private boolean deduplicar;
+
+    @Value("${azure.upload.lote.paralelismo:4}")
+    private int paralelismoLote;
+
+    @Value("${azure.upload.lote.prazo:120s}")
+    private Duration prazoLote;
+
+    @Value("${azure.storage.inicializacao-antecipada:true}")
+    private boolean inicializacaoAntecipada;
+
+    @Value("${azure.storage.conexoes-aquecidas:4}")
+    private int conexoesAquecidas;
 
     /**
-     * Inicializa o cliente Azure Blob Storage
+     * Situação da inicialização do cliente
      */
-    private void initializeClient() {
-        if (blobServiceClient == null && connectionString != null) {
-            try {
-                blobServiceClient = new BlobServiceClientBuilder()
-                    .connectionString(connectionString)
-                    .buildClient();
-                
-                containerClient = blobServiceClient.getBlobContainerClient(containerName);
-                
-                // Cria o container caso não exista
-                if (!containerClient.exists()) {
-                    containerClient.create();
-                    logger.info("Container '{}' criado com sucesso", containerName);
+    public enum Prontidao {
+        NAO_CONFIGURADO,
+        /** Cliente ainda não criado (inicialização antecipada desabilitada) */
+        PENDENTE,
+        INICIALIZANDO,
+        PRONTO,
+        /** A última tentativa falhou; o próximo upload tenta de novo */
+        FALHOU
+    }
+
+    private final ReentrantLock travaInicializacao = new ReentrantLock();
+    private volatile BlobContainerClient containerClient;
+    private volatile Prontidao prontidao = Prontidao.PENDENTE;
+    private volatile String erroInicializacao;
+    private volatile long duracaoInicializacaoMs;
+
+    private final TriagemPdf triagemPdf;
+    private final CacheExtracaoPdf cacheExtracaoPdf;
+
+    private ThreadPoolExecutor executorLote;
+
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong uploadsComFalha = new AtomicLong();
+    private final AtomicLong bytesEnviados = new AtomicLong();
+    private final AtomicLong nanosUpload = new AtomicLong();
+    private final AtomicLong maiorDuracaoNanos = new AtomicLong();
+    private final AtomicLong consultasDeduplicacao = new AtomicLong();
+    private final AtomicLong acertosDeduplicacao = new AtomicLong();
+    private final AtomicLong bytesEconomizados = new AtomicLong();
+
+    public AzureBlobService(TriagemPdf triagemPdf, CacheExtracaoPdf cacheExtracaoPdf) {
+        this.triagemPdf = triagemPdf;
+        this.cacheExtracaoPdf = cacheExtracaoPdf;
+    }
+
+    @PostConstruct
+    void inicializar() {
+        // Compartilhado entre requisições: limita também o total de envios simultâneos da aplicação
+        AtomicInteger contador = new AtomicInteger();
+        int tamanho = Math.max(1, paralelismoLote);
+        executorLote = new ThreadPoolExecutor(tamanho, tamanho, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "azure-upload-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorLote.allowCoreThreadTimeOut(true);
+
+        if (isConfigured() && inicializacaoAntecipada) {
+            // Em segundo plano: um Azure lento ou fora do ar não atrasa a subida da aplicação,
+            // e uploads que chegarem antes aguardam a mesma inicialização
+            executorLote.execute(() -> {
+                try {
+                    cliente();
+                } catch (RuntimeException e) {
+                    // Já registrado; o próximo upload tenta novamente
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executorLote.shutdownNow();
+    }
+
+    /**
+     * Cliente do container, criado uma única vez. Chamadas simultâneas aguardam a mesma
+     * inicialização; depois de uma falha a próxima chamada tenta novamente
+     */
+    private BlobContainerClient cliente() {
+        BlobContainerClient cliente = containerClient;
+        if (cliente != null) {
+            return cliente;
+        }
+        travaInicializacao.lock();
+        try {
+            return inicializarSeNecessario();
+        } finally {
+            travaInicializacao.unlock();
+        }
+    }
+
+    private BlobContainerClient inicializarSeNecessario() {
+        if (containerClient == null) {
+            containerClient = criarCliente();
+        }
+        return containerClient;
+    }
+
+    /**
+     * Inicializa o cliente Azure Blob Storage: verifica (ou cria) o container e abre as conexões
+     * que os uploads em blocos vão usar
+     */
+    private BlobContainerClient criarCliente() {
+        long inicio = System.nanoTime();
+        prontidao = Prontidao.INICIALIZANDO;
+        try {
+            BlobServiceClient blobServiceClient = new BlobServiceClientBuilder()
+                .connectionString(connectionString)
+                .buildClient();
+            
+            BlobContainerClient cliente = blobServiceClient.getBlobContainerClient(containerName);
+            
+            // Cria o container caso não exista
+            if (cliente.createIfNotExists()) {
+                logger.info("Container '{}' criado com sucesso", containerName);
+            }
+            aquecerConexoes(cliente);
+
+            duracaoInicializacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            erroInicializacao = null;
+            prontidao = Prontidao.PRONTO;
+            logger.info("Cliente Azure Blob Storage inicializado com sucesso em {} ms", duracaoInicializacaoMs);
+            return cliente;
+        } catch (Exception e) {
+            erroInicializacao = e.getMessage();
+            prontidao = Prontidao.FALHOU;
+            logger.error("Erro ao inicializar cliente Azure Blob Storage: {}", e.getMessage());
+            throw new RuntimeException("Falha ao conectar com Azure Blob Storage", e);
+        }
+    }
+
+    /**
+     * Requisições simultâneas ao container deixam no pool do cliente HTTP conexões já com TLS
+     * estabelecido, uma por bloco enviado em paralelo
+     */
+    private void aquecerConexoes(BlobContainerClient cliente) {
+        int conexoes = Math.max(0, conexoesAquecidas);
+        if (conexoes <= 1) {
+            return;
+        }
+        // Threads próprias: o executor de lotes pode estar ocupado com uploads aguardando esta inicialização
+        List<Thread> consultas = new ArrayList<>();
+        for (int i = 1; i < conexoes; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    cliente.exists();
+                } catch (RuntimeException e) {
+                    // Não impede o uso do cliente: a conexão será aberta no primeiro upload
+                    logger.debug("Falha ao pré-abrir conexão com o Azure: {}", e.getMessage());
                 }
-                
-                logger.info("Cliente Azure Blob Storage inicializado com sucesso");
-            } catch (Exception e) {
-                logger.error("Erro ao inicializar cliente Azure Blob Storage: {}", e.getMessage());
-                throw new RuntimeException("Falha ao conectar com Azure Blob Storage", e);
+            }, "azure-aquecimento-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            consultas.add(thread);
+        }
+        try {
+            for (Thread thread : consultas) {
+                thread.join();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Faz upload de um arquivo PDF para Azure Blob Storage
+     * Situação da inicialização do cliente
+     * @return Mapa com a situação, duração da inicialização e o último erro
+     */
+    @Override
+    public Map<String, Object> getProntidao() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("situacao", isConfigured() ? prontidao.name() : Prontidao.NAO_CONFIGURADO.name());
+        estado.put("inicializacaoAntecipada", inicializacaoAntecipada);
+        estado.put("duracaoInicializacaoMs", duracaoInicializacaoMs);
+        estado.put("erro", erroInicializacao);
+        return estado;
+    }
+
+    /**
+     * Faz upload de um arquivo PDF para Azure Blob Storage. Um {@link DocumentoPdf} é enviado no
+     * máximo uma vez: chamadas seguintes devolvem o blob já gravado
      * @param arquivo Arquivo MultipartFile para upload
      * @return Nome do blob gravado no Azure
      * @throws IOException Se ocorrer erro durante o upload
      */
+    @Override
     public String uploadPdf(MultipartFile arquivo) throws IOException {
+        if (arquivo instanceof DocumentoPdf documento) {
+            synchronized (documento) {
+                if (documento.getNomeBlob() == null) {
+                    // Arquivo local: o SDK relê os blocos direto do disco
+                    documento.setNomeBlob(uploadPdf(BinaryData.fromFile(documento.getCaminho()),
+                        documento.getSize(), documento.getOriginalFilename(), deduplicar ? documento.getHash() : null));
+                } else {
+                    logger.debug("PDF '{}' já enviado como '{}'", documento.getOriginalFilename(), documento.getNomeBlob());
+                }
+                return documento.getNomeBlob();
+            }
+        }
+        String hash = deduplicar ? cacheExtracaoPdf.hash(arquivo) : null;
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            return uploadPdf(BinaryData.fromStream(conteudo, arquivo.getSize()), arquivo.getSize(),
+                arquivo.getOriginalFilename(), hash);
+        }
+    }
+
+    /**
+     * Faz upload de um PDF gerado em memória (ex.: PDF condensado com as páginas selecionadas)
+     * @param conteudo Bytes do PDF
+     * @param nomeOriginal Nome usado como base do blob
+     * @return Nome do blob gravado no Azure
+     * @throws IOException Se ocorrer erro durante o upload
+     */
+    @Override
+    public String uploadPdf(byte[] conteudo, String nomeOriginal) throws IOException {
+        String hash = deduplicar ? HexFormat.of().formatHex(CacheExtracaoPdf.novoDigest().digest(conteudo)) : null;
+        return uploadPdf(BinaryData.fromBytes(conteudo), conteudo.length, nomeOriginal, hash);
+    }
+
+    /**
+     * Envia o conteúdo em blocos paralelos; tipo e disposição do conteúdo vão na própria requisição
+     * de upload (ou no commit da lista de blocos), sem chamada separada de setHttpHeaders.
+     * Com hash informado o blob é endereçado pelo conteúdo e o envio é pulado se ele já existir
+     */
+    private String uploadPdf(BinaryData conteudo, long tamanho, String nomeOriginal, String hash) throws IOException {
         if (connectionString == null || connectionString.trim().isEmpty()) {
             logger.warn("Connection string do Azure não configurada. Upload ignorado.");
             return null;
         }
 
+        long inicio = System.nanoTime();
         try {
-            initializeClient();
+            BlobContainerClient cliente = cliente();
             
-            // Gerar nome único para o blob mantendo o nome original
-            String nomeOriginal = arquivo.getOriginalFilename();
-            String nomeArquivo = gerarNomeUnico(nomeOriginal);
-            
-            logger.info("Iniciando upload do arquivo '{}' como '{}'", nomeOriginal, nomeArquivo);
+            // Conteúdo endereçado pelo SHA-256, ou nome único mantendo o nome original
+            String nomeArquivo = hash != null ? hash + ".pdf" : gerarNomeUnico(nomeOriginal);
             
             // Obter o cliente do blob
-            BlobClient blobClient = containerClient.getBlobClient(nomeArquivo);
+            BlobClient blobClient = cliente.getBlobClient(nomeArquivo);
+
+            if (hash != null) {
+                consultasDeduplicacao.incrementAndGet();
+                if (blobClient.exists()) {
+                    registrarDeduplicado(nomeOriginal, nomeArquivo, tamanho);
+                    return nomeArquivo;
+                }
+            }
             
-            // Fazer upload do arquivo
-            blobClient.upload(arquivo.getInputStream(), arquivo.getSize(), true);
+            logger.info("Iniciando upload do arquivo '{}' como '{}'", nomeOriginal, nomeArquivo);
             
             // Definir metadados
             BlobHttpHeaders headers = new BlobHttpHeaders()
                 .setContentType("application/pdf")
                 .setContentDisposition("attachment; filename=\"" + nomeOriginal + "\"");
-            
-            blobClient.setHttpHeaders(headers);
-            
-            logger.info("Upload do arquivo '{}' concluído com sucesso. Blob: '{}'", nomeOriginal, nomeArquivo);
+
+            // Fazer upload do arquivo (sem condição de acesso: sobrescreve se existir)
+            BlobParallelUploadOptions opcoes = new BlobParallelUploadOptions(conteudo)
+                .setParallelTransferOptions(new ParallelTransferOptions()
+                    .setBlockSizeLong(tamanhoBloco.toBytes())
+                    .setMaxConcurrency(Math.max(1, concorrencia))
+                    .setMaxSingleUploadSizeLong(limiteEnvioUnico.toBytes()))
+                .setHeaders(headers);
+            if (hash != null) {
+                // Nome original como metadado (codificado: cabeçalhos HTTP só aceitam ASCII); If-None-Match
+                // evita sobrescrever o mesmo conteúdo enviado em paralelo por outra requisição
+                opcoes.setMetadata(Map.of(METADADO_NOME_ORIGINAL,
+                        URLEncoder.encode(nomeOriginal != null ? nomeOriginal : "", StandardCharsets.UTF_8)))
+                    .setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*"));
+            }
+            try {
+                blobClient.uploadWithResponse(opcoes, null, Context.NONE);
+            } catch (BlobStorageException e) {
+                if (hash == null || !BlobErrorCode.BLOB_ALREADY_EXISTS.equals(e.getErrorCode())) {
+                    throw e;
+                }
+                registrarDeduplicado(nomeOriginal, nomeArquivo, tamanho);
+                return nomeArquivo;
+            }
+
+            long nanos = System.nanoTime() - inicio;
+            registrarUpload(tamanho, nanos);
+            logger.info("Upload do arquivo '{}' concluído com sucesso. Blob: '{}' ({} bytes em {} ms)",
+                nomeOriginal, nomeArquivo, tamanho, nanos / 1_000_000);
             
             return nomeArquivo;
             
         } catch (Exception e) {
+            uploadsComFalha.incrementAndGet();
             logger.error("Erro ao fazer upload do arquivo '{}' para Azure: {}", 
-                arquivo.getOriginalFilename(), e.getMessage(), e);
+                nomeOriginal, e.getMessage(), e);
             throw new IOException("Falha no upload para Azure Blob Storage: " + e.getMessage(), e);
         }
     }
 
+    private void registrarDeduplicado(String nomeOriginal, String nomeArquivo, long tamanho) {
+        acertosDeduplicacao.incrementAndGet();
+        bytesEconomizados.addAndGet(tamanho);
+        logger.info("Arquivo '{}' já armazenado como '{}', upload de {} bytes evitado", nomeOriginal, nomeArquivo, tamanho);
+    }
+
+    private void registrarUpload(long bytes, long nanos) {
+        uploads.incrementAndGet();
+        bytesEnviados.addAndGet(bytes);
+        nanosUpload.addAndGet(nanos);
+        maiorDuracaoNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Contadores dos uploads
+     * @return Mapa com uploads, falhas, bytes enviados, tempos e vazão média
+     */
+    @Override
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        long total = uploads.get();
+        long nanos = nanosUpload.get();
+        estatisticas.put("prontidao", getProntidao());
+        estatisticas.put("uploads", total);
+        estatisticas.put("uploadsComFalha", uploadsComFalha.get());
+        estatisticas.put("bytesEnviados", bytesEnviados.get());
+        estatisticas.put("tempoMedioMs", total > 0 ? nanos / 1_000_000.0 / total : 0.0);
+        estatisticas.put("maiorTempoMs", maiorDuracaoNanos.get() / 1_000_000);
+        estatisticas.put("vazaoMediaMBps", nanos > 0 ? bytesEnviados.get() / (1024.0 * 1024.0) / (nanos / 1e9) : 0.0);
+        estatisticas.put("tamanhoBlocoBytes", tamanhoBloco.toBytes());
+        estatisticas.put("concorrencia", concorrencia);
+        estatisticas.put("limiteEnvioUnicoBytes", limiteEnvioUnico.toBytes());
+        long consultas = consultasDeduplicacao.get();
+        estatisticas.put("paralelismoLote", paralelismoLote);
+        estatisticas.put("enviosLoteEmAndamento", executorLote.getActiveCount());
+        estatisticas.put("enviosLoteNaFila", executorLote.getQueue().size());
+        estatisticas.put("deduplicacao", deduplicar);
+        estatisticas.put("consultasDeduplicacao", consultas);
+        estatisticas.put("acertosDeduplicacao", acertosDeduplicacao.get());
+        estatisticas.put("taxaAcertoDeduplicacao", consultas > 0 ? (double) acertosDeduplicacao.get() / consultas : 0.0);
+        estatisticas.put("bytesEconomizados", bytesEconomizados.get());
+        return estatisticas;
+    }
+
     /**
      * Faz upload de múltiplos arquivos PDF para Azure Blob Storage
      * @param arquivos Lista de arquivos MultipartFile para upload
@@ -107,28 +417,78 @@ public class AzureBlobService {
      */
     public List<String> uploadMultiplosPdfs(List<MultipartFile> arquivos) {
         List<String> nomesBlobs = new ArrayList<>();
-        
+        for (ResultadoUpload resultado : uploadLote(arquivos)) {
+            if (resultado.enviado()) {
+                nomesBlobs.add(resultado.nomeBlob());
+            }
+        }
+        return nomesBlobs;
+    }
+
+    /**
+     * Envia os arquivos simultaneamente, limitado a azure.upload.lote.paralelismo envios ao mesmo
+     * tempo; o lote termina em torno do tempo do arquivo mais lento ou no prazo configurado
+     * @param arquivos PDFs a enviar
+     * @return Resultado de cada arquivo, na ordem recebida
+     */
+    @Override
+    public List<ResultadoUpload> uploadLote(List<? extends MultipartFile> arquivos) {
+        List<ResultadoUpload> resultados = new ArrayList<>();
         if (connectionString == null || connectionString.trim().isEmpty()) {
             logger.warn("Connection string do Azure não configurada. Uploads ignorados.");
-            return nomesBlobs;
+            for (MultipartFile arquivo : arquivos) {
+                resultados.add(ResultadoUpload.falha(arquivo, "Azure não configurado"));
+            }
+            return resultados;
         }
 
+        long inicio = System.nanoTime();
+        long limite = inicio + prazoLote.toNanos();
+        List<Future<ResultadoUpload>> envios = new ArrayList<>();
         for (MultipartFile arquivo : arquivos) {
+            envios.add(executorLote.submit(() -> enviarDoLote(arquivo)));
+        }
+
+        for (int i = 0; i < envios.size(); i++) {
+            MultipartFile arquivo = arquivos.get(i);
+            Future<ResultadoUpload> envio = envios.get(i);
             try {
-                if (!arquivo.isEmpty() && isPdfFile(arquivo)) {
-                    String nomeBlob = uploadPdf(arquivo);
-                    if (nomeBlob != null) {
-                        nomesBlobs.add(nomeBlob);
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("Erro ao fazer upload do arquivo '{}': {}", 
-                    arquivo.getOriginalFilename(), e.getMessage());
-                // Continua o processamento dos outros arquivos
+                resultados.add(envio.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                envio.cancel(true);
+                resultados.add(ResultadoUpload.falha(arquivo, "Prazo do lote esgotado (" + prazoLote.toSeconds() + " s)"));
+            } catch (ExecutionException e) {
+                resultados.add(ResultadoUpload.falha(arquivo, e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                envio.cancel(true);
+                resultados.add(ResultadoUpload.falha(arquivo, "Lote interrompido"));
             }
         }
-        
-        return nomesBlobs;
+
+        long enviados = resultados.stream().filter(ResultadoUpload::enviado).count();
+        logger.info("Lote de {} arquivo(s) para Azure: {} enviado(s) em {} ms",
+            arquivos.size(), enviados, (System.nanoTime() - inicio) / 1_000_000);
+        return resultados;
+    }
+
+    private ResultadoUpload enviarDoLote(MultipartFile arquivo) {
+        try {
+            // Arquivos corrompidos ou que não são PDF não chegam a ser enviados
+            if (arquivo.isEmpty()) {
+                return ResultadoUpload.falha(arquivo, "Arquivo vazio");
+            }
+            TriagemPdf.ResultadoTriagem triagem = triagemPdf.triar(arquivo);
+            if (!triagem.aceito()) {
+                return ResultadoUpload.falha(arquivo, "Rejeitado na triagem: " + triagem.motivo());
+            }
+            return new ResultadoUpload(arquivo.getOriginalFilename(), uploadPdf(arquivo), null);
+        } catch (Exception e) {
+            logger.error("Erro ao fazer upload do arquivo '{}': {}", 
+                arquivo.getOriginalFilename(), e.getMessage());
+            // Continua o processamento dos outros arquivos
+            return ResultadoUpload.falha(arquivo, e.getMessage());
+        }
     }
 
     /**
@@ -157,31 +517,97 @@ public class AzureBlobService {
     }
 
     /**
-     * Verifica se o arquivo é um PDF válido
-     * @param arquivo Arquivo para verificação
-     * @return true se for PDF, false caso contrário
+     * Verifica se o Azure Blob Storage responde e o container existe (usado pelo monitor de saúde)
+     * @param timeout Prazo da verificação
+     * @throws RuntimeException Se o Azure não responder no prazo ou o container não existir
      */
-    private boolean isPdfFile(MultipartFile arquivo) {
-        String contentType = arquivo.getContentType();
-        String filename = arquivo.getOriginalFilename();
-        
-        return (contentType != null && contentType.equals("application/pdf")) ||
-               (filename != null && filename.toLowerCase().endsWith(".pdf"));
+    @Override
+    public void verificarConexao(Duration timeout) {
+        BlobContainerClient cliente = containerClient;
+        if (cliente == null) {
+            // Não aguarda uma inicialização em andamento além do prazo da verificação
+            try {
+                if (!travaInicializacao.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Cliente Azure em inicialização há mais de " + timeout.toMillis() + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Verificação interrompida", e);
+            }
+            try {
+                cliente = inicializarSeNecessario();
+            } finally {
+                travaInicializacao.unlock();
+            }
+        }
+        Boolean existe = cliente.existsWithResponse(timeout, Context.NONE).getValue();
+        if (!Boolean.TRUE.equals(existe)) {
+            throw new IllegalStateException("Container '" + containerName + "' não encontrado");
+        }
     }
 
     /**
      * Verifica se o serviço Azure está configurado
      * @return true se estiver configurado, false caso contrário
      */
+    @Override
     public boolean isConfigured() {
         return connectionString != null && !connectionString.trim().isEmpty();
     }
 
+    /**
+     * O serviço na nuvem lê os PDFs deste container
+     */
+    @Override
+    public boolean acessivelPelaNuvem() {
+        return true;
+    }
+
     /**
      * Retorna o nome do container configurado
      * @return Nome do container
      */
+    @Override
     public String getContainerName() {
         return containerName;
     }
+
+    /**
+     * Abre o blob para leitura em streaming (o conteúdo é baixado em trechos conforme é lido)
+     */
+    @Override
+    public InputStream abrir(String nomeBlob) throws IOException {
+        try {
+            return cliente().getBlobClient(nomeBlob).openInputStream();
+        } catch (BlobStorageException e) {
+            throw new IOException("Falha ao abrir blob '" + nomeBlob + "': " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean existe(String nomeBlob) {
+        return cliente().getBlobClient(nomeBlob).exists();
+    }
+
+    @Override
+    public boolean excluir(String nomeBlob) throws IOException {
+        try {
+            return cliente().getBlobClient(nomeBlob).deleteIfExists();
+        } catch (BlobStorageException e) {
+            throw new IOException("Falha ao excluir blob '" + nomeBlob + "': " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> listar(String prefixo) {
+        ListBlobsOptions opcoes = new ListBlobsOptions();
+        if (prefixo != null && !prefixo.isEmpty()) {
+            opcoes.setPrefix(prefixo);
+        }
+        List<String> nomes = new ArrayList<>();
+        for (BlobItem item : cliente().listBlobs(opcoes, null)) {
+            nomes.add(item.getName());
+        }
+        return nomes;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.exception.BulkheadCheioException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Isola as chamadas ao serviço de score na nuvem num executor próprio.
+ *
+ * No máximo max-em-voo chamadas rodam ao mesmo tempo e até fila aguardam; além disso a
+ * submissão falha imediatamente com {@link BulkheadCheioException}, para que o chamador
+ * responda rápido ou use a extração local em vez de ocupar uma thread do Tomcat esperando.
+ *
+ * As tentativas extras do hedge ({@link HedgeNuvem}) ocupam as mesmas vagas: cada chamada em
+ * execução detém uma vaga, e a tentativa extra só é disparada se houver outra livre. Assim o
+ * serviço nunca recebe mais que max-em-voo requisições simultâneas.
+ */
+@Service
+public class BulkheadNuvem {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadNuvem.class);
+
+    @Value("${cloud.pdf.bulkhead.max-em-voo:8}")
+    private int maxEmVoo;
+
+    @Value("${cloud.pdf.bulkhead.fila:16}")
+    private int capacidadeFila;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore vagas;
+
+    private final AtomicLong rejeitadas = new AtomicLong();
+    private final AtomicLong concluidas = new AtomicLong();
+
+    @PostConstruct
+    void inicializar() {
+        AtomicInteger contador = new AtomicInteger();
+        vagas = new Semaphore(maxEmVoo);
+        executor = new ThreadPoolExecutor(maxEmVoo, maxEmVoo, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, capacidadeFila)), r -> {
+                Thread thread = new Thread(r, "nuvem-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submete uma chamada à nuvem
+     * @param chamada Chamada bloqueante
+     * @return Futuro com o resultado; falha com {@link BulkheadCheioException} se não houver vaga
+     */
+    public <T> CompletableFuture<T> submeter(Supplier<T> chamada) {
+        try {
+            return CompletableFuture.supplyAsync(() -> executarComVaga(chamada), executor)
+                .whenComplete((resultado, erro) -> concluidas.incrementAndGet());
+        } catch (RejectedExecutionException e) {
+            rejeitadas.incrementAndGet();
+            logger.warn("Bulkhead da nuvem cheio: {} em voo, {} na fila", executor.getActiveCount(), executor.getQueue().size());
+            return CompletableFuture.failedFuture(new BulkheadCheioException("Capacidade de chamadas ao serviço na nuvem esgotada"));
+        }
+    }
+
+    /**
+     * Executa a chamada detendo uma vaga; espera apenas se uma tentativa extra do hedge ocupa a vaga
+     * desta thread, o que dura no máximo uma requisição
+     */
+    private <T> T executarComVaga(Supplier<T> chamada) {
+        try {
+            vagas.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return chamada.get();
+        } finally {
+            vagas.release();
+        }
+    }
+
+    /**
+     * Reserva uma vaga para uma tentativa extra do hedge, sem esperar
+     * @return false se todas as vagas estão ocupadas; true exige {@link #liberarVagaExtra()} ao fim da tentativa
+     */
+    public boolean reservarVagaExtra() {
+        return vagas.tryAcquire();
+    }
+
+    public void liberarVagaExtra() {
+        vagas.release();
+    }
+
+    /**
+     * Indica se ainda há vaga em execução ou na fila (estimativa, sem reservar a vaga)
+     */
+    public boolean temCapacidade() {
+        return executor.getActiveCount() < maxEmVoo || executor.getQueue().remainingCapacity() > 0;
+    }
+
+    /**
+     * Ocupação do bulkhead
+     * @return Mapa com chamadas em voo, na fila, limites e contadores
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("emVoo", executor.getActiveCount());
+        estatisticas.put("naFila", executor.getQueue().size());
+        estatisticas.put("maxEmVoo", maxEmVoo);
+        estatisticas.put("vagasLivres", vagas.availablePermits());
+        estatisticas.put("capacidadeFila", capacidadeFila);
+        estatisticas.put("concluidas", concluidas.get());
+        estatisticas.put("rejeitadas", rejeitadas.get());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,244 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.dto.CapaDTO;
+import com.api.licitacao.model.DocumentoPdf;
+import com.api.licitacao.model.ExtracaoCache;
+import com.api.licitacao.repository.ExtracaoCacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de resultados de extração de PDF endereçado por conteúdo.
+ *
+ * A chave é o SHA-256 dos bytes do PDF mais a estratégia de extração, de modo que o mesmo
+ * edital enviado por analistas ou endpoints diferentes reaproveita o resultado. Há um nível
+ * em memória (LRU limitado) e um nível opcional persistido no banco (H2).
+ */
+@Service
+public class CacheExtracaoPdf {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheExtracaoPdf.class);
+
+    @Value("${pdf.cache.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${pdf.cache.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${pdf.cache.persistente.enabled:false}")
+    private boolean persistenteHabilitado;
+
+    private final int maxEntradas;
+    private final ExtracaoCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entrada> memoria;
+    private final Map<MultipartFile, String> hashes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong acertosMemoria = new AtomicLong();
+    private final AtomicLong acertosPersistente = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong despejos = new AtomicLong();
+    private final AtomicLong expirados = new AtomicLong();
+
+    public CacheExtracaoPdf(@Value("${pdf.cache.max-entradas:500}") int maxEntradas,
+                            ExtracaoCacheRepository repository, ObjectMapper objectMapper) {
+        this.maxEntradas = maxEntradas;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        // LinkedHashMap em ordem de acesso: a entrada menos usada é despejada ao exceder o limite
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() > CacheExtracaoPdf.this.maxEntradas) {
+                    despejos.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private record Entrada(CapaDTO capa, LocalDateTime criadoEm) {}
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Monta a chave do cache a partir do conteúdo do arquivo
+     * @param arquivo PDF recebido
+     * @param estrategia Identificação da estratégia de extração em uso
+     * @return Chave no formato {@code sha256:estrategia}
+     * @throws IOException Se o arquivo não puder ser lido
+     */
+    public String chave(MultipartFile arquivo, String estrategia) throws IOException {
+        return hash(arquivo) + ":" + estrategia;
+    }
+
+    /**
+     * SHA-256 do arquivo, calculado uma vez por upload (cache, nuvem e controllers usam o mesmo valor)
+     */
+    public String hash(MultipartFile arquivo) throws IOException {
+        if (arquivo instanceof DocumentoPdf documento) {
+            // Calculado na cópia do upload
+            return documento.getHash();
+        }
+        String hash = hashes.get(arquivo);
+        if (hash == null) {
+            hash = calcularSha256(arquivo);
+            hashes.put(arquivo, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Calcula o SHA-256 do conteúdo do arquivo em hexadecimal
+     */
+    public static String calcularSha256(MultipartFile arquivo) throws IOException {
+        MessageDigest digest = novoDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream entrada = arquivo.getInputStream()) {
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                digest.update(buffer, 0, lidos);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+
+    /**
+     * Busca um resultado em cache
+     * @param chave Chave gerada por {@link #chave(MultipartFile, String)}
+     * @return Resultado, se presente e não expirado
+     */
+    public Optional<CapaDTO> buscar(String chave) {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+
+        Entrada entrada;
+        synchronized (memoria) {
+            entrada = memoria.get(chave);
+            if (entrada != null && expirou(entrada.criadoEm())) {
+                memoria.remove(chave);
+                expirados.incrementAndGet();
+                entrada = null;
+            }
+        }
+        if (entrada != null) {
+            acertosMemoria.incrementAndGet();
+            return Optional.of(entrada.capa());
+        }
+
+        if (persistenteHabilitado) {
+            Optional<CapaDTO> persistido = buscarPersistente(chave);
+            if (persistido.isPresent()) {
+                acertosPersistente.incrementAndGet();
+                return persistido;
+            }
+        }
+
+        falhas.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Armazena um resultado de extração
+     */
+    public void armazenar(String chave, CapaDTO capa) {
+        if (!habilitado || capa == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (memoria) {
+            memoria.put(chave, new Entrada(capa, agora));
+        }
+
+        if (persistenteHabilitado) {
+            try {
+                ExtracaoCache registro = new ExtracaoCache();
+                registro.setChave(chave);
+                registro.setCapaJson(objectMapper.writeValueAsString(capa));
+                registro.setCriadoEm(agora);
+                repository.save(registro);
+            } catch (Exception e) {
+                logger.warn("Erro ao persistir resultado em cache '{}': {}", chave, e.getMessage());
+            }
+        }
+    }
+
+    private Optional<CapaDTO> buscarPersistente(String chave) {
+        try {
+            Optional<ExtracaoCache> registro = repository.findById(chave);
+            if (registro.isEmpty()) {
+                return Optional.empty();
+            }
+            if (expirou(registro.get().getCriadoEm())) {
+                repository.deleteById(chave);
+                expirados.incrementAndGet();
+                return Optional.empty();
+            }
+            CapaDTO capa = objectMapper.readValue(registro.get().getCapaJson(), CapaDTO.class);
+            // Promove para o nível em memória
+            synchronized (memoria) {
+                memoria.put(chave, new Entrada(capa, registro.get().getCriadoEm()));
+            }
+            return Optional.of(capa);
+        } catch (Exception e) {
+            logger.warn("Erro ao ler resultado persistido '{}': {}", chave, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean expirou(LocalDateTime criadoEm) {
+        return ttl != null && !ttl.isZero() && criadoEm.plus(ttl).isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Contadores de uso do cache
+     * @return Mapa com acertos, falhas e despejos
+     */
+    public Map<String, Object> getEstatisticas() {
+        int entradas;
+        synchronized (memoria) {
+            entradas = memoria.size();
+        }
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("persistenteHabilitado", persistenteHabilitado);
+        estatisticas.put("entradasMemoria", entradas);
+        estatisticas.put("maxEntradas", maxEntradas);
+        estatisticas.put("acertosMemoria", acertosMemoria.get());
+        estatisticas.put("acertosPersistente", acertosPersistente.get());
+        estatisticas.put("falhas", falhas.get());
+        estatisticas.put("despejos", despejos.get());
+        estatisticas.put("expirados", expirados.get());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,261 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.model.DocumentoPdf;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carregamento de PDFs com orçamento de memória por documento.
+ *
+ * Documentos pequenos são carregados inteiramente em heap. Acima do limiar configurado o
+ * PDFBox usa no máximo o orçamento de heap por documento e transborda o restante para
+ * arquivos temporários, evitando que poucos uploads grandes simultâneos esgotem o heap.
+ */
+@Service
+public class CarregadorPdf {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarregadorPdf.class);
+
+    /**
+     * Modo de uso de memória no carregamento
+     */
+    public enum ModoMemoria {
+        /** Em heap até o limiar de tamanho, misto acima dele */
+        AUTO,
+        /** Sempre em heap (comportamento padrão do PDFBox) */
+        MEMORIA,
+        /** Heap até o orçamento por documento, arquivo temporário além dele */
+        MISTO,
+        /** Sempre em arquivo temporário */
+        ARQUIVO
+    }
+
+    @Value("${pdf.memoria.modo:AUTO}")
+    private ModoMemoria modo;
+
+    @Value("${pdf.memoria.limiar-spill:5MB}")
+    private DataSize limiarSpill;
+
+    @Value("${pdf.memoria.orcamento-por-documento:16MB}")
+    private DataSize orcamentoPorDocumento;
+
+    @Value("${pdf.memoria.diretorio-temp:}")
+    private String diretorioTemp;
+
+    private final AtomicInteger documentosAbertos = new AtomicInteger();
+    private final AtomicInteger documentosComSpill = new AtomicInteger();
+    private final AtomicLong bytesHeapReservados = new AtomicLong();
+    private final AtomicLong picoBytesHeapReservados = new AtomicLong();
+    private final AtomicLong totalCarregados = new AtomicLong();
+    private final AtomicLong totalComSpill = new AtomicLong();
+
+    /**
+     * Carrega o PDF respeitando o orçamento de memória configurado
+     * @param arquivo Arquivo PDF recebido
+     * @return Documento carregado; deve ser fechado pelo chamador
+     * @throws IOException Se o PDF não puder ser lido
+     */
+    public DocumentoCarregado carregar(MultipartFile arquivo) throws IOException {
+        long tamanho = arquivo.getSize();
+        ModoMemoria modoEfetivo = resolverModo(tamanho);
+        MemoryUsageSetting setting = criarSetting(modoEfetivo);
+        long reserva = reserva(modoEfetivo, tamanho);
+
+        PDDocument document;
+        try (InputStream entrada = arquivo.getInputStream()) {
+            // O PDFBox copia o conteúdo para o buffer/arquivo temporário configurado
+            document = PDDocument.load(entrada, setting);
+        }
+
+        totalCarregados.incrementAndGet();
+        documentosAbertos.incrementAndGet();
+        // No modo misto o PDFBox só usa arquivo temporário quando o documento passa do orçamento
+        boolean comSpill = modoEfetivo == ModoMemoria.ARQUIVO
+            || (modoEfetivo == ModoMemoria.MISTO && tamanho > orcamentoPorDocumento.toBytes());
+        if (comSpill) {
+            totalComSpill.incrementAndGet();
+            documentosComSpill.incrementAndGet();
+        }
+        long reservados = bytesHeapReservados.addAndGet(reserva);
+        picoBytesHeapReservados.accumulateAndGet(reservados, Math::max);
+
+        logger.debug("PDF '{}' ({} bytes) carregado em modo {}", arquivo.getOriginalFilename(), tamanho, modoEfetivo);
+        return new DocumentoCarregado(document, reserva, comSpill);
+    }
+
+    /**
+     * Prepara o carregamento sob demanda: o PDF só é carregado quando alguma etapa pede o documento,
+     * e as etapas seguintes do mesmo processamento reutilizam o documento já aberto.
+     * Para um {@link DocumentoPdf} o documento fica associado à cópia: triagem no upload, extração e
+     * seleção de páginas compartilham uma única carga, liberada com a cópia
+     * @param arquivo Arquivo PDF recebido
+     * @return Documento sob demanda; deve ser fechado pelo chamador
+     */
+    public DocumentoSobDemanda sobDemanda(MultipartFile arquivo) {
+        if (arquivo instanceof DocumentoPdf documento) {
+            return new DocumentoSobDemanda(arquivo, documento.getDocumentoAberto(() -> new DocumentoSobDemanda(arquivo, null)));
+        }
+        return new DocumentoSobDemanda(arquivo, null);
+    }
+
+    /**
+     * Heap estimado para carregar um documento do tamanho informado com a configuração atual
+     * @param tamanho Tamanho do arquivo em bytes
+     * @return Bytes de heap reservados por documento carregado
+     */
+    public long reservaEstimada(long tamanho) {
+        return reserva(resolverModo(tamanho), tamanho);
+    }
+
+    /**
+     * Estimativa conservadora do heap ocupado pelo documento
+     */
+    private long reserva(ModoMemoria modoEfetivo, long tamanho) {
+        return switch (modoEfetivo) {
+            case MEMORIA -> tamanho;
+            case MISTO -> Math.min(tamanho, orcamentoPorDocumento.toBytes());
+            default -> 0L;
+        };
+    }
+
+    private ModoMemoria resolverModo(long tamanho) {
+        if (modo != ModoMemoria.AUTO) {
+            return modo;
+        }
+        return tamanho > limiarSpill.toBytes() ? ModoMemoria.MISTO : ModoMemoria.MEMORIA;
+    }
+
+    private MemoryUsageSetting criarSetting(ModoMemoria modoEfetivo) {
+        MemoryUsageSetting setting = switch (modoEfetivo) {
+            case MEMORIA -> MemoryUsageSetting.setupMainMemoryOnly();
+            case ARQUIVO -> MemoryUsageSetting.setupTempFileOnly();
+            default -> MemoryUsageSetting.setupMixed(orcamentoPorDocumento.toBytes());
+        };
+        if (diretorioTemp != null && !diretorioTemp.isBlank()) {
+            setting.setTempDir(new File(diretorioTemp));
+        }
+        return setting;
+    }
+
+    /**
+     * Uso atual do orçamento de memória
+     * @return Mapa com contadores e limites
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("modo", modo);
+        estatisticas.put("limiarSpillBytes", limiarSpill.toBytes());
+        estatisticas.put("orcamentoPorDocumentoBytes", orcamentoPorDocumento.toBytes());
+        estatisticas.put("documentosAbertos", documentosAbertos.get());
+        estatisticas.put("documentosAbertosComSpill", documentosComSpill.get());
+        estatisticas.put("bytesHeapReservados", bytesHeapReservados.get());
+        estatisticas.put("picoBytesHeapReservados", picoBytesHeapReservados.get());
+        estatisticas.put("totalCarregados", totalCarregados.get());
+        estatisticas.put("totalComSpill", totalComSpill.get());
+        return estatisticas;
+    }
+
+    /**
+     * Documento carregado uma única vez por processamento (triagem, seleção de páginas e extração
+     * local). Uma falha no carregamento também é guardada, para não ler o arquivo de novo a cada etapa.
+     * Quando associado a um {@link DocumentoPdf}, cada etapa recebe uma referência ao documento da cópia
+     * e fechá-la não tem efeito: o documento é fechado junto com a cópia.
+     */
+    public final class DocumentoSobDemanda implements Closeable {
+
+        private final MultipartFile arquivo;
+        private final DocumentoSobDemanda compartilhado;
+        private DocumentoCarregado carregado;
+        private IOException falha;
+
+        private DocumentoSobDemanda(MultipartFile arquivo, DocumentoSobDemanda compartilhado) {
+            this.arquivo = arquivo;
+            this.compartilhado = compartilhado;
+        }
+
+        /**
+         * Documento aberto, carregado na primeira chamada
+         * @throws IOException Se o PDF não puder ser lido (a mesma exceção em todas as chamadas)
+         */
+        public synchronized PDDocument getDocumento() throws IOException {
+            if (compartilhado != null) {
+                return compartilhado.getDocumento();
+            }
+            if (falha != null) {
+                throw falha;
+            }
+            if (carregado == null) {
+                try {
+                    carregado = carregar(arquivo);
+                } catch (IOException e) {
+                    falha = e;
+                    throw e;
+                }
+            }
+            return carregado.getDocumento();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (compartilhado != null) {
+                return;
+            }
+            if (carregado != null) {
+                carregado.close();
+            }
+        }
+    }
+
+    /**
+     * Documento aberto pelo carregador. Ao fechar, libera o documento e a reserva de memória.
+     */
+    public final class DocumentoCarregado implements AutoCloseable {
+
+        private final PDDocument documento;
+        private final long reserva;
+        private final boolean comSpill;
+        private boolean fechado;
+
+        private DocumentoCarregado(PDDocument documento, long reserva, boolean comSpill) {
+            this.documento = documento;
+            this.reserva = reserva;
+            this.comSpill = comSpill;
+        }
+
+        public PDDocument getDocumento() {
+            return documento;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            try {
+                documento.close();
+            } finally {
+                documentosAbertos.decrementAndGet();
+                if (comSpill) {
+                    documentosComSpill.decrementAndGet();
+                }
+                bytesHeapReservados.addAndGet(-reserva);
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.api.licitacao.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker das chamadas ao serviço de score na nuvem.
+ *
+ * As últimas chamadas ficam numa janela deslizante (resultado e latência). Quando a taxa de falhas
+ * ou o p95 da latência passam do limite o circuito abre e as chamadas vão direto para a extração
+ * local, sem upload nem espera. Após o tempo de abertura algumas chamadas de teste são liberadas
+ * (meio-aberto): se todas forem bem-sucedidas o circuito fecha, senão volta a abrir.
+ */
+@Service
+public class CircuitoNuvem {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitoNuvem.class);
+
+    public enum Estado {
+        FECHADO,
+        ABERTO,
+        MEIO_ABERTO
+    }
+
+    @Value("${cloud.pdf.circuito.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${cloud.pdf.circuito.janela:20}")
+    private int tamanhoJanela;
+
+    @Value("${cloud.pdf.circuito.minimo-chamadas:10}")
+    private int minimoChamadas;
+
+    @Value("${cloud.pdf.circuito.taxa-erro-maxima:0.5}")
+    private double taxaErroMaxima;
+
+    @Value("${cloud.pdf.circuito.latencia-p95-maxima:30s}")
+    private Duration latenciaP95Maxima;
+
+    @Value("${cloud.pdf.circuito.tempo-aberto:30s}")
+    private Duration tempoAberto;
+
+    @Value("${cloud.pdf.circuito.chamadas-teste:3}")
+    private int chamadasTeste;
+
+    // Janela circular: posição i guarda a latência da chamada e se ela falhou
+    private long[] latenciasNanos;
+    private boolean[] falhas;
+    private int proximaPosicao;
+    private int chamadasNaJanela;
+
+    private Estado estado = Estado.FECHADO;
+    private long abertoDesdeNanos;
+    private int testesEmAndamento;
+    private int testesBemSucedidos;
+
+    private final Map<String, Long> transicoes = new LinkedHashMap<>();
+    private long chamadasBloqueadas;
+    private String motivoUltimaAbertura;
+
+    /**
+     * Reserva a passagem de uma chamada. Toda chamada liberada deve ser encerrada com {@link #registrar}
+     * @return false se o circuito está aberto ou se as chamadas de teste já estão em andamento
+     */
+    public synchronized boolean permitir() {
+        if (!habilitado) {
+            return true;
+        }
+        if (estado == Estado.ABERTO && tempoAbertoEsgotado()) {
+            transitar(Estado.MEIO_ABERTO);
+            testesEmAndamento = 0;
+            testesBemSucedidos = 0;
+        }
+        if (estado == Estado.FECHADO) {
+            return true;
+        }
+        if (estado == Estado.MEIO_ABERTO && testesEmAndamento < Math.max(1, chamadasTeste)) {
+            testesEmAndamento++;
+            return true;
+        }
+        chamadasBloqueadas++;
+        return false;
+    }
+
+    /**
+     * Indica se uma chamada seria liberada agora, sem reservar a passagem
+     */
+    public synchronized boolean aceitaChamadas() {
+        if (!habilitado) {
+            return true;
+        }
+        return switch (estado) {
+            case FECHADO -> true;
+            case ABERTO -> tempoAbertoEsgotado();
+            case MEIO_ABERTO -> testesEmAndamento < Math.max(1, chamadasTeste);
+        };
+    }
+
+    /**
+     * Registra o resultado de uma chamada liberada por {@link #permitir()}
+     * @param sucesso Se a chamada retornou dados úteis
+     * @param latenciaNanos Duração da chamada
+     */
+    public synchronized void registrar(boolean sucesso, long latenciaNanos) {
+        if (!habilitado) {
+            return;
+        }
+        switch (estado) {
+            case FECHADO -> {
+                adicionarNaJanela(sucesso, latenciaNanos);
+                avaliarJanela();
+            }
+            case MEIO_ABERTO -> {
+                testesEmAndamento = Math.max(0, testesEmAndamento - 1);
+                boolean lenta = latenciaP95Maxima != null && !latenciaP95Maxima.isZero()
+                    && latenciaNanos > latenciaP95Maxima.toNanos();
+                if (!sucesso || lenta) {
+                    abrir(!sucesso ? "chamada de teste falhou" : "chamada de teste lenta ("
+                        + latenciaNanos / 1_000_000 + " ms)");
+                } else if (++testesBemSucedidos >= Math.max(1, chamadasTeste)) {
+                    limparJanela();
+                    transitar(Estado.FECHADO);
+                    logger.info("Circuito do serviço na nuvem fechado após {} chamadas de teste", testesBemSucedidos);
+                }
+            }
+            case ABERTO -> {
+                // Chamada iniciada antes da abertura: não altera o estado
+            }
+        }
+    }
+
+    private void avaliarJanela() {
+        if (chamadasNaJanela < Math.max(1, minimoChamadas)) {
+            return;
+        }
+        int quantidadeFalhas = 0;
+        for (int i = 0; i < chamadasNaJanela; i++) {
+            if (falhas[i]) {
+                quantidadeFalhas++;
+            }
+        }
+        double taxaErro = (double) quantidadeFalhas / chamadasNaJanela;
+        if (taxaErro >= taxaErroMaxima) {
+            abrir(String.format("taxa de erro %.0f%% em %d chamadas", taxaErro * 100, chamadasNaJanela));
+            return;
+        }
+        if (latenciaP95Maxima != null && !latenciaP95Maxima.isZero()) {
+            long p95 = latenciaP95Nanos();
+            if (p95 > latenciaP95Maxima.toNanos()) {
+                abrir("latência p95 de " + p95 / 1_000_000 + " ms");
+            }
+        }
+    }
+
+    private void abrir(String motivo) {
+        motivoUltimaAbertura = motivo;
+        abertoDesdeNanos = System.nanoTime();
+        testesEmAndamento = 0;
+        testesBemSucedidos = 0;
+        transitar(Estado.ABERTO);
+        logger.warn("Circuito do serviço na nuvem aberto ({}); chamadas irão para a extração local por {} s",
+            motivo, tempoAberto.toSeconds());
+    }
+
+    private void transitar(Estado novo) {
+        if (novo == estado) {
+            return;
+        }
+        transicoes.merge(estado + "->" + novo, 1L, Long::sum);
+        estado = novo;
+    }
+
+    private boolean tempoAbertoEsgotado() {
+        return System.nanoTime() - abertoDesdeNanos >= tempoAberto.toNanos();
+    }
+
+    private void adicionarNaJanela(boolean sucesso, long latenciaNanos) {
+        if (latenciasNanos == null) {
+            int tamanho = Math.max(1, tamanhoJanela);
+            latenciasNanos = new long[tamanho];
+            falhas = new boolean[tamanho];
+        }
+        latenciasNanos[proximaPosicao] = latenciaNanos;
+        falhas[proximaPosicao] = !sucesso;
+        proximaPosicao = (proximaPosicao + 1) % latenciasNanos.length;
+        chamadasNaJanela = Math.min(chamadasNaJanela + 1, latenciasNanos.length);
+    }
+
+    private void limparJanela() {
+        proximaPosicao = 0;
+        chamadasNaJanela = 0;
+    }
+
+    private long latenciaP95Nanos() {
+        if (chamadasNaJanela == 0) {
+            return 0;
+        }
+        long[] ordenadas = Arrays.copyOf(latenciasNanos, chamadasNaJanela);
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(0.95 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Estado do circuito e contadores de transição
+     * @return Mapa com estado, métricas da janela atual e transições ocorridas
+     */
+    public synchronized Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        int quantidadeFalhas = 0;
+        for (int i = 0; i < chamadasNaJanela; i++) {
+            if (falhas[i]) {
+                quantidadeFalhas++;
+            }
+        }
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("estado", estado.name());
+        estatisticas.put("chamadasNaJanela", chamadasNaJanela);
+        estatisticas.put("taxaErro", chamadasNaJanela > 0 ? (double) quantidadeFalhas / chamadasNaJanela : 0.0);
+        estatisticas.put("latenciaP95Ms", latenciaP95Nanos() / 1_000_000);
+        estatisticas.put("chamadasBloqueadas", chamadasBloqueadas);
+        estatisticas.put("transicoes", new LinkedHashMap<>(transicoes));
+        if (motivoUltimaAbertura != null) {
+            estatisticas.put("motivoUltimaAbertura", motivoUltimaAbertura);
+        }
+        return estatisticas;
+    }
+}
@@ -2,21 +2,25 @@ package com.api.licitacao.service;
 
 import com.api.licitacao.dto.CapaDTO;
 import com.api.licitacao.dto.CloudServiceRequestDTO;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.licitacao.exception.FalhaServicoNuvemException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Serviço para processamento de PDF via serviço externo na nuvem
@@ -26,6 +30,11 @@ public class CloudPdfProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(CloudPdfProcessingService.class);
 
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Observação que identifica a capa de falha */
+    private static final String OBS_FALHA = "Processamento via serviço na nuvem falhou - usando dados padrão";
+
     @Value("${cloud.pdf.service.url:https://app-cbe-ultramar-dev-azb9fnfvandvg7dx.brazilsouth-01.azurewebsites.net/score}")
     private String cloudServiceUrl;
 
@@ -33,11 +42,92 @@ public class CloudPdfProcessingService {
     private boolean serviceEnabled;
 
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final NormalizadorDataHora normalizadorDataHora;
+    private final BulkheadNuvem bulkheadNuvem;
+    private final CircuitoNuvem circuitoNuvem;
+    private final HedgeNuvem hedgeNuvem;
+    private final LeitorRespostaNuvem leitorRespostaNuvem;
+    private final CoalescedorNuvem coalescedorNuvem;
+
+    public CloudPdfProcessingService(RestTemplate restTemplate, NormalizadorDataHora normalizadorDataHora,
+                                     BulkheadNuvem bulkheadNuvem, CircuitoNuvem circuitoNuvem,
+                                     HedgeNuvem hedgeNuvem, LeitorRespostaNuvem leitorRespostaNuvem,
+                                     CoalescedorNuvem coalescedorNuvem) {
+        this.restTemplate = restTemplate;
+        this.normalizadorDataHora = normalizadorDataHora;
+        this.bulkheadNuvem = bulkheadNuvem;
+        this.circuitoNuvem = circuitoNuvem;
+        this.hedgeNuvem = hedgeNuvem;
+        this.leitorRespostaNuvem = leitorRespostaNuvem;
+        this.coalescedorNuvem = coalescedorNuvem;
+    }
 
-    public CloudPdfProcessingService() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+    /**
+     * Versão assíncrona de {@link #processarPdfNaNuvem(String)}, executada no bulkhead da nuvem
+     * @param fileName Nome do arquivo PDF no Azure Blob Storage
+     * @return Futuro com o CapaDTO; falha com BulkheadCheioException se não houver capacidade e com
+     *         FalhaServicoNuvemException se o serviço não retornar os dados
+     */
+    public CompletableFuture<CapaDTO> processarPdfNaNuvemAsync(String fileName) {
+        return processarPdfNaNuvemAsync(fileName, null);
+    }
+
+    /**
+     * Versão assíncrona que agrupa chamadas simultâneas para o mesmo conteúdo
+     * @param fileName Nome do arquivo PDF no Azure Blob Storage
+     * @param hashConteudo SHA-256 do PDF (null para agrupar apenas pelo nome do arquivo)
+     * @return Futuro com o CapaDTO; falha com BulkheadCheioException se não houver capacidade
+     */
+    public CompletableFuture<CapaDTO> processarPdfNaNuvemAsync(String fileName, String hashConteudo) {
+        return processarPdfNaNuvemAsync(fileName, hashConteudo, CloudServiceRequestDTO.PAGINAS_PADRAO);
+    }
+
+    /**
+     * Versão assíncrona com quantidade de páginas definida pela seleção de páginas
+     * @param fileName Nome do arquivo PDF no Azure Blob Storage
+     * @param hashConteudo SHA-256 do PDF original (null para agrupar apenas pelo nome do arquivo)
+     * @param pageLen Quantidade de páginas que o serviço deve ler
+     * @return Futuro com o CapaDTO; falha com BulkheadCheioException se não houver capacidade
+     */
+    public CompletableFuture<CapaDTO> processarPdfNaNuvemAsync(String fileName, String hashConteudo, String pageLen) {
+        CloudServiceRequestDTO padrao = CloudServiceRequestDTO.createDefaultRequest(fileName, pageLen);
+        CoalescedorNuvem.Chave chave = new CoalescedorNuvem.Chave(hashConteudo != null ? hashConteudo : fileName,
+            padrao.containerName(), padrao.pageLen(), padrao.promptList());
+        return coalescedorNuvem.executar(chave,
+            () -> bulkheadNuvem.submeter(() -> processarPdfNaNuvem(fileName, pageLen)), this::memorizavel);
+    }
+
+    /**
+     * Indica se uma chamada seria aceita agora: circuito não aberto e vaga no bulkhead
+     */
+    public boolean aceitaChamadas() {
+        return circuitoNuvem.aceitaChamadas() && bulkheadNuvem.temCapacidade();
+    }
+
+    /**
+     * Estado do circuit breaker das chamadas à nuvem
+     */
+    public Map<String, Object> getEstadoCircuito() {
+        return circuitoNuvem.getEstatisticas();
+    }
+
+    /**
+     * Versão assíncrona de {@link #processarPdfCustomizado(String, String, String, List)}
+     */
+    public CompletableFuture<CapaDTO> processarPdfCustomizadoAsync(String fileName, String containerName,
+                                                                 String pageLen, List<String> promptList) {
+        CoalescedorNuvem.Chave chave = new CoalescedorNuvem.Chave(fileName, containerName, pageLen, promptList);
+        return coalescedorNuvem.executar(chave,
+            () -> bulkheadNuvem.submeter(() -> processarPdfCustomizado(fileName, containerName, pageLen, promptList)),
+            this::memorizavel);
+    }
+
+    /**
+     * Só uma resposta 200 lida com os dados do edital vai para o memo. Falhas chegam ao coalescedor
+     * como {@link FalhaServicoNuvemException} e não são memorizadas; a capa de falha também é recusada
+     */
+    private boolean memorizavel(CapaDTO capa) {
+        return possuiDados(capa);
     }
 
     /**
@@ -46,24 +136,41 @@ public class CloudPdfProcessingService {
      * @return CapaDTO com dados extraídos
      */
     public CapaDTO processarPdfNaNuvem(String fileName) {
+        return processarPdfNaNuvem(fileName, CloudServiceRequestDTO.PAGINAS_PADRAO);
+    }
+
+    /**
+     * Processa PDF usando serviço externo na nuvem
+     * @param fileName Nome do arquivo PDF no Azure Blob Storage
+     * @param pageLen Quantidade de páginas que o serviço deve ler
+     * @return CapaDTO com dados extraídos
+     * @throws FalhaServicoNuvemException Se a chamada não for feita, falhar ou a resposta não trouxer os dados
+     */
+    public CapaDTO processarPdfNaNuvem(String fileName, String pageLen) {
         if (!serviceEnabled) {
             logger.warn("Serviço de processamento na nuvem está desabilitado");
-            return criarCapaVazia();
+            throw new FalhaServicoNuvemException("Serviço de processamento na nuvem está desabilitado", true);
         }
 
         // Validar se a URL está configurada
         if (cloudServiceUrl == null || cloudServiceUrl.trim().isEmpty()) {
             logger.error("URL do serviço na nuvem não está configurada. Verifique a propriedade 'cloud.pdf.service.url'");
-            return criarCapaVazia();
+            throw new FalhaServicoNuvemException("URL do serviço na nuvem não está configurada", true);
         }
 
         logger.info("URL do serviço na nuvem: {}", cloudServiceUrl);
 
+        if (!circuitoNuvem.permitir()) {
+            logger.warn("Circuito do serviço na nuvem aberto, chamada para '{}' não realizada", fileName);
+            throw new FalhaServicoNuvemException("Circuito do serviço na nuvem aberto", true);
+        }
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
         try {
             logger.info("Iniciando processamento do arquivo '{}' no serviço na nuvem", fileName);
 
             // Criar requisição
-            CloudServiceRequestDTO request = CloudServiceRequestDTO.createDefaultRequest(fileName);
+            CloudServiceRequestDTO request = CloudServiceRequestDTO.createDefaultRequest(fileName, pageLen);
             
             // Configurar headers
             HttpHeaders headers = new HttpHeaders();
@@ -72,25 +179,20 @@ public class CloudPdfProcessingService {
             // Criar entidade da requisição
             HttpEntity<CloudServiceRequestDTO> entity = new HttpEntity<>(request, headers);
 
-            // Fazer chamada HTTP
-            ResponseEntity<String> response = restTemplate.exchange(
-                java.net.URI.create(cloudServiceUrl),
-                HttpMethod.POST,
-                entity,
-                String.class
-            );
+            // Fazer chamada HTTP (com tentativa extra se o hedge estiver habilitado)
+            CapaDTO capa = enviar(entity, fileName);
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                logger.info("Processamento na nuvem concluído com sucesso para '{}'", fileName);
-                return parseResponseToCapaDTO(response.getBody(), fileName);
-            } else {
-                logger.error("Erro na resposta do serviço na nuvem. Status: {}", response.getStatusCode());
-                return criarCapaVazia();
-            }
+            logger.info("Processamento na nuvem concluído com sucesso para '{}'", fileName);
+            sucesso = true;
+            return capa;
 
+        } catch (FalhaServicoNuvemException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Erro ao processar PDF '{}' no serviço na nuvem: {}", fileName, e.getMessage(), e);
-            return criarCapaVazia();
+            throw new FalhaServicoNuvemException("Erro ao processar '" + fileName + "' no serviço na nuvem: " + e.getMessage(), e);
+        } finally {
+            circuitoNuvem.registrar(sucesso, System.nanoTime() - inicio);
         }
     }
 
@@ -101,21 +203,28 @@ public class CloudPdfProcessingService {
      * @param pageLen Número de páginas
      * @param promptList Lista de prompts
      * @return CapaDTO processado
+     * @throws FalhaServicoNuvemException Se a chamada não for feita, falhar ou a resposta não trouxer os dados
      */
     public CapaDTO processarPdfCustomizado(String fileName, String containerName, String pageLen, List<String> promptList) {
         if (!serviceEnabled) {
             logger.warn("Serviço de processamento na nuvem está desabilitado");
-            return criarCapaVazia();
+            throw new FalhaServicoNuvemException("Serviço de processamento na nuvem está desabilitado", true);
         }
 
         // Validar se a URL está configurada
         if (cloudServiceUrl == null || cloudServiceUrl.trim().isEmpty()) {
             logger.error("URL do serviço na nuvem não está configurada. Verifique a propriedade 'cloud.pdf.service.url'");
-            return criarCapaVazia();
+            throw new FalhaServicoNuvemException("URL do serviço na nuvem não está configurada", true);
         }
 
         logger.info("URL do serviço na nuvem: {}", cloudServiceUrl);
 
+        if (!circuitoNuvem.permitir()) {
+            logger.warn("Circuito do serviço na nuvem aberto, chamada para '{}' não realizada", fileName);
+            throw new FalhaServicoNuvemException("Circuito do serviço na nuvem aberto", true);
+        }
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
         try {
             logger.info("Iniciando processamento customizado do arquivo '{}'", fileName);
 
@@ -131,83 +240,105 @@ public class CloudPdfProcessingService {
             // Criar entidade da requisição
             HttpEntity<CloudServiceRequestDTO> entity = new HttpEntity<>(request, headers);
 
-            // Fazer chamada HTTP
-            ResponseEntity<String> response = restTemplate.exchange(
-                java.net.URI.create(cloudServiceUrl),
-                HttpMethod.POST,
-                entity,
-                String.class
-            );
+            // Fazer chamada HTTP (com tentativa extra se o hedge estiver habilitado)
+            CapaDTO capa = enviar(entity, fileName);
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                logger.info("Processamento customizado na nuvem concluído com sucesso para '{}'", fileName);
-                return parseResponseToCapaDTO(response.getBody(), fileName);
-            } else {
-                logger.error("Erro na resposta do serviço na nuvem. Status: {}", response.getStatusCode());
-                return criarCapaVazia();
-            }
+            logger.info("Processamento customizado na nuvem concluído com sucesso para '{}'", fileName);
+            sucesso = true;
+            return capa;
 
+        } catch (FalhaServicoNuvemException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Erro ao processar PDF customizado '{}' no serviço na nuvem: {}", fileName, e.getMessage(), e);
-            return criarCapaVazia();
+            throw new FalhaServicoNuvemException("Erro ao processar '" + fileName + "' no serviço na nuvem: " + e.getMessage(), e);
+        } finally {
+            circuitoNuvem.registrar(sucesso, System.nanoTime() - inicio);
         }
     }
 
+    /**
+     * Envia a requisição ao serviço e lê a resposta em streaming, sem bufferizar o corpo
+     * @return CapaDTO montado a partir de uma resposta 200 com os dados do edital
+     * @throws FalhaServicoNuvemException Se o status não for 200 ou a resposta não trouxer os dados
+     */
+    private CapaDTO enviar(HttpEntity<CloudServiceRequestDTO> entity, String fileName) throws Exception {
+        RequestCallback envio = restTemplate.httpEntityCallback(entity);
+        return hedgeNuvem.executar(() -> restTemplate.execute(
+            java.net.URI.create(cloudServiceUrl),
+            HttpMethod.POST,
+            envio,
+            response -> {
+                if (response.getStatusCode() != HttpStatus.OK) {
+                    logger.error("Erro na resposta do serviço na nuvem. Status: {}", response.getStatusCode());
+                    throw new FalhaServicoNuvemException("Serviço na nuvem respondeu com status " + response.getStatusCode(), false);
+                }
+                try (JsonParser parser = leitorRespostaNuvem.criarParser(response.getBody())) {
+                    return parseResponseToCapaDTO(parser, fileName);
+                }
+            }
+        ));
+    }
+
     /**
      * Converte resposta JSON do serviço externo para CapaDTO
      * @param jsonResponse Resposta JSON do serviço
      * @param fileName Nome do arquivo original
      * @return CapaDTO parseado
+     * @throws FalhaServicoNuvemException Se o JSON for inválido ou não trouxer os dados do edital
      */
     private CapaDTO parseResponseToCapaDTO(String jsonResponse, String fileName) {
+        try (JsonParser parser = leitorRespostaNuvem.criarParser(jsonResponse)) {
+            return parseResponseToCapaDTO(parser, fileName);
+        } catch (IOException e) {
+            logger.error("Erro ao fazer parse da resposta JSON para arquivo '{}': {}", fileName, e.getMessage(), e);
+            throw new FalhaServicoNuvemException("Resposta JSON inválida para '" + fileName + "'", e);
+        }
+    }
+
+    /**
+     * Converte a resposta lida em streaming para CapaDTO. JSON malformado ou sem os dados do edital
+     * resulta em {@link FalhaServicoNuvemException}; erros de leitura da conexão são propagados.
+     * Em ambos os casos a chamada conta como falha no circuito
+     * @param parser Parser posicionado no início da resposta
+     * @param fileName Nome do arquivo original
+     * @return CapaDTO parseado, com ao menos um campo principal preenchido
+     */
+    private CapaDTO parseResponseToCapaDTO(JsonParser parser, String fileName) throws IOException {
         try {
-            logger.info("JSON recebido da Azure: {}", jsonResponse);
-            JsonNode rootNode = objectMapper.readTree(jsonResponse);
-            
             // Navegar pela estrutura JSON: extracted_clausules.edital[0]
-            JsonNode extractedClausules = rootNode.get("extracted_clausules");
-            if (extractedClausules == null) {
-                logger.warn("Campo 'extracted_clausules' não encontrado na resposta JSON");
-                return criarCapaVazia();
+            LeitorRespostaNuvem.DadosEdital dados = leitorRespostaNuvem.ler(parser);
+            if (dados == null) {
+                throw new FalhaServicoNuvemException("Resposta sem extracted_clausules.edital para '" + fileName + "'", false);
             }
-            
-            JsonNode editalArray = extractedClausules.get("edital");
-            if (editalArray == null || !editalArray.isArray() || editalArray.size() == 0) {
-                logger.warn("Campo 'edital' não encontrado ou vazio na resposta JSON");
-                return criarCapaVazia();
-            }
-            
-            // Pegar o primeiro elemento do array edital
-            JsonNode editalData = editalArray.get(0);
-            
+
             // Extrair dados principais do edital
-            String processo = extractFieldValue(editalData, "processo", "");
-            LocalDateTime dataHora = parseDataHora(extractFieldValue(editalData, "dataHora", ""));
-            String cliente = extractFieldValue(editalData, "cliente", "");
-            String objeto = extractFieldValue(editalData, "objeto", "");
+            String processo = dados.campo("processo");
+            LocalDateTime dataHora = parseDataHora(dados.campo("dataHora"));
+            String cliente = dados.campo("cliente");
+            String objeto = dados.campo("objeto");
             
             // Extrair cotação do dólar se disponível
-            BigDecimal cotacaoDolar = extractBigDecimalValue(editalData, "cotacaoDolar");
+            BigDecimal cotacaoDolar = dados.cotacaoDolar();
             
-            // Processar itens
-            List<com.api.licitacao.dto.CapaItemDTO> itens = parseItensFromJson(editalData.get("items"));
+            // Itens já lidos durante o streaming
+            List<com.api.licitacao.dto.CapaItemDTO> itens = dados.itens();
             
             // Campos não fornecidos pelo serviço - usar valores padrão
             String organ = "";
             String headerTitle = objeto; // Usar objeto como título
-            String portal = extractFieldValue(editalData, "portal", "");
-            String edital = extractFieldValue(editalData, "edital", "");
-            String modalidade = extractFieldValue(editalData, "modalidade", "");
-            String amostra = extractFieldValue(editalData, "amostra", "");
+            String portal = dados.campo("portal");
+            String edital = dados.campo("edital");
+            String modalidade = dados.campo("modalidade");
+            String amostra = dados.campo("amostra");
             String entrega = "De 30 a 90 dias corridos após a emissão da Ordem de Fornecimento, no depósito do Serviço de Almoxarifado da PCES, localizado na Av. Nossa Senhora da Penha, 2290 – Santa Luíza – Vitória";
             String cr = "";
             boolean atestado = false;
-            String dataCertameStr = extractFieldValue(editalData, "dataCertame", "");
+            String dataCertameStr = dados.campo("dataCertame");
             String impugnacao = "";
-            if (!dataCertameStr.isEmpty()) {
-                // Parse da data no formato dd-MM-yyyy
-                java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy");
-                java.time.LocalDate dataCertame = java.time.LocalDate.parse(dataCertameStr, formatter);
+            // dataCertame vem no formato dd-MM-yyyy
+            java.time.LocalDate dataCertame = normalizadorDataHora.parseData(dataCertameStr);
+            if (dataCertame != null) {
                 // Calcular 3 dias úteis antes
                 int diasUteis = 0;
                 java.time.LocalDate dataImpugnacao = dataCertame;
@@ -218,9 +349,9 @@ public class CloudPdfProcessingService {
                         diasUteis++;
                     }
                 }
-                impugnacao = "Até " + dataImpugnacao.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy")) + " antes da data de abertura do certame.";
+                impugnacao = "Até " + DATA_BR.format(dataImpugnacao) + " antes da data de abertura do certame.";
             } else {
-                impugnacao = extractFieldValue(editalData, "impugnacao", "");
+                impugnacao = dados.campo("impugnacao");
             }
             logger.info("Valor calculado para impugnacao: {}", impugnacao);
             String obs = "O edital detalha as especificações técnicas das lanternas, incluindo resistência à água (IPX8), autonomia mínima de 3 horas e brilho ajustável entre 1000 e 6000 lúmens.";
@@ -229,7 +360,7 @@ public class CloudPdfProcessingService {
             logger.info("Dados extraídos do serviço na nuvem para arquivo '{}': processo={}, objeto={}, items={}", 
                 fileName, processo, objeto, itens.size());
 
-            return new CapaDTO(
+            CapaDTO capa = new CapaDTO(
                 processo,
                 dataHora,
                 organ,
@@ -248,92 +379,19 @@ public class CloudPdfProcessingService {
                 cotacaoDolar != null ? cotacaoDolar : BigDecimal.ZERO,
                 itens
             );
-
-        } catch (Exception e) {
-            logger.error("Erro ao fazer parse da resposta JSON para arquivo '{}': {}", fileName, e.getMessage(), e);
-            return criarCapaVazia();
-        }
-    }
-
-    /**
-     * Processa array de itens do JSON para lista de CapaItemDTO
-     */
-    private List<com.api.licitacao.dto.CapaItemDTO> parseItensFromJson(JsonNode itemsNode) {
-        List<com.api.licitacao.dto.CapaItemDTO> itens = new ArrayList<>();
-        
-        if (itemsNode == null || !itemsNode.isArray()) {
-            logger.debug("Array de itens não encontrado ou inválido");
-            return itens;
-        }
-        
-        for (JsonNode itemNode : itemsNode) {
-            try {
-                int item = itemNode.get("item") != null ? itemNode.get("item").asInt() : 1;
-                String descricao = extractFieldValue(itemNode, "descricao", "");
-                int quantidade = itemNode.get("quantidade") != null ? itemNode.get("quantidade").asInt() : 1;
-                BigDecimal custoUnitario = extractBigDecimalValue(itemNode, "custoUnitario");
-                BigDecimal frete = extractBigDecimalValue(itemNode, "frete");
-                
-                com.api.licitacao.dto.CapaItemDTO capaItem = new com.api.licitacao.dto.CapaItemDTO(
-                    item,
-                    "Produto",
-                    descricao,
-                    quantidade,
-                    custoUnitario != null ? custoUnitario : BigDecimal.ZERO,
-                    frete != null ? frete : BigDecimal.ZERO,
-                    true // Nacional por padrão para itens da nuvem
-                );
-                
-                itens.add(capaItem);
-                logger.debug("Item processado: {} - {} unidades", descricao, quantidade);
-                
-            } catch (Exception e) {
-                logger.warn("Erro ao processar item individual: {}", e.getMessage());
+            if (!possuiDados(capa)) {
+                throw new FalhaServicoNuvemException("Resposta sem processo, objeto, edital ou cliente para '" + fileName + "'", false);
             }
-        }
-        
-        logger.info("Total de itens processados: {}", itens.size());
-        return itens;
-    }
+            return capa;
 
-    /**
-     * Extrai valor BigDecimal do JSON
-     */
-    private BigDecimal extractBigDecimalValue(JsonNode node, String fieldName) {
-        try {
-            JsonNode fieldNode = node.get(fieldName);
-            if (fieldNode != null && !fieldNode.isNull()) {
-                if (fieldNode.isNumber()) {
-                    return BigDecimal.valueOf(fieldNode.asDouble());
-                } else if (fieldNode.isTextual()) {
-                    String textValue = fieldNode.asText().trim();
-                    if (!textValue.isEmpty()) {
-                        return new BigDecimal(textValue);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Erro ao extrair BigDecimal para campo '{}': {}", fieldName, e.getMessage());
-        }
-        return null;
-    }
-
-    /**
-     * Extrai valor de campo do JSON, com valor padrão se não encontrado
-     */
-    private String extractFieldValue(JsonNode rootNode, String fieldName, String defaultValue) {
-        try {
-            JsonNode fieldNode = rootNode.get(fieldName);
-            return fieldNode != null && !fieldNode.isNull() ? fieldNode.asText() : defaultValue;
-        } catch (Exception e) {
-            logger.debug("Erro ao extrair campo '{}': {}", fieldName, e.getMessage());
-            return defaultValue;
+        } catch (FalhaServicoNuvemException e) {
+            throw e;
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.error("Erro ao fazer parse da resposta JSON para arquivo '{}': {}", fileName, e.getMessage(), e);
+            throw new FalhaServicoNuvemException("Resposta JSON inválida para '" + fileName + "'", e);
         }
     }
 
-    /**
-     * Cria CapaDTO vazio para casos de erro
-     */
     /**
      * Converte string de data/hora para LocalDateTime
      */
@@ -341,36 +399,13 @@ public class CloudPdfProcessingService {
         if (dataHoraStr == null || dataHoraStr.trim().isEmpty()) {
             return LocalDateTime.now();
         }
-        
-        try {
-            // Tenta diferentes formatos de data/hora
-            DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"), // Formato do serviço na nuvem
-                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"),
-                DateTimeFormatter.ISO_LOCAL_DATE_TIME,
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
-                DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"),
-                DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
-            };
-            
-            for (DateTimeFormatter formatter : formatters) {
-                try {
-                    LocalDateTime parsed = LocalDateTime.parse(dataHoraStr.trim(), formatter);
-                    logger.debug("Data/hora '{}' parseada com sucesso usando formato: {}", dataHoraStr, formatter);
-                    return parsed;
-                } catch (Exception ignored) {
-                    // Tenta próximo formato
-                }
-            }
-            
+
+        LocalDateTime parsed = normalizadorDataHora.parseDataHora(dataHoraStr);
+        if (parsed == null) {
             logger.warn("Não foi possível fazer parse da data/hora '{}' com nenhum formato conhecido", dataHoraStr);
-        } catch (Exception e) {
-            logger.debug("Erro ao fazer parse da data/hora '{}': {}", dataHoraStr, e.getMessage());
+            return LocalDateTime.now();
         }
-        
-        return LocalDateTime.now();
+        return parsed;
     }
 
     /**
@@ -386,7 +421,28 @@ public class CloudPdfProcessingService {
                valor.equals("s") || valor.equals("1");
     }
 
-    private CapaDTO criarCapaVazia() {
+    /**
+     * Resposta útil: ao menos um campo principal preenchido. A capa de falha ({@link #capaFalha()}) nunca
+     * é considerada útil
+     */
+    public boolean possuiDados(CapaDTO capa) {
+        if (capa == null || isCapaFalha(capa)) {
+            return false;
+        }
+        return preenchido(capa.processo()) || preenchido(capa.objeto())
+            || preenchido(capa.edital()) || preenchido(capa.cliente());
+    }
+
+    private boolean preenchido(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+
+    /**
+     * Capa devolvida aos clientes da API quando o serviço na nuvem falha; mantém o corpo de erro que
+     * os endpoints já retornavam. Não é usada internamente como resultado: falhas são sinalizadas
+     * com {@link FalhaServicoNuvemException}
+     */
+    public CapaDTO capaFalha() {
         return new CapaDTO(
             "",
             LocalDateTime.now(),
@@ -402,43 +458,37 @@ public class CloudPdfProcessingService {
             "",
             false,
             "",
-            "Processamento via serviço na nuvem falhou - usando dados padrão",
+            OBS_FALHA,
             BigDecimal.ZERO,
-            new ArrayList<>()
+            List.of()
         );
     }
 
     /**
-     * Verifica se o serviço está habilitado e disponível
+     * Indica se a capa é a de falha, inclusive cópias dela (ex.: lidas do cache)
      */
-    public boolean isServiceAvailable() {
-        return serviceEnabled;
+    public boolean isCapaFalha(CapaDTO capa) {
+        return capa != null && OBS_FALHA.equals(capa.obs());
     }
 
     /**
-     * Testa conectividade com o serviço externo
+     * Verifica se o serviço está habilitado e disponível
      */
-    public boolean testConnection() {
-        try {
-            // Fazer uma requisição simples para testar conectividade
-            ResponseEntity<String> response = restTemplate.getForEntity(
-                cloudServiceUrl.replace("/score", "/health"), // assumindo endpoint de health
-                String.class
-            );
-            return response.getStatusCode() == HttpStatus.OK;
-        } catch (Exception e) {
-            logger.warn("Teste de conectividade com serviço na nuvem falhou: {}", e.getMessage());
-            return false;
-        }
+    public boolean isServiceAvailable() {
+        return serviceEnabled;
     }
 
     /**
      * Método público para testar o parse de JSON (usado pelo controller de teste)
      * @param jsonResponse JSON de exemplo para testar
-     * @return CapaDTO parseado
+     * @return CapaDTO parseado, ou a capa de falha se o JSON não trouxer os dados do edital
      */
     public CapaDTO testarParseJson(String jsonResponse) {
-        return parseResponseToCapaDTO(jsonResponse, "teste.pdf");
+        try {
+            return parseResponseToCapaDTO(jsonResponse, "teste.pdf");
+        } catch (FalhaServicoNuvemException e) {
+            return capaFalha();
+        }
     }
 
     /**
@@ -0,0 +1,133 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.dto.CapaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas simultâneas idênticas ao serviço de score na nuvem.
+ *
+ * Enquanto uma chamada para a mesma chave (arquivo ou hash do conteúdo, container, páginas e
+ * prompts) está em andamento, os demais chamadores recebem o mesmo futuro em vez de disparar outra
+ * requisição. Opcionalmente o resultado bem-sucedido fica memorizado por alguns segundos; chamadas
+ * que falham (futuro concluído com exceção) ou cujo resultado é recusado pelo predicado nunca são
+ * memorizadas.
+ */
+@Service
+public class CoalescedorNuvem {
+
+    /** Acima disso o memo é varrido para remover entradas expiradas */
+    private static final int LIMITE_MEMO = 256;
+
+    /**
+     * Identifica chamadas equivalentes
+     * @param identificador Hash do conteúdo, ou nome do arquivo quando o hash não é conhecido
+     */
+    public record Chave(String identificador, String containerName, String pageLen, List<String> promptList) {}
+
+    private record Memo(CapaDTO capa, long expiraEmNanos) {}
+
+    @Value("${cloud.pdf.coalescimento.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${cloud.pdf.coalescimento.memo-ttl:10s}")
+    private Duration memoTtl;
+
+    private final Map<Chave, CompletableFuture<CapaDTO>> emVoo = new ConcurrentHashMap<>();
+    private final Map<Chave, Memo> memo = new ConcurrentHashMap<>();
+
+    private final AtomicLong chamadas = new AtomicLong();
+    private final AtomicLong coalescidas = new AtomicLong();
+    private final AtomicLong acertosMemo = new AtomicLong();
+
+    /**
+     * Executa a chamada ou se junta a uma idêntica já em andamento
+     * @param chave Identificação da chamada
+     * @param iniciar Dispara a chamada real
+     * @param memorizavel Quais resultados bem-sucedidos podem ser reaproveitados pelo memo
+     * @return Futuro com o resultado (cópia própria de cada chamador)
+     */
+    public CompletableFuture<CapaDTO> executar(Chave chave, Supplier<CompletableFuture<CapaDTO>> iniciar,
+                                               Predicate<CapaDTO> memorizavel) {
+        if (!habilitado) {
+            return iniciar.get();
+        }
+        chamadas.incrementAndGet();
+
+        Memo memorizado = memo.get(chave);
+        if (memorizado != null) {
+            if (System.nanoTime() - memorizado.expiraEmNanos() < 0) {
+                acertosMemo.incrementAndGet();
+                return CompletableFuture.completedFuture(memorizado.capa());
+            }
+            memo.remove(chave, memorizado);
+        }
+
+        CompletableFuture<CapaDTO> novo = new CompletableFuture<>();
+        CompletableFuture<CapaDTO> existente = emVoo.putIfAbsent(chave, novo);
+        if (existente != null) {
+            coalescidas.incrementAndGet();
+            return existente.copy();
+        }
+
+        CompletableFuture<CapaDTO> chamada;
+        try {
+            chamada = iniciar.get();
+        } catch (RuntimeException e) {
+            chamada = CompletableFuture.failedFuture(e);
+        }
+        chamada.whenComplete((capa, erro) -> {
+            if (erro == null && capa != null && memoTtl != null && !memoTtl.isZero() && memorizavel.test(capa)) {
+                memorizar(chave, capa);
+            }
+            // Remove antes de completar: quem chegar depois já encontra o memo ou inicia nova chamada
+            emVoo.remove(chave, novo);
+            if (erro != null) {
+                novo.completeExceptionally(erro);
+            } else {
+                novo.complete(capa);
+            }
+        });
+        return novo.copy();
+    }
+
+    private void memorizar(Chave chave, CapaDTO capa) {
+        long agora = System.nanoTime();
+        if (memo.size() >= LIMITE_MEMO) {
+            memo.values().removeIf(m -> agora - m.expiraEmNanos() >= 0);
+        }
+        if (memo.size() < LIMITE_MEMO) {
+            memo.put(chave, new Memo(capa, agora + memoTtl.toNanos()));
+        }
+    }
+
+    /**
+     * Contadores do agrupamento
+     * @return Mapa com chamadas, chamadas agrupadas, acertos do memo e ocupação atual
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        long total = chamadas.get();
+        long agrupadas = coalescidas.get();
+        long memorizadas = acertosMemo.get();
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("chamadas", total);
+        estatisticas.put("coalescidas", agrupadas);
+        estatisticas.put("acertosMemo", memorizadas);
+        estatisticas.put("taxaReaproveitamento", total > 0 ? (double) (agrupadas + memorizadas) / total : 0.0);
+        estatisticas.put("emVoo", emVoo.size());
+        estatisticas.put("memorizadas", memo.size());
+        estatisticas.put("memoTtlSegundos", memoTtl != null ? memoTtl.toSeconds() : 0);
+        return estatisticas;
+    }
+}
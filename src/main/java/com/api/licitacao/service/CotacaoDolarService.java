@@ -3,6 +3,7 @@ package com.api.licitacao.service;
 import com.api.licitacao.model.CotacaoDolar;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -10,7 +11,9 @@ import org.springframework.web.client.RestTemplate;
 public class CotacaoDolarService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private static final String BASE_URL = "https://economia.awesomeapi.com.br/last/USD-BRL";
+
+    @Value("${cotacao.dolar.url:https://economia.awesomeapi.com.br/last/USD-BRL}")
+    private String baseUrl;
 
     public CotacaoDolarService(RestTemplate restTemplate, ObjectMapper objectMapper) {
         this.restTemplate = restTemplate;
@@ -19,7 +22,7 @@ public class CotacaoDolarService {
 
     public CotacaoDolar getCotacaoDolar() {
         try {
-            String response = restTemplate.getForObject(BASE_URL, String.class);
+            String response = restTemplate.getForObject(baseUrl, String.class);
             if (response != null) {
                 JsonNode rootNode = objectMapper.readTree(response);
                 JsonNode usdbrlNode = rootNode.get("USDBRL");
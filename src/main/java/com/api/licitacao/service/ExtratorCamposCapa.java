@@ -0,0 +1,359 @@
+package com.api.licitacao.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extrator de campos da capa em uma única varredura do texto.
+ *
+ * Os rótulos de todos os campos (processo, órgão, objeto, portal, edital...) são compilados
+ * em um autômato Aho-Corasick. O texto é percorrido uma única vez; a cada ocorrência de rótulo
+ * o padrão regex do campo é aplicado ancorado naquela posição ({@link Matcher#lookingAt()}),
+ * o que mantém exatamente o mesmo resultado de {@code Pattern.matcher(texto).find()}.
+ */
+@Component
+public class ExtratorCamposCapa {
+
+    /**
+     * Campos extraídos do cabeçalho do edital, com o padrão regex e os rótulos que o disparam
+     */
+    public enum Campo {
+        PROCESSO("(?i)processo[\\s:\\-]*([\\w\\d\\-\\/\\.]+)", "processo"),
+        ORGAO("(?i)(?:órgão|orgao)[\\s:\\-]*([^\\n\\r]+)", "órgão", "orgao"),
+        TITULO("(?i)(?:título|titulo|objeto)[\\s:\\-]*([^\\n\\r]+)", "título", "titulo", "objeto"),
+        PORTAL("(?i)portal[\\s:\\-]*([^\\n\\r]+)", "portal"),
+        EDITAL("(?i)edital[\\s:\\-]*([\\w\\d\\-\\/\\.]+)", "edital"),
+        CLIENTE("(?i)cliente[\\s:\\-]*([^\\n\\r]+)", "cliente"),
+        OBJETO("(?i)objeto[\\s:\\-]*([^\\n\\r]+)", "objeto"),
+        MODALIDADE("(?i)modalidade[\\s:\\-]*([^\\n\\r]+)", "modalidade"),
+        AMOSTRA("(?i)amostra[\\s:\\-]*([^\\n\\r]+)", "amostra"),
+        ENTREGA("(?i)(?:entrega|prazo)[\\s:\\-]*([^\\n\\r]+)", "entrega", "prazo"),
+        CR("(?i)(?:cr|centro de responsabilidade)[\\s:\\-]*([^\\n\\r]+)", "cr", "centro de responsabilidade"),
+        ATESTADO("(?i)atestado[\\s:\\-]*(sim|não|yes|no|s|n)", "atestado"),
+        IMPUGNACAO("(?i)(?:impugnação|impugnacao)[\\s:\\-]*([^\\n\\r]+)", "impugnação", "impugnacao"),
+        OBS("(?i)(?:observações|observacoes|obs)[\\s:\\-]*([^\\n\\r]+)", "observações", "observacoes", "obs"),
+        // Data e hora não têm rótulo: são disparadas por qualquer dígito
+        DATA("(\\d{1,2}[/\\-]\\d{1,2}[/\\-]\\d{2,4})"),
+        HORA("(\\d{1,2}:\\d{2})");
+
+        private final Pattern pattern;
+        private final String[] rotulos;
+
+        Campo(String regex, String... rotulos) {
+            this.pattern = Pattern.compile(regex);
+            this.rotulos = rotulos;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        boolean disparadoPorDigito() {
+            return rotulos.length == 0;
+        }
+    }
+
+    private static final Campo[] CAMPOS = Campo.values();
+    private static final Campo[] CAMPOS_NUMERICOS = {Campo.DATA, Campo.HORA};
+
+    /** Símbolo usado para qualquer caractere que não aparece em nenhum rótulo */
+    private static final int OUTRO = 0;
+
+    // Autômato: transicoes[estado * tamanhoAlfabeto + simbolo] -> próximo estado
+    private final int[] simbolos = new int[256];
+    private final int tamanhoAlfabeto;
+    private final int[] transicoes;
+    // Para cada estado, os rótulos reconhecidos (incluindo os herdados via links de falha)
+    private final int[][] saidas;
+    private final String[] rotulos;
+    private final Campo[][] camposPorRotulo;
+    private final int maiorRotulo;
+
+    public ExtratorCamposCapa() {
+        List<String> listaRotulos = new ArrayList<>();
+        Map<String, List<Campo>> campos = new LinkedHashMap<>();
+        for (Campo campo : CAMPOS) {
+            for (String rotulo : campo.rotulos) {
+                campos.computeIfAbsent(rotulo, r -> {
+                    listaRotulos.add(r);
+                    return new ArrayList<>();
+                }).add(campo);
+            }
+        }
+        this.rotulos = listaRotulos.toArray(new String[0]);
+        this.camposPorRotulo = new Campo[rotulos.length][];
+        int maior = 0;
+        for (int i = 0; i < rotulos.length; i++) {
+            camposPorRotulo[i] = campos.get(rotulos[i]).toArray(new Campo[0]);
+            maior = Math.max(maior, rotulos[i].length());
+        }
+        this.maiorRotulo = maior;
+
+        // Alfabeto: todos os caracteres presentes nos rótulos (todos abaixo de 256)
+        int proximoSimbolo = 1;
+        for (String rotulo : rotulos) {
+            for (char c : rotulo.toCharArray()) {
+                if (simbolos[c] == OUTRO) {
+                    simbolos[c] = proximoSimbolo++;
+                }
+            }
+        }
+        this.tamanhoAlfabeto = proximoSimbolo;
+
+        // Trie
+        List<int[]> filhos = new ArrayList<>();
+        List<List<Integer>> saidasTrie = new ArrayList<>();
+        filhos.add(novoNo());
+        saidasTrie.add(new ArrayList<>());
+        for (int r = 0; r < rotulos.length; r++) {
+            int estado = 0;
+            for (char c : rotulos[r].toCharArray()) {
+                int s = simbolos[c];
+                if (filhos.get(estado)[s] < 0) {
+                    filhos.get(estado)[s] = filhos.size();
+                    filhos.add(novoNo());
+                    saidasTrie.add(new ArrayList<>());
+                }
+                estado = filhos.get(estado)[s];
+            }
+            saidasTrie.get(estado).add(r);
+        }
+
+        // Links de falha em largura, convertendo a trie em autômato determinístico
+        int totalEstados = filhos.size();
+        this.transicoes = new int[totalEstados * tamanhoAlfabeto];
+        int[] falha = new int[totalEstados];
+        int[] fila = new int[totalEstados];
+        int inicio = 0;
+        int fim = 0;
+        for (int s = 0; s < tamanhoAlfabeto; s++) {
+            int filho = filhos.get(0)[s];
+            if (filho > 0) {
+                transicoes[s] = filho;
+                falha[filho] = 0;
+                fila[fim++] = filho;
+            } else {
+                transicoes[s] = 0;
+            }
+        }
+        while (inicio < fim) {
+            int estado = fila[inicio++];
+            saidasTrie.get(estado).addAll(saidasTrie.get(falha[estado]));
+            for (int s = 0; s < tamanhoAlfabeto; s++) {
+                int filho = filhos.get(estado)[s];
+                if (filho > 0) {
+                    falha[filho] = transicoes[falha[estado] * tamanhoAlfabeto + s];
+                    transicoes[estado * tamanhoAlfabeto + s] = filho;
+                    fila[fim++] = filho;
+                } else {
+                    transicoes[estado * tamanhoAlfabeto + s] = transicoes[falha[estado] * tamanhoAlfabeto + s];
+                }
+            }
+        }
+        this.saidas = new int[totalEstados][];
+        for (int e = 0; e < totalEstados; e++) {
+            saidas[e] = saidasTrie.get(e).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int[] novoNo() {
+        int[] no = new int[tamanhoAlfabeto];
+        Arrays.fill(no, -1);
+        return no;
+    }
+
+    /**
+     * Percorre o texto uma única vez e retorna a primeira ocorrência de cada campo
+     * @param texto Texto completo do PDF
+     * @return Campos encontrados
+     */
+    public CamposExtraidos extrair(CharSequence texto) {
+        Varredura varredura = iniciarVarredura();
+        varredura.alimentar(texto);
+        return varredura.concluir();
+    }
+
+    /**
+     * Inicia uma varredura incremental, alimentada trecho a trecho (ex.: página a página)
+     * @return Nova varredura
+     */
+    public Varredura iniciarVarredura() {
+        return new Varredura();
+    }
+
+    /**
+     * Varredura incremental do texto. O resultado após {@link #concluir()} é o mesmo de
+     * {@link #extrair(CharSequence)} sobre a concatenação dos trechos alimentados.
+     * Não é thread-safe: cada documento usa sua própria varredura.
+     */
+    public final class Varredura {
+
+        private final StringBuilder texto = new StringBuilder();
+        private final EnumMap<Campo, String> valores = new EnumMap<>(Campo.class);
+        // Posição inicial do match aceito para cada campo (-1 = ainda não encontrado)
+        private final int[] inicioAceito = new int[CAMPOS.length];
+        private final Matcher[] matchers = new Matcher[CAMPOS.length];
+        // Ocorrências cujo resultado depende de texto ainda não recebido (match tocou o fim do buffer)
+        private final List<long[]> adiadas = new ArrayList<>();
+        private int estado = 0;
+
+        private Varredura() {
+            Arrays.fill(inicioAceito, -1);
+        }
+
+        /**
+         * Acrescenta um trecho de texto à varredura
+         * @param trecho Próximo trecho do documento
+         */
+        public void alimentar(CharSequence trecho) {
+            int inicioTrecho = texto.length();
+            texto.append(trecho);
+            reavaliarAdiadas(false);
+
+            int n = texto.length();
+            for (int i = inicioTrecho; i < n; i++) {
+                char c = texto.charAt(i);
+
+                if (c >= '0' && c <= '9') {
+                    for (Campo campo : CAMPOS_NUMERICOS) {
+                        if (inicioAceito[campo.ordinal()] < 0) {
+                            tentar(campo, i, false);
+                        }
+                    }
+                }
+
+                // (?i) sem UNICODE_CASE: apenas letras ASCII são comparadas sem diferenciar maiúsculas
+                char normalizado = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+                int simbolo = normalizado < 256 ? simbolos[normalizado] : OUTRO;
+                estado = transicoes[estado * tamanhoAlfabeto + simbolo];
+
+                for (int r : saidas[estado]) {
+                    int inicio = i - rotulos[r].length() + 1;
+                    for (Campo campo : camposPorRotulo[r]) {
+                        tentar(campo, inicio, false);
+                    }
+                }
+
+                if ((i & 0xFF) == 0 && todosDefinitivos(CAMPOS, i + 1)) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Indica se os campos informados já têm valor definitivo, ou seja, nenhum texto
+         * adicional pode alterar o resultado deles
+         */
+        public boolean resolvidos(Collection<Campo> campos) {
+            return todosDefinitivos(campos.toArray(new Campo[0]), texto.length());
+        }
+
+        /**
+         * Encerra a varredura tratando o texto recebido como completo
+         * @return Campos encontrados
+         */
+        public CamposExtraidos concluir() {
+            reavaliarAdiadas(true);
+            return new CamposExtraidos(valores);
+        }
+
+        /**
+         * Quantidade de caracteres recebidos até agora
+         */
+        public int tamanho() {
+            return texto.length();
+        }
+
+        private boolean todosDefinitivos(Campo[] campos, int processados) {
+            for (Campo campo : campos) {
+                int aceito = inicioAceito[campo.ordinal()];
+                if (aceito < 0) {
+                    return false;
+                }
+                // Rótulos de tamanhos diferentes podem ser reportados fora da ordem de início:
+                // ainda pode surgir uma ocorrência anterior enquanto estiver dentro da janela do maior rótulo
+                if (!campo.disparadoPorDigito() && processados <= aceito + maiorRotulo) {
+                    return false;
+                }
+                for (long[] adiada : adiadas) {
+                    if (adiada[0] == campo.ordinal() && adiada[1] < aceito) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void reavaliarAdiadas(boolean fimDoTexto) {
+            if (adiadas.isEmpty()) {
+                return;
+            }
+            List<long[]> pendentes = new ArrayList<>(adiadas);
+            adiadas.clear();
+            for (long[] adiada : pendentes) {
+                tentar(CAMPOS[(int) adiada[0]], (int) adiada[1], fimDoTexto);
+            }
+        }
+
+        private void tentar(Campo campo, int inicio, boolean fimDoTexto) {
+            int aceito = inicioAceito[campo.ordinal()];
+            // Só um match que comece antes do já aceito pode substituí-lo
+            if (aceito >= 0 && inicio >= aceito) {
+                return;
+            }
+            Matcher matcher = matchers[campo.ordinal()];
+            if (matcher == null) {
+                matcher = campo.getPattern().matcher(texto);
+                matchers[campo.ordinal()] = matcher;
+            }
+            matcher.region(inicio, texto.length());
+            boolean encontrou = matcher.lookingAt();
+            if (!fimDoTexto && matcher.hitEnd()) {
+                adiadas.add(new long[]{campo.ordinal(), inicio});
+                return;
+            }
+            if (encontrou) {
+                valores.put(campo, normalizar(matcher.group(1)));
+                inicioAceito[campo.ordinal()] = inicio;
+            }
+        }
+    }
+
+    /**
+     * Mesmo tratamento aplicado pelo extrator regex: remove quebras de linha e espaços extras
+     */
+    private static String normalizar(String valor) {
+        String resultado = valor.trim();
+        resultado = resultado.replaceAll("[\\n\\r]+", " ").trim();
+        return resultado.isEmpty() ? null : resultado;
+    }
+
+    /**
+     * Resultado da varredura: primeira ocorrência de cada campo (null se ausente ou vazio)
+     */
+    public static final class CamposExtraidos {
+
+        private final EnumMap<Campo, String> valores;
+
+        CamposExtraidos(EnumMap<Campo, String> valores) {
+            this.valores = valores;
+        }
+
+        public String get(Campo campo) {
+            return valores.get(campo);
+        }
+
+        public boolean encontrado(Campo campo) {
+            return valores.get(campo) != null;
+        }
+    }
+}
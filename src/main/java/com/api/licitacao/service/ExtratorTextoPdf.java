@@ -0,0 +1,269 @@
+package com.api.licitacao.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extração de texto de PDF em blocos de páginas.
+ *
+ * Em vez de montar uma única String com o documento inteiro, o texto é entregue bloco a bloco
+ * ao consumidor, que pode interromper a extração assim que tiver o que precisa.
+ *
+ * Para documentos grandes há um modo paralelo opcional: os blocos são extraídos concorrentemente
+ * por workers que abrem cada um o seu próprio documento (o PDDocument não é thread-safe),
+ * e o texto continua sendo entregue ao consumidor na ordem das páginas. Cada worker carrega o PDF
+ * inteiro de novo, com a reserva de heap do {@link CarregadorPdf}; a quantidade de workers por
+ * documento é limitada para que essas cópias caibam em {@code pdf.extracao.paralela.memoria-maxima}.
+ */
+@Service
+public class ExtratorTextoPdf {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtratorTextoPdf.class);
+
+    @Value("${pdf.extracao.paginas-por-bloco:2}")
+    private int paginasPorBloco;
+
+    @Value("${pdf.extracao.paralela.enabled:false}")
+    private boolean paralelaHabilitada;
+
+    @Value("${pdf.extracao.paralela.min-paginas:100}")
+    private int minPaginasParalela;
+
+    @Value("${pdf.extracao.paralela.paginas-por-tarefa:16}")
+    private int paginasPorTarefa;
+
+    @Value("${pdf.extracao.paralela.threads:0}")
+    private int threadsConfiguradas;
+
+    @Value("${pdf.extracao.paralela.memoria-maxima:64MB}")
+    private DataSize memoriaMaxima;
+
+    private final CarregadorPdf carregadorPdf;
+
+    private ExecutorService executor;
+    private int threads;
+
+    public ExtratorTextoPdf(CarregadorPdf carregadorPdf) {
+        this.carregadorPdf = carregadorPdf;
+    }
+
+    @PostConstruct
+    void inicializar() {
+        if (!paralelaHabilitada) {
+            return;
+        }
+        threads = threadsConfiguradas > 0 ? threadsConfiguradas : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "pdf-extracao-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Extração paralela de PDF habilitada: {} threads, a partir de {} páginas", threads, minPaginasParalela);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Recebe o texto de um bloco de páginas
+     */
+    @FunctionalInterface
+    public interface ConsumidorPaginas {
+        /**
+         * @param paginaInicial Primeira página do bloco (base 1)
+         * @param paginaFinal Última página do bloco (inclusive)
+         * @param texto Texto extraído do bloco
+         * @return false para interromper a extração
+         */
+        boolean aceitar(int paginaInicial, int paginaFinal, String texto);
+    }
+
+    /**
+     * Extrai o texto do documento em blocos de páginas, em ordem
+     * @param document Documento PDF aberto
+     * @param maxPaginas Limite de páginas a extrair (0 = todas)
+     * @param consumidor Recebe o texto de cada bloco
+     * @return Número de páginas extraídas
+     * @throws IOException Se ocorrer erro na extração
+     */
+    public int extrairPorPaginas(PDDocument document, int maxPaginas, ConsumidorPaginas consumidor) throws IOException {
+        return extrairPorPaginas(document, null, maxPaginas, consumidor);
+    }
+
+    /**
+     * Extrai o texto do documento em blocos de páginas, em ordem, usando o modo paralelo
+     * quando habilitado e o documento tiver páginas suficientes
+     * @param document Documento PDF aberto
+     * @param origem Arquivo de origem, usado pelos workers para abrir seus próprios documentos (null = serial)
+     * @param maxPaginas Limite de páginas a extrair (0 = todas)
+     * @param consumidor Recebe o texto de cada bloco
+     * @return Número de páginas extraídas
+     * @throws IOException Se ocorrer erro na extração
+     */
+    public int extrairPorPaginas(PDDocument document, MultipartFile origem, int maxPaginas,
+                                 ConsumidorPaginas consumidor) throws IOException {
+        int totalPaginas = document.getNumberOfPages();
+        int ultimaPagina = maxPaginas > 0 ? Math.min(totalPaginas, maxPaginas) : totalPaginas;
+
+        int extraidas;
+        int workers = executor != null && origem != null && ultimaPagina >= minPaginasParalela
+            ? workersParalelos(origem, ultimaPagina) : 1;
+        if (workers > 1) {
+            extraidas = extrairEmParalelo(origem, ultimaPagina, workers, consumidor);
+        } else {
+            extraidas = extrairEmSerie(document, ultimaPagina, consumidor);
+        }
+
+        logger.debug("Extraídas {} de {} páginas", extraidas, totalPaginas);
+        return extraidas;
+    }
+
+    private int extrairEmSerie(PDDocument document, int ultimaPagina, ConsumidorPaginas consumidor) throws IOException {
+        int tamanhoBloco = Math.max(1, paginasPorBloco);
+
+        PDFTextStripper stripper = new PDFTextStripper();
+        int pagina = 1;
+        while (pagina <= ultimaPagina) {
+            int fimBloco = Math.min(ultimaPagina, pagina + tamanhoBloco - 1);
+            stripper.setStartPage(pagina);
+            stripper.setEndPage(fimBloco);
+            String texto = stripper.getText(document);
+            boolean continuar = consumidor.aceitar(pagina, fimBloco, texto);
+            pagina = fimBloco + 1;
+
+            if (!continuar) {
+                break;
+            }
+        }
+        return pagina - 1;
+    }
+
+    /**
+     * Workers para o documento: limitados pelas threads, pelas tarefas e pela memória das cópias
+     * que cada worker carrega (1 = extração em série, sem cópias)
+     */
+    private int workersParalelos(MultipartFile origem, int ultimaPagina) {
+        int tamanhoTarefa = Math.max(1, paginasPorTarefa);
+        int totalTarefas = (ultimaPagina + tamanhoTarefa - 1) / tamanhoTarefa;
+        int workers = Math.min(threads, totalTarefas);
+        long porCopia = carregadorPdf.reservaEstimada(origem.getSize());
+        if (porCopia > 0) {
+            long cabem = memoriaMaxima.toBytes() / porCopia;
+            if (cabem < workers) {
+                logger.debug("PDF '{}': {} workers em vez de {} ({} bytes de heap por cópia)",
+                    origem.getOriginalFilename(), cabem, workers, porCopia);
+                workers = (int) cabem;
+            }
+        }
+        return workers;
+    }
+
+    private int extrairEmParalelo(MultipartFile origem, int ultimaPagina, int workers,
+                                  ConsumidorPaginas consumidor) throws IOException {
+        int tamanhoTarefa = Math.max(1, paginasPorTarefa);
+        int totalTarefas = (ultimaPagina + tamanhoTarefa - 1) / tamanhoTarefa;
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<String>[] resultados = new CompletableFuture[totalTarefas];
+        for (int i = 0; i < totalTarefas; i++) {
+            resultados[i] = new CompletableFuture<>();
+        }
+        AtomicInteger proximaTarefa = new AtomicInteger();
+        AtomicBoolean cancelado = new AtomicBoolean();
+        // Limita quantos blocos podem ficar prontos à frente do consumidor
+        Semaphore janela = new Semaphore(workers * 2);
+
+        logger.debug("Extraindo {} páginas em paralelo: {} tarefas, {} workers", ultimaPagina, totalTarefas, workers);
+        for (int w = 0; w < workers; w++) {
+            executor.execute(() -> executarWorker(origem, ultimaPagina, tamanhoTarefa, resultados,
+                proximaTarefa, cancelado, janela));
+        }
+
+        int pagina = 1;
+        try {
+            for (int i = 0; i < totalTarefas; i++) {
+                String texto = aguardar(resultados[i]);
+                janela.release();
+                int inicio = i * tamanhoTarefa + 1;
+                int fim = Math.min(ultimaPagina, inicio + tamanhoTarefa - 1);
+                pagina = fim + 1;
+                if (!consumidor.aceitar(inicio, fim, texto)) {
+                    break;
+                }
+            }
+        } finally {
+            cancelado.set(true);
+        }
+        return pagina - 1;
+    }
+
+    private void executarWorker(MultipartFile origem, int ultimaPagina, int tamanhoTarefa,
+                                CompletableFuture<String>[] resultados, AtomicInteger proximaTarefa,
+                                AtomicBoolean cancelado, Semaphore janela) {
+        try (CarregadorPdf.DocumentoCarregado carregado = carregadorPdf.carregar(origem)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            while (!cancelado.get()) {
+                if (!janela.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+                int tarefa = proximaTarefa.getAndIncrement();
+                if (tarefa >= resultados.length) {
+                    return;
+                }
+                int inicio = tarefa * tamanhoTarefa + 1;
+                stripper.setStartPage(inicio);
+                stripper.setEndPage(Math.min(ultimaPagina, inicio + tamanhoTarefa - 1));
+                try {
+                    resultados[tarefa].complete(stripper.getText(carregado.getDocumento()));
+                } catch (Exception e) {
+                    resultados[tarefa].completeExceptionally(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            falharPendentes(resultados, e);
+        } catch (Exception e) {
+            falharPendentes(resultados, e);
+        }
+    }
+
+    private void falharPendentes(CompletableFuture<String>[] resultados, Exception causa) {
+        for (CompletableFuture<String> resultado : resultados) {
+            resultado.completeExceptionally(causa);
+        }
+    }
+
+    private String aguardar(CompletableFuture<String> resultado) throws IOException {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Extração paralela interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Falha na extração paralela de texto: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.config.RequisicaoCancelavel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Requisições com hedge para o serviço de score na nuvem.
+ *
+ * Se a tentativa original não responder dentro do atraso (percentil configurado das latências
+ * recentes), uma segunda tentativa idêntica é disparada; vale a primeira que responder com sucesso e
+ * a outra é cancelada. O orçamento limita a fração de chamadas que podem gerar tentativa extra, e a
+ * tentativa extra ocupa uma vaga do {@link BulkheadNuvem}: sem vaga livre ela não é disparada.
+ */
+@Service
+public class HedgeNuvem {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgeNuvem.class);
+
+    @Value("${cloud.pdf.hedge.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${cloud.pdf.hedge.percentil:95}")
+    private double percentil;
+
+    @Value("${cloud.pdf.hedge.atraso-minimo:500ms}")
+    private Duration atrasoMinimo;
+
+    @Value("${cloud.pdf.hedge.atraso-inicial:20s}")
+    private Duration atrasoInicial;
+
+    @Value("${cloud.pdf.hedge.amostras-minimas:20}")
+    private int amostrasMinimas;
+
+    @Value("${cloud.pdf.hedge.orcamento:0.1}")
+    private double orcamento;
+
+    @Value("${cloud.pdf.hedge.janela:200}")
+    private int tamanhoJanela;
+
+    private ExecutorService executor;
+
+    // Latências de todas as tentativas (com sucesso, com falha ou canceladas), em janela circular
+    private long[] latenciasNanos;
+    private int proximaPosicao;
+    private int amostras;
+
+    private final AtomicLong chamadas = new AtomicLong();
+    private final AtomicLong hedgesDisparados = new AtomicLong();
+    private final AtomicLong hedgesVencedores = new AtomicLong();
+    private final AtomicLong negadosPorOrcamento = new AtomicLong();
+    private final AtomicLong negadosPorCapacidade = new AtomicLong();
+
+    private final BulkheadNuvem bulkheadNuvem;
+
+    public HedgeNuvem(BulkheadNuvem bulkheadNuvem) {
+        this.bulkheadNuvem = bulkheadNuvem;
+    }
+
+    @PostConstruct
+    void inicializar() {
+        latenciasNanos = new long[Math.max(1, tamanhoJanela)];
+        if (habilitado) {
+            // Tentativas originais são limitadas pelas threads do bulkhead e as extras pelas vagas dele,
+            // então o pool não precisa de limite próprio
+            AtomicInteger contador = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "nuvem-hedge-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa a chamada, disparando uma tentativa extra se a original demorar além do atraso
+     * @param tentativa Chamada HTTP idempotente; pode ser executada duas vezes
+     * @return Resultado da primeira tentativa bem-sucedida
+     */
+    public <T> T executar(Supplier<T> tentativa) throws Exception {
+        if (!habilitado) {
+            return tentativa.get();
+        }
+        long chamada = chamadas.incrementAndGet();
+
+        RequisicaoCancelavel original = new RequisicaoCancelavel();
+        CompletableFuture<T> futuroOriginal = iniciar(tentativa, original);
+        long atraso = atrasoAtualNanos();
+        try {
+            return futuroOriginal.get(atraso, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Segue para o hedge
+        } catch (ExecutionException e) {
+            throw desembrulhar(e.getCause());
+        } catch (InterruptedException e) {
+            original.cancelar();
+            throw e;
+        }
+
+        if (!bulkheadNuvem.reservarVagaExtra()) {
+            negadosPorCapacidade.incrementAndGet();
+            return aguardar(futuroOriginal);
+        }
+        if (!reservarOrcamento(chamada)) {
+            bulkheadNuvem.liberarVagaExtra();
+            negadosPorOrcamento.incrementAndGet();
+            return aguardar(futuroOriginal);
+        }
+        logger.debug("Chamada à nuvem sem resposta após {} ms, disparando tentativa extra", atraso / 1_000_000);
+
+        RequisicaoCancelavel extra = new RequisicaoCancelavel();
+        CompletableFuture<T> futuroExtra;
+        try {
+            futuroExtra = iniciar(tentativa, extra);
+        } catch (RuntimeException e) {
+            bulkheadNuvem.liberarVagaExtra();
+            throw e;
+        }
+        futuroExtra.whenComplete((resultado, erro) -> bulkheadNuvem.liberarVagaExtra());
+
+        CompletableFuture<T> vencedor = new CompletableFuture<>();
+        AtomicInteger falhas = new AtomicInteger();
+        futuroOriginal.whenComplete((resultado, erro) -> concluir(vencedor, resultado, erro, falhas));
+        futuroExtra.whenComplete((resultado, erro) -> {
+            if (concluir(vencedor, resultado, erro, falhas)) {
+                hedgesVencedores.incrementAndGet();
+            }
+        });
+        try {
+            return aguardar(vencedor);
+        } finally {
+            // Libera a conexão da tentativa perdedora; na vencedora não tem efeito
+            original.cancelar();
+            extra.cancelar();
+        }
+    }
+
+    /**
+     * Reserva uma tentativa extra se o orçamento permitir; verificação e incremento são atômicos,
+     * então chamadas simultâneas não ultrapassam o orçamento
+     */
+    private boolean reservarOrcamento(long chamada) {
+        double limite = orcamento * chamada;
+        long anterior = hedgesDisparados.getAndUpdate(disparados -> disparados + 1 > limite ? disparados : disparados + 1);
+        return anterior + 1 <= limite;
+    }
+
+    private <T> CompletableFuture<T> iniciar(Supplier<T> tentativa, RequisicaoCancelavel requisicao) {
+        return CompletableFuture.supplyAsync(() -> {
+            long inicio = System.nanoTime();
+            try {
+                return requisicao.executar(tentativa);
+            } finally {
+                // Só com os sucessos o percentil cairia a cada chamada lenta cancelada ou que falhou;
+                // para a perdedora cancelada o tempo até o cancelamento é um limite inferior da latência
+                registrarLatencia(System.nanoTime() - inicio);
+            }
+        }, executor);
+    }
+
+    /**
+     * @return true se esta tentativa foi a vencedora
+     */
+    private <T> boolean concluir(CompletableFuture<T> vencedor, T resultado, Throwable erro, AtomicInteger falhas) {
+        if (erro == null) {
+            return vencedor.complete(resultado);
+        }
+        if (falhas.incrementAndGet() == 2) {
+            vencedor.completeExceptionally(erro);
+        }
+        return false;
+    }
+
+    private <T> T aguardar(CompletableFuture<T> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            throw desembrulhar(e.getCause());
+        }
+    }
+
+    private Exception desembrulhar(Throwable erro) {
+        while (erro instanceof CompletionException && erro.getCause() != null) {
+            erro = erro.getCause();
+        }
+        return erro instanceof Exception excecao ? excecao : new CompletionException(erro);
+    }
+
+    private synchronized void registrarLatencia(long nanos) {
+        latenciasNanos[proximaPosicao] = nanos;
+        proximaPosicao = (proximaPosicao + 1) % latenciasNanos.length;
+        amostras = Math.min(amostras + 1, latenciasNanos.length);
+    }
+
+    /**
+     * Atraso antes da tentativa extra: percentil das latências recentes, ou o atraso inicial
+     * enquanto não há amostras suficientes
+     */
+    private synchronized long atrasoAtualNanos() {
+        if (amostras < Math.max(1, amostrasMinimas)) {
+            return Math.max(atrasoInicial.toNanos(), atrasoMinimo.toNanos());
+        }
+        long[] ordenadas = Arrays.copyOf(latenciasNanos, amostras);
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        long valor = ordenadas[Math.min(ordenadas.length - 1, Math.max(0, indice))];
+        return Math.max(valor, atrasoMinimo.toNanos());
+    }
+
+    /**
+     * Contadores do hedge
+     * @return Mapa com chamadas, tentativas extras, taxa de hedge, vitórias da tentativa extra e atraso atual
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        long total = chamadas.get();
+        long hedges = hedgesDisparados.get();
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("chamadas", total);
+        estatisticas.put("hedgesDisparados", hedges);
+        estatisticas.put("taxaHedge", total > 0 ? (double) hedges / total : 0.0);
+        estatisticas.put("hedgesVencedores", hedgesVencedores.get());
+        estatisticas.put("negadosPorOrcamento", negadosPorOrcamento.get());
+        estatisticas.put("negadosPorCapacidade", negadosPorCapacidade.get());
+        estatisticas.put("orcamento", orcamento);
+        estatisticas.put("percentil", percentil);
+        estatisticas.put("atrasoAtualMs", atrasoAtualNanos() / 1_000_000);
+        synchronized (this) {
+            estatisticas.put("amostras", amostras);
+        }
+        return estatisticas;
+    }
+}
@@ -0,0 +1,386 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.exception.FilaJobsCheiaException;
+import com.api.licitacao.model.DocumentoPdf;
+import com.api.licitacao.model.JobProcessamento;
+import com.api.licitacao.repository.JobProcessamentoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Jobs assíncronos de processamento completo (extração, fornecedores, cotação e capa.xlsx).
+ *
+ * A submissão copia os PDFs para arquivos temporários e retorna imediatamente; um pool próprio
+ * executa o pipeline. O estado fica num registro em memória limitado (jobs finalizados mais antigos
+ * são despejados) e, opcionalmente, os jobs finalizados são gravados no banco para consulta posterior.
+ */
+@Service
+public class JobsProcessamento {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobsProcessamento.class);
+
+    public enum Status {
+        PENDENTE,
+        PROCESSANDO,
+        CONCLUIDO,
+        FALHOU;
+
+        public boolean finalizado() {
+            return this == CONCLUIDO || this == FALHOU;
+        }
+    }
+
+    /**
+     * Estado de um job
+     */
+    public static class Job {
+        private final String id;
+        private final List<String> arquivos;
+        private final LocalDateTime criadoEm;
+        private final List<SseEmitter> assinantes = new CopyOnWriteArrayList<>();
+
+        private volatile Status status = Status.PENDENTE;
+        private volatile String etapa;
+        private volatile LocalDateTime iniciadoEm;
+        private volatile LocalDateTime concluidoEm;
+        private volatile String erro;
+        private volatile byte[] planilha;
+        private volatile String nomePlanilha;
+
+        private Job(String id, List<String> arquivos, LocalDateTime criadoEm) {
+            this.id = id;
+            this.arquivos = arquivos;
+            this.criadoEm = criadoEm;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public byte[] getPlanilha() {
+            return planilha;
+        }
+
+        public String getNomePlanilha() {
+            return nomePlanilha;
+        }
+
+        /**
+         * Situação do job para consulta e eventos
+         */
+        public Map<String, Object> resumo() {
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("id", id);
+            resumo.put("status", status.name());
+            resumo.put("etapa", etapa);
+            resumo.put("arquivos", arquivos);
+            resumo.put("criadoEm", criadoEm);
+            resumo.put("iniciadoEm", iniciadoEm);
+            resumo.put("concluidoEm", concluidoEm);
+            if (erro != null) {
+                resumo.put("erro", erro);
+            }
+            resumo.put("planilhaDisponivel", status == Status.CONCLUIDO && planilha != null);
+            return resumo;
+        }
+    }
+
+    @Value("${processamento.jobs.threads:2}")
+    private int threads;
+
+    @Value("${processamento.jobs.fila:20}")
+    private int capacidadeFila;
+
+    @Value("${processamento.jobs.max-registros:200}")
+    private int maxRegistros;
+
+    @Value("${processamento.jobs.retencao:1h}")
+    private Duration retencao;
+
+    @Value("${processamento.jobs.sse-timeout:10m}")
+    private Duration sseTimeout;
+
+    @Value("${processamento.jobs.persistente.enabled:false}")
+    private boolean persistenteHabilitado;
+
+    private final ProcessamentoCompletoService processamentoCompletoService;
+    private final JobProcessamentoRepository repository;
+    private final TriagemPdf triagemPdf;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private Path diretorio;
+
+    private final AtomicLong submetidos = new AtomicLong();
+    private final AtomicLong concluidos = new AtomicLong();
+    private final AtomicLong falhos = new AtomicLong();
+    private final AtomicLong rejeitados = new AtomicLong();
+    private final AtomicLong despejados = new AtomicLong();
+
+    public JobsProcessamento(ProcessamentoCompletoService processamentoCompletoService,
+                             JobProcessamentoRepository repository, TriagemPdf triagemPdf) {
+        this.processamentoCompletoService = processamentoCompletoService;
+        this.repository = repository;
+        this.triagemPdf = triagemPdf;
+    }
+
+    @PostConstruct
+    void inicializar() throws IOException {
+        diretorio = Files.createTempDirectory("licitacao-jobs-");
+        AtomicInteger contador = new AtomicInteger();
+        int tamanho = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(tamanho, tamanho, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, capacidadeFila)), r -> {
+                Thread thread = new Thread(r, "job-processamento-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Registra um job e o coloca na fila
+     * @param arquivos PDFs recebidos; são copiados antes do retorno
+     * @return Job pendente
+     * @throws FilaJobsCheiaException Se a fila de jobs está cheia
+     */
+    public Job submeter(List<MultipartFile> arquivos) throws IOException {
+        limpar();
+
+        List<DocumentoPdf> documentos = new ArrayList<>();
+        try {
+            for (MultipartFile arquivo : arquivos) {
+                DocumentoPdf documento = DocumentoPdf.copiar(arquivo, diretorio);
+                // A triagem feita na submissão vale para a cópia: o worker só carrega o PDF na extração
+                triagemPdf.associarCopia(arquivo, documento);
+                documentos.add(documento);
+            }
+        } catch (IOException e) {
+            documentos.forEach(DocumentoPdf::excluir);
+            throw e;
+        }
+
+        List<String> nomes = documentos.stream().map(DocumentoPdf::getOriginalFilename).toList();
+        Job job = new Job(UUID.randomUUID().toString(), nomes, LocalDateTime.now());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job, documentos));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            documentos.forEach(DocumentoPdf::excluir);
+            rejeitados.incrementAndGet();
+            throw new FilaJobsCheiaException("Fila de processamento cheia, tente novamente em instantes");
+        }
+        submetidos.incrementAndGet();
+        logger.info("Job {} criado com {} arquivo(s)", job.id, nomes.size());
+        return job;
+    }
+
+    private void executar(Job job, List<DocumentoPdf> documentos) {
+        job.status = Status.PROCESSANDO;
+        job.iniciadoEm = LocalDateTime.now();
+        notificar(job);
+        Status status = Status.FALHOU;
+        try {
+            ProcessamentoCompletoService.ResultadoProcessamento resultado =
+                processamentoCompletoService.processar(documentos, etapa -> {
+                    job.etapa = etapa;
+                    notificar(job);
+                });
+            job.nomePlanilha = ProcessamentoCompletoService.nomePlanilha(resultado, documentos.size());
+            job.planilha = resultado.planilha();
+            status = Status.CONCLUIDO;
+            concluidos.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+            job.erro = e.getMessage();
+            falhos.incrementAndGet();
+        } catch (Exception e) {
+            logger.error("Erro no job {}: {}", job.id, e.getMessage(), e);
+            job.erro = "Erro ao processar PDFs: " + e.getMessage();
+            falhos.incrementAndGet();
+        } finally {
+            documentos.forEach(DocumentoPdf::excluir);
+            job.etapa = null;
+            // concluidoEm antes do status: jobs finalizados sempre têm horário de conclusão
+            job.concluidoEm = LocalDateTime.now();
+            job.status = status;
+            persistir(job);
+            notificar(job);
+            for (SseEmitter emitter : job.assinantes) {
+                emitter.complete();
+            }
+            job.assinantes.clear();
+        }
+        logger.info("Job {} finalizado com status {}", job.id, job.status);
+    }
+
+    /**
+     * Busca um job em memória ou, se habilitado, no banco
+     */
+    public Optional<Job> buscar(String id) {
+        Job job = jobs.get(id);
+        if (job != null || !persistenteHabilitado) {
+            return Optional.ofNullable(job);
+        }
+        try {
+            return repository.findById(id).map(this::restaurar);
+        } catch (Exception e) {
+            logger.warn("Erro ao buscar job {} no banco: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Assina os eventos de um job: o estado atual é enviado de imediato e depois a cada mudança
+     * de etapa; o stream é encerrado quando o job termina
+     */
+    public SseEmitter assinar(Job job) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        job.assinantes.add(emitter);
+        emitter.onCompletion(() -> job.assinantes.remove(emitter));
+        emitter.onTimeout(() -> job.assinantes.remove(emitter));
+        emitter.onError(erro -> job.assinantes.remove(emitter));
+
+        enviar(job, emitter);
+        if (job.status.finalizado()) {
+            // Já terminou (ou terminou durante a assinatura): não há mais eventos
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void notificar(Job job) {
+        for (SseEmitter emitter : job.assinantes) {
+            enviar(job, emitter);
+        }
+    }
+
+    private void enviar(Job job, SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job.resumo()));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado
+            job.assinantes.remove(emitter);
+        }
+    }
+
+    private void persistir(Job job) {
+        if (!persistenteHabilitado) {
+            return;
+        }
+        try {
+            JobProcessamento registro = new JobProcessamento();
+            registro.setId(job.id);
+            registro.setStatus(job.status.name());
+            registro.setArquivos(limitar(String.join("\n", job.arquivos)));
+            registro.setErro(limitar(job.erro));
+            registro.setNomePlanilha(job.nomePlanilha);
+            registro.setPlanilha(job.planilha);
+            registro.setCriadoEm(job.criadoEm);
+            registro.setConcluidoEm(job.concluidoEm);
+            repository.save(registro);
+        } catch (Exception e) {
+            logger.warn("Erro ao persistir job {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    private String limitar(String texto) {
+        return texto != null && texto.length() > 2000 ? texto.substring(0, 2000) : texto;
+    }
+
+    private Job restaurar(JobProcessamento registro) {
+        List<String> arquivos = registro.getArquivos() != null && !registro.getArquivos().isEmpty()
+            ? Arrays.asList(registro.getArquivos().split("\n")) : List.of();
+        Job job = new Job(registro.getId(), arquivos, registro.getCriadoEm());
+        job.status = Status.valueOf(registro.getStatus());
+        job.erro = registro.getErro();
+        job.nomePlanilha = registro.getNomePlanilha();
+        job.planilha = registro.getPlanilha();
+        job.concluidoEm = registro.getConcluidoEm();
+        return job;
+    }
+
+    /**
+     * Remove jobs finalizados além da retenção e, se o registro estiver cheio, os finalizados mais antigos
+     */
+    private void limpar() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        jobs.values().removeIf(job -> {
+            boolean expirado = job.status.finalizado() && job.concluidoEm != null && job.concluidoEm.isBefore(limite);
+            if (expirado) {
+                despejados.incrementAndGet();
+            }
+            return expirado;
+        });
+
+        int excedente = jobs.size() - Math.max(1, maxRegistros) + 1;
+        if (excedente > 0) {
+            jobs.values().stream()
+                .filter(job -> job.status.finalizado())
+                .sorted(Comparator.comparing((Job job) -> job.concluidoEm))
+                .limit(excedente)
+                .toList()
+                .forEach(job -> {
+                    if (jobs.remove(job.id, job)) {
+                        despejados.incrementAndGet();
+                    }
+                });
+        }
+    }
+
+    /**
+     * Contadores dos jobs
+     * @return Mapa com jobs submetidos, concluídos, falhos, rejeitados, despejados e ocupação do pool
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("submetidos", submetidos.get());
+        estatisticas.put("concluidos", concluidos.get());
+        estatisticas.put("falhos", falhos.get());
+        estatisticas.put("rejeitados", rejeitados.get());
+        estatisticas.put("despejados", despejados.get());
+        estatisticas.put("emExecucao", executor.getActiveCount());
+        estatisticas.put("naFila", executor.getQueue().size());
+        estatisticas.put("registrados", jobs.size());
+        estatisticas.put("maxRegistros", maxRegistros);
+        estatisticas.put("persistenteHabilitado", persistenteHabilitado);
+        return estatisticas;
+    }
+}
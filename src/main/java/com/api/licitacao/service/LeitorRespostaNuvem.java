@@ -0,0 +1,209 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.dto.CapaItemDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leitura em streaming da resposta do serviço de score na nuvem.
+ *
+ * Percorre os tokens até extracted_clausules.edital[0] e lê apenas os campos usados na capa e nos
+ * itens; o restante é pulado sem montar árvore nem bufferizar o corpo em String.
+ */
+@Component
+public class LeitorRespostaNuvem {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeitorRespostaNuvem.class);
+
+    /** Campos de texto do edital usados na montagem da capa */
+    private static final Set<String> CAMPOS_EDITAL = Set.of(
+        "processo", "dataHora", "cliente", "objeto", "portal", "edital",
+        "modalidade", "amostra", "dataCertame", "impugnacao"
+    );
+
+    private final JsonFactory fabrica = new JsonFactory();
+
+    /**
+     * Dados lidos de extracted_clausules.edital[0]
+     * @param campos Campos de texto presentes (ausentes ou nulos não entram no mapa)
+     * @param cotacaoDolar Cotação informada, ou null
+     * @param itens Itens do edital
+     */
+    public record DadosEdital(Map<String, String> campos, BigDecimal cotacaoDolar, List<CapaItemDTO> itens) {
+
+        public String campo(String nome) {
+            String valor = campos.get(nome);
+            return valor != null ? valor : "";
+        }
+    }
+
+    public JsonParser criarParser(InputStream corpo) throws IOException {
+        return fabrica.createParser(corpo);
+    }
+
+    public JsonParser criarParser(String json) throws IOException {
+        return fabrica.createParser(json);
+    }
+
+    /**
+     * Lê o primeiro edital da resposta
+     * @return Dados do edital, ou null se a resposta não contém extracted_clausules.edital[0]
+     */
+    public DadosEdital ler(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            logger.warn("Resposta JSON do serviço na nuvem não é um objeto");
+            return null;
+        }
+        boolean clausulasEncontradas = false;
+        DadosEdital dados = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String nome = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("extracted_clausules".equals(nome) && valor == JsonToken.START_OBJECT) {
+                clausulasEncontradas = true;
+                dados = lerClausulas(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!clausulasEncontradas) {
+            logger.warn("Campo 'extracted_clausules' não encontrado na resposta JSON");
+        } else if (dados == null) {
+            logger.warn("Campo 'edital' não encontrado ou vazio na resposta JSON");
+        }
+        return dados;
+    }
+
+    private DadosEdital lerClausulas(JsonParser parser) throws IOException {
+        DadosEdital dados = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String nome = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("edital".equals(nome) && valor == JsonToken.START_ARRAY) {
+                JsonToken primeiro = parser.nextToken();
+                if (primeiro == JsonToken.START_OBJECT) {
+                    dados = lerEdital(parser);
+                } else {
+                    parser.skipChildren();
+                }
+                if (primeiro != JsonToken.END_ARRAY) {
+                    // Demais editais do array não são usados
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return dados;
+    }
+
+    private DadosEdital lerEdital(JsonParser parser) throws IOException {
+        Map<String, String> campos = new HashMap<>();
+        BigDecimal cotacaoDolar = null;
+        List<CapaItemDTO> itens = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String nome = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("items".equals(nome) && valor == JsonToken.START_ARRAY) {
+                lerItens(parser, itens);
+            } else if ("cotacaoDolar".equals(nome)) {
+                cotacaoDolar = lerDecimal(parser, nome);
+            } else if (CAMPOS_EDITAL.contains(nome) && valor.isScalarValue() && valor != JsonToken.VALUE_NULL) {
+                campos.put(nome, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        logger.info("Total de itens processados: {}", itens.size());
+        return new DadosEdital(campos, cotacaoDolar, itens);
+    }
+
+    private void lerItens(JsonParser parser, List<CapaItemDTO> itens) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int item = 1;
+            String descricao = "";
+            int quantidade = 1;
+            BigDecimal custoUnitario = null;
+            BigDecimal frete = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String nome = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                switch (nome) {
+                    case "item" -> item = lerInteiro(parser, valor);
+                    case "quantidade" -> quantidade = lerInteiro(parser, valor);
+                    case "descricao" -> {
+                        if (valor.isScalarValue() && valor != JsonToken.VALUE_NULL) {
+                            descricao = parser.getText();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "custoUnitario" -> custoUnitario = lerDecimal(parser, nome);
+                    case "frete" -> frete = lerDecimal(parser, nome);
+                    default -> parser.skipChildren();
+                }
+            }
+            itens.add(new CapaItemDTO(
+                item,
+                "Produto",
+                descricao,
+                quantidade,
+                custoUnitario != null ? custoUnitario : BigDecimal.ZERO,
+                frete != null ? frete : BigDecimal.ZERO,
+                true // Nacional por padrão para itens da nuvem
+            ));
+            logger.debug("Item processado: {} - {} unidades", descricao, quantidade);
+        }
+    }
+
+    /**
+     * Número ou texto numérico; qualquer outro valor vale 0
+     */
+    private int lerInteiro(JsonParser parser, JsonToken valor) throws IOException {
+        if (!valor.isScalarValue()) {
+            parser.skipChildren();
+            return 0;
+        }
+        return parser.getValueAsInt(0);
+    }
+
+    private BigDecimal lerDecimal(JsonParser parser, String nome) throws IOException {
+        JsonToken valor = parser.currentToken();
+        if (valor.isNumeric()) {
+            return BigDecimal.valueOf(parser.getDoubleValue());
+        }
+        if (valor == JsonToken.VALUE_STRING) {
+            String texto = parser.getText().trim();
+            if (!texto.isEmpty()) {
+                try {
+                    return new BigDecimal(texto);
+                } catch (NumberFormatException e) {
+                    logger.debug("Erro ao extrair BigDecimal para campo '{}': {}", nome, e.getMessage());
+                }
+            }
+            return null;
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
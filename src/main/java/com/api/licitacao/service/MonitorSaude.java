@@ -0,0 +1,250 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.config.RequisicaoCancelavel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação periódica, em segundo plano, do serviço de score na nuvem e do Azure Blob Storage.
+ *
+ * O último resultado, a latência e as falhas consecutivas de cada dependência ficam em memória:
+ * os endpoints de status respondem sem fazer chamadas externas, e o processamento de PDFs pula
+ * imediatamente uma dependência sabidamente fora do ar.
+ */
+@Service
+public class MonitorSaude {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorSaude.class);
+
+    public enum Dependencia {
+        NUVEM,
+        /** Armazenamento dos PDFs (Azure ou diretório local, conforme armazenamento.tipo) */
+        AZURE
+    }
+
+    public enum Situacao {
+        /** Ainda não verificada */
+        DESCONHECIDA,
+        ONLINE,
+        /** Falhas consecutivas atingiram o limite */
+        OFFLINE,
+        /** Desabilitada ou não configurada */
+        DESABILITADA
+    }
+
+    /**
+     * Resultado da última verificação
+     * @param situacao Situação da dependência
+     * @param verificadoEm Horário da verificação (null se nunca verificada)
+     * @param latenciaMs Duração da verificação
+     * @param falhasConsecutivas Falhas desde o último sucesso
+     * @param detalhe Status HTTP ou mensagem de erro
+     */
+    public record Estado(Situacao situacao, LocalDateTime verificadoEm, long latenciaMs,
+                         int falhasConsecutivas, String detalhe) {
+
+        static final Estado INICIAL = new Estado(Situacao.DESCONHECIDA, null, 0, 0, null);
+
+        public Map<String, Object> resumo() {
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("situacao", situacao.name());
+            resumo.put("verificadoEm", verificadoEm);
+            resumo.put("latenciaMs", latenciaMs);
+            resumo.put("falhasConsecutivas", falhasConsecutivas);
+            resumo.put("detalhe", detalhe);
+            return resumo;
+        }
+    }
+
+    @Value("${saude.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${saude.intervalo:30s}")
+    private Duration intervalo;
+
+    @Value("${saude.timeout:5s}")
+    private Duration timeout;
+
+    @Value("${saude.falhas-para-offline:2}")
+    private int falhasParaOffline;
+
+    @Value("${saude.nuvem.url:}")
+    private String urlSaudeNuvem;
+
+    @Value("${cloud.pdf.service.url:}")
+    private String cloudServiceUrl;
+
+    @Value("${cloud.pdf.service.enabled:true}")
+    private boolean cloudServiceEnabled;
+
+    private final RestTemplate restTemplate;
+    private final ArmazenamentoBlob armazenamentoBlob;
+
+    private final Map<Dependencia, Estado> estados = new EnumMap<>(Dependencia.class);
+    private ScheduledExecutorService agendador;
+
+    public MonitorSaude(RestTemplate restTemplate, ArmazenamentoBlob armazenamentoBlob) {
+        this.restTemplate = restTemplate;
+        this.armazenamentoBlob = armazenamentoBlob;
+        for (Dependencia dependencia : Dependencia.values()) {
+            estados.put(dependencia, Estado.INICIAL);
+        }
+    }
+
+    @PostConstruct
+    void inicializar() {
+        if (urlSaudeNuvem == null || urlSaudeNuvem.isBlank()) {
+            // Mesmo host do /score
+            urlSaudeNuvem = cloudServiceUrl != null ? cloudServiceUrl.replace("/score", "/health") : "";
+        }
+        if (!habilitado) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "monitor-saude");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::verificarTodas, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Monitor de saúde habilitado: intervalo {}, timeout {}, health da nuvem em {}",
+            intervalo, timeout, urlSaudeNuvem);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    /**
+     * Última verificação da dependência
+     */
+    public Estado estado(Dependencia dependencia) {
+        synchronized (estados) {
+            return estados.get(dependencia);
+        }
+    }
+
+    /**
+     * Indica se a dependência pode ser usada: só é recusada quando está sabidamente fora do ar
+     */
+    public boolean disponivel(Dependencia dependencia) {
+        return estado(dependencia).situacao() != Situacao.OFFLINE;
+    }
+
+    void verificarTodas() {
+        try {
+            verificarNuvem();
+            verificarAzure();
+        } catch (RuntimeException e) {
+            // Uma exceção aqui cancelaria o agendamento
+            logger.error("Erro inesperado na verificação de saúde: {}", e.getMessage(), e);
+        }
+    }
+
+    private void verificarNuvem() {
+        if (!cloudServiceEnabled || urlSaudeNuvem.isBlank()) {
+            atualizar(Dependencia.NUVEM, Situacao.DESABILITADA, 0, null);
+            return;
+        }
+        long inicio = System.nanoTime();
+        RequisicaoCancelavel requisicao = new RequisicaoCancelavel();
+        ScheduledFuture<?> prazo = agendador.schedule(requisicao::cancelar, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            int status = requisicao.executar(this::consultarSaudeNuvem);
+            // Qualquer resposta abaixo de 500 mostra que o serviço está respondendo
+            registrar(Dependencia.NUVEM, status < 500, inicio, "HTTP " + status);
+        } catch (RuntimeException e) {
+            registrar(Dependencia.NUVEM, false, inicio,
+                requisicao.isCancelada() ? "Sem resposta em " + timeout.toMillis() + " ms" : e.getMessage());
+        } finally {
+            prazo.cancel(false);
+        }
+    }
+
+    private int consultarSaudeNuvem() {
+        try {
+            ResponseEntity<Void> resposta = restTemplate.getForEntity(urlSaudeNuvem, Void.class);
+            return resposta.getStatusCode().value();
+        } catch (HttpStatusCodeException e) {
+            return e.getStatusCode().value();
+        }
+    }
+
+    private void verificarAzure() {
+        if (!armazenamentoBlob.isConfigured()) {
+            atualizar(Dependencia.AZURE, Situacao.DESABILITADA, 0, "Não configurado");
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            armazenamentoBlob.verificarConexao(timeout);
+            registrar(Dependencia.AZURE, true, inicio, "Container " + armazenamentoBlob.getContainerName());
+        } catch (RuntimeException e) {
+            registrar(Dependencia.AZURE, false, inicio, e.getMessage());
+        }
+    }
+
+    private void registrar(Dependencia dependencia, boolean sucesso, long inicioNanos, String detalhe) {
+        long latenciaMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+        Estado anterior = estado(dependencia);
+        if (sucesso) {
+            atualizar(dependencia, Situacao.ONLINE, latenciaMs, detalhe);
+            if (anterior.situacao() == Situacao.OFFLINE) {
+                logger.info("{} voltou a responder ({} ms)", dependencia, latenciaMs);
+            }
+            return;
+        }
+        int falhas = anterior.falhasConsecutivas() + 1;
+        // Abaixo do limite mantém a situação anterior: uma falha isolada não tira a dependência do ar
+        Situacao situacao = falhas >= Math.max(1, falhasParaOffline) ? Situacao.OFFLINE : anterior.situacao();
+        synchronized (estados) {
+            estados.put(dependencia, new Estado(situacao, LocalDateTime.now(), latenciaMs, falhas, detalhe));
+        }
+        if (situacao == Situacao.OFFLINE && anterior.situacao() != Situacao.OFFLINE) {
+            logger.warn("{} fora do ar após {} falha(s) consecutiva(s): {}", dependencia, falhas, detalhe);
+        } else {
+            logger.debug("Falha na verificação de {} ({}): {}", dependencia, falhas, detalhe);
+        }
+    }
+
+    private void atualizar(Dependencia dependencia, Situacao situacao, long latenciaMs, String detalhe) {
+        synchronized (estados) {
+            estados.put(dependencia, new Estado(situacao, LocalDateTime.now(), latenciaMs, 0, detalhe));
+        }
+    }
+
+    /**
+     * Estado de todas as dependências
+     * @return Mapa com a última verificação de cada dependência e a configuração do monitor
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("intervaloSegundos", intervalo.toSeconds());
+        estatisticas.put("timeoutMs", timeout.toMillis());
+        estatisticas.put("falhasParaOffline", falhasParaOffline);
+        for (Dependencia dependencia : Dependencia.values()) {
+            estatisticas.put(dependencia.name().toLowerCase(), estado(dependencia).resumo());
+        }
+        return estatisticas;
+    }
+}
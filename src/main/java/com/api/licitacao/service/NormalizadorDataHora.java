@@ -0,0 +1,295 @@
+package com.api.licitacao.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Normalização de datas e horas vindas da extração local e do serviço na nuvem.
+ *
+ * Os formatos são reconhecidos por uma leitura direta dos caracteres, sem criar
+ * DateTimeFormatter nem usar exceções para testar um formato após o outro:
+ * <ul>
+ *   <li>dd/MM/yyyy, d-M-yy, dd.MM.yyyy (separadores podem variar)</li>
+ *   <li>yyyy-MM-dd (ISO)</li>
+ *   <li>opcionalmente seguidos de HH:mm[:ss[.fração]], separados por espaço ou 'T',
+ *       com sufixo de fuso (Z, +03:00) ignorado</li>
+ * </ul>
+ * Quando dia/mês é inválido mas mês/dia é válido (ex.: 05/31/2024), a data é lida como MM/dd.
+ * Anos com dois dígitos são considerados a partir de 2000.
+ */
+@Component
+public class NormalizadorDataHora {
+
+    /**
+     * Converte um texto com data e hora opcional
+     * @param texto Texto a converter
+     * @return Data/hora, ou null se o formato não for reconhecido (sem hora = 00:00)
+     */
+    public LocalDateTime parseDataHora(CharSequence texto) {
+        if (texto == null) {
+            return null;
+        }
+        Leitor leitor = new Leitor(texto);
+        LocalDate data = leitor.lerData();
+        if (data == null) {
+            return null;
+        }
+        if (leitor.fim()) {
+            return data.atStartOfDay();
+        }
+        if (!leitor.pularSeparadorHora()) {
+            return null;
+        }
+        LocalTime hora = leitor.lerHora();
+        if (hora == null || !leitor.fim()) {
+            return null;
+        }
+        return LocalDateTime.of(data, hora);
+    }
+
+    /**
+     * Converte um texto contendo apenas a data
+     * @return Data, ou null se o formato não for reconhecido
+     */
+    public LocalDate parseData(CharSequence texto) {
+        if (texto == null) {
+            return null;
+        }
+        Leitor leitor = new Leitor(texto);
+        LocalDate data = leitor.lerData();
+        return data != null && leitor.fim() ? data : null;
+    }
+
+    /**
+     * Converte um texto contendo apenas a hora (HH:mm[:ss])
+     * @return Hora, ou null se o formato não for reconhecido
+     */
+    public LocalTime parseHora(CharSequence texto) {
+        if (texto == null) {
+            return null;
+        }
+        Leitor leitor = new Leitor(texto);
+        LocalTime hora = leitor.lerHora();
+        return hora != null && leitor.fim() ? hora : null;
+    }
+
+    /**
+     * Combina data e hora extraídas separadamente
+     * @param data Texto da data
+     * @param hora Texto da hora (HH:mm); ausente ou inválida = 00:00
+     * @return Data/hora, ou null se a data não for reconhecida
+     */
+    public LocalDateTime combinar(CharSequence data, CharSequence hora) {
+        LocalDate dia = parseData(data);
+        if (dia == null) {
+            return null;
+        }
+        LocalTime horario = parseHora(hora);
+        return horario != null ? LocalDateTime.of(dia, horario) : dia.atStartOfDay();
+    }
+
+    /**
+     * Cursor sobre o texto, já sem espaços nas extremidades
+     */
+    private static final class Leitor {
+
+        private final CharSequence texto;
+        private final int limite;
+        private int pos;
+        private int digitosLidos;
+
+        Leitor(CharSequence texto) {
+            int inicio = 0;
+            int fim = texto.length();
+            while (inicio < fim && Character.isWhitespace(texto.charAt(inicio))) {
+                inicio++;
+            }
+            while (fim > inicio && Character.isWhitespace(texto.charAt(fim - 1))) {
+                fim--;
+            }
+            this.texto = texto;
+            this.pos = inicio;
+            this.limite = fim;
+        }
+
+        boolean fim() {
+            return pos >= limite;
+        }
+
+        LocalDate lerData() {
+            int primeiro = lerNumero(4);
+            int digitosPrimeiro = digitosLidos;
+            if (digitosPrimeiro == 4) {
+                // yyyy-MM-dd
+                if (!pularSeparadorData()) {
+                    return null;
+                }
+                int mes = lerNumero(2);
+                if (digitosLidos == 0 || !pularSeparadorData()) {
+                    return null;
+                }
+                int dia = lerNumero(2);
+                if (digitosLidos == 0) {
+                    return null;
+                }
+                return criarData(primeiro, mes, dia);
+            }
+            if (digitosPrimeiro == 0 || digitosPrimeiro > 2 || !pularSeparadorData()) {
+                return null;
+            }
+            int segundo = lerNumero(2);
+            if (digitosLidos == 0 || !pularSeparadorData()) {
+                return null;
+            }
+            int ano = lerNumero(4);
+            if (digitosLidos == 2) {
+                ano += 2000;
+            } else if (digitosLidos != 4) {
+                return null;
+            }
+            if (dataValida(ano, segundo, primeiro)) {
+                return LocalDate.of(ano, segundo, primeiro);
+            }
+            // Formato americano (MM/dd) como último recurso
+            return criarData(ano, primeiro, segundo);
+        }
+
+        /**
+         * Lê HH:mm[:ss[.fração]] seguido de um sufixo de fuso opcional, que é descartado
+         */
+        LocalTime lerHora() {
+            int hora = lerNumero(2);
+            if (digitosLidos == 0 || !pular(':')) {
+                return null;
+            }
+            int minuto = lerNumero(2);
+            if (digitosLidos != 2) {
+                return null;
+            }
+            int segundo = 0;
+            int nano = 0;
+            if (pular(':')) {
+                segundo = lerNumero(2);
+                if (digitosLidos != 2) {
+                    return null;
+                }
+                if (pular('.') || pular(',')) {
+                    nano = lerFracao();
+                    if (nano < 0) {
+                        return null;
+                    }
+                }
+            }
+            pularFuso();
+            if (hora > 23 || minuto > 59 || segundo > 59) {
+                return null;
+            }
+            return LocalTime.of(hora, minuto, segundo, nano);
+        }
+
+        boolean pularSeparadorHora() {
+            if (pular('T')) {
+                return true;
+            }
+            int inicio = pos;
+            while (pos < limite && Character.isWhitespace(texto.charAt(pos))) {
+                pos++;
+            }
+            return pos > inicio;
+        }
+
+        private boolean pularSeparadorData() {
+            if (pos < limite) {
+                char c = texto.charAt(pos);
+                if (c == '/' || c == '-' || c == '.') {
+                    pos++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void pularFuso() {
+            if (pular('Z')) {
+                return;
+            }
+            if (pos < limite && (texto.charAt(pos) == '+' || texto.charAt(pos) == '-')) {
+                pos++;
+                lerNumero(2);
+                pular(':');
+                lerNumero(2);
+            }
+        }
+
+        private boolean pular(char esperado) {
+            if (pos < limite && texto.charAt(pos) == esperado) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Lê até maxDigitos dígitos; a quantidade lida fica em digitosLidos
+         */
+        private int lerNumero(int maxDigitos) {
+            int valor = 0;
+            digitosLidos = 0;
+            while (pos < limite && digitosLidos < maxDigitos) {
+                char c = texto.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                valor = valor * 10 + (c - '0');
+                digitosLidos++;
+                pos++;
+            }
+            return valor;
+        }
+
+        private int lerFracao() {
+            int nano = 0;
+            int digitos = 0;
+            while (pos < limite) {
+                char c = texto.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (digitos < 9) {
+                    nano = nano * 10 + (c - '0');
+                }
+                digitos++;
+                pos++;
+            }
+            if (digitos == 0) {
+                return -1;
+            }
+            for (int i = digitos; i < 9; i++) {
+                nano *= 10;
+            }
+            return nano;
+        }
+    }
+
+    private static LocalDate criarData(int ano, int mes, int dia) {
+        return dataValida(ano, mes, dia) ? LocalDate.of(ano, mes, dia) : null;
+    }
+
+    private static boolean dataValida(int ano, int mes, int dia) {
+        if (mes < 1 || mes > 12 || dia < 1) {
+            return false;
+        }
+        return dia <= diasNoMes(ano, mes);
+    }
+
+    private static int diasNoMes(int ano, int mes) {
+        return switch (mes) {
+            case 2 -> (ano % 4 == 0 && (ano % 100 != 0 || ano % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.model.Produto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser dos itens ("Descrição Detalhada") do edital.
+ *
+ * O texto é segmentado uma única vez em blocos, um por item, delimitados pelo marcador
+ * "Descrição Detalhada: ". Os campos de cada item são extraídos apenas do seu próprio bloco
+ * com padrões pré-compilados, de modo que o custo total é linear no tamanho do documento.
+ */
+@Component
+public class ParserItensEdital {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParserItensEdital.class);
+
+    private static final String MARCADOR_ITEM = "Descrição Detalhada: ";
+    private static final String FIM_DESCRICAO = "Tratamento Diferenciado:";
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.MULTILINE;
+    private static final Pattern TRATAMENTO_PATTERN = Pattern.compile("Tratamento Diferenciado: (.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern DECRETO_PATTERN = Pattern.compile("Aplicabilidade Decreto 7174/2010: (.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern QUANTIDADE_PATTERN = Pattern.compile("Quantidade Total: (\\d+)", FLAGS);
+    private static final Pattern CRITERIO_JULGAMENTO_PATTERN = Pattern.compile("Critério de Julgamento: (.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern CRITERIO_VALOR_PATTERN = Pattern.compile("Critério de Valor: (.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern VALOR_TOTAL_PATTERN = Pattern.compile("Valor Total \\(R\\$\\): ([\\d.,]+)", FLAGS);
+    private static final Pattern UNIDADE_PATTERN = Pattern.compile("Unidade de Fornecimento: (.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern INTERVALO_LANCES_PATTERN = Pattern.compile("Intervalo Mínimo entre Lances \\(R\\$\\): ([\\d.,]+)", FLAGS);
+
+    /**
+     * Inicia uma sessão de parse, alimentada trecho a trecho
+     * @param consumidor Recebe cada produto assim que o seu bloco estiver completo
+     * @return Nova sessão
+     */
+    public Sessao iniciar(Consumer<Produto> consumidor) {
+        return new Sessao(consumidor);
+    }
+
+    /**
+     * Sessão de parse incremental. Mantém em memória apenas o bloco do item corrente.
+     */
+    public final class Sessao {
+
+        private final StringBuilder buffer = new StringBuilder();
+        private final Consumer<Produto> consumidor;
+        // Indica se o buffer começa dentro de um bloco de item (logo após o marcador)
+        private boolean dentroDeItem;
+        // Posição a partir da qual o próximo marcador ainda pode aparecer
+        private int procurarDe;
+        private int itens;
+
+        private Sessao(Consumer<Produto> consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        /**
+         * Acrescenta um trecho de texto e emite os itens cujo bloco já foi fechado
+         */
+        public void alimentar(CharSequence trecho) {
+            buffer.append(trecho);
+            while (true) {
+                if (!dentroDeItem) {
+                    int inicio = buffer.indexOf(MARCADOR_ITEM);
+                    if (inicio < 0) {
+                        // Mantém apenas o suficiente para detectar um marcador dividido entre trechos
+                        int manter = MARCADOR_ITEM.length() - 1;
+                        if (buffer.length() > manter) {
+                            buffer.delete(0, buffer.length() - manter);
+                        }
+                        return;
+                    }
+                    buffer.delete(0, inicio + MARCADOR_ITEM.length());
+                    dentroDeItem = true;
+                    procurarDe = 0;
+                }
+                int proximo = buffer.indexOf(MARCADOR_ITEM, procurarDe);
+                if (proximo < 0) {
+                    procurarDe = Math.max(0, buffer.length() - MARCADOR_ITEM.length() + 1);
+                    return;
+                }
+                emitir(buffer.substring(0, proximo));
+                buffer.delete(0, proximo);
+                dentroDeItem = false;
+            }
+        }
+
+        /**
+         * Encerra a sessão emitindo o último item pendente
+         * @return Quantidade de itens emitidos
+         */
+        public int concluir() {
+            if (dentroDeItem) {
+                emitir(buffer.toString());
+                dentroDeItem = false;
+            }
+            buffer.setLength(0);
+            return itens;
+        }
+
+        private void emitir(String bloco) {
+            itens++;
+            consumidor.accept(extrairProduto(bloco));
+        }
+    }
+
+    /**
+     * Extrai os campos de um único bloco de item
+     */
+    Produto extrairProduto(String bloco) {
+        int fimDescricao = bloco.indexOf(FIM_DESCRICAO);
+        String descricao = (fimDescricao >= 0 ? bloco.substring(0, fimDescricao) : bloco).trim();
+
+        Produto produto = new Produto();
+        produto.setDescricaoDetalhada(descricao);
+        produto.setTratamentoDiferenciado(extrair(bloco, TRATAMENTO_PATTERN));
+        produto.setAplicabilidadeDecreto(extrair(bloco, DECRETO_PATTERN));
+        produto.setQuantidadeTotal(parseInteiro(extrair(bloco, QUANTIDADE_PATTERN)));
+        produto.setCriterioJulgamento(extrair(bloco, CRITERIO_JULGAMENTO_PATTERN));
+        produto.setCriterioValor(extrair(bloco, CRITERIO_VALOR_PATTERN));
+        produto.setValorTotal(parseValor(extrair(bloco, VALOR_TOTAL_PATTERN)));
+        produto.setUnidadeFornecimento(extrair(bloco, UNIDADE_PATTERN));
+        produto.setIntervaloMinimoLances(parseValor(extrair(bloco, INTERVALO_LANCES_PATTERN)));
+        return produto;
+    }
+
+    private String extrair(String bloco, Pattern pattern) {
+        Matcher matcher = pattern.matcher(bloco);
+        return matcher.find() ? matcher.group(1).trim() : "";
+    }
+
+    private Integer parseInteiro(String valor) {
+        if (valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            logger.warn("Quantidade inválida no item: '{}'", valor);
+            return null;
+        }
+    }
+
+    /**
+     * Converte valor no formato brasileiro (1.234,56)
+     */
+    private Double parseValor(String valor) {
+        if (valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(valor.replace(".", "").replace(",", "."));
+        } catch (NumberFormatException e) {
+            logger.warn("Valor inválido no item: '{}'", valor);
+            return null;
+        }
+    }
+}
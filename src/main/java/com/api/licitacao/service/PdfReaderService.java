@@ -1,6 +1,10 @@
 package com.api.licitacao.service;
 
 import com.api.licitacao.dto.CapaDTO;
+import com.api.licitacao.exception.BulkheadCheioException;
+import com.api.licitacao.exception.FalhaServicoNuvemException;
+import com.api.licitacao.service.ExtratorCamposCapa.Campo;
+import jakarta.annotation.PostConstruct;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
@@ -10,96 +14,384 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class PdfReaderService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfReaderService.class);
 
+    /**
+     * Ordem em que a extração local e o serviço na nuvem são usados
+     */
+    public enum EstrategiaExtracao {
+        /** Serviço na nuvem primeiro, extração local como fallback */
+        NUVEM_PRIMEIRO,
+        /** Extração local primeiro; a nuvem só é chamada quando a confiança local é insuficiente */
+        LOCAL_PRIMEIRO
+    }
+
     @Value("${cloud.pdf.service.enabled:true}")
     private boolean cloudServiceEnabled;
 
+    @Value("${cloud.pdf.espera-maxima:30s}")
+    private Duration esperaMaximaNuvem;
+
+    @Value("${pdf.extracao.streaming.enabled:true}")
+    private boolean streamingHabilitado;
+
+    @Value("${pdf.extracao.max-paginas:20}")
+    private int maxPaginas;
+
+    @Value("${pdf.extracao.campos-obrigatorios:PROCESSO,ORGAO,OBJETO,EDITAL,MODALIDADE,DATA,HORA}")
+    private String[] camposObrigatoriosConfig;
+
+    @Value("${pdf.extracao.estrategia:NUVEM_PRIMEIRO}")
+    private EstrategiaExtracao estrategia;
+
+    @Value("${pdf.extracao.local-primeiro.confianca-minima:0.8}")
+    private double confiancaMinima;
+
+    @Value("${pdf.extracao.local-primeiro.campos-essenciais:PROCESSO,OBJETO}")
+    private String[] camposEssenciaisConfig;
+
     private final CloudPdfProcessingService cloudPdfProcessingService;
-    private final AzureBlobService azureBlobService;
-
-    // Padrões regex para extrair informações dos PDFs
-    private static final Pattern PROCESSO_PATTERN = Pattern.compile("(?i)processo[\\s:\\-]*([\\w\\d\\-\\/\\.]+)");
-    private static final Pattern ORGAO_PATTERN = Pattern.compile("(?i)(?:órgão|orgao)[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern TITULO_PATTERN = Pattern.compile("(?i)(?:título|titulo|objeto)[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern PORTAL_PATTERN = Pattern.compile("(?i)portal[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern EDITAL_PATTERN = Pattern.compile("(?i)edital[\\s:\\-]*([\\w\\d\\-\\/\\.]+)");
-    private static final Pattern CLIENTE_PATTERN = Pattern.compile("(?i)cliente[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern OBJETO_PATTERN = Pattern.compile("(?i)objeto[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern MODALIDADE_PATTERN = Pattern.compile("(?i)modalidade[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern AMOSTRA_PATTERN = Pattern.compile("(?i)amostra[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern ENTREGA_PATTERN = Pattern.compile("(?i)(?:entrega|prazo)[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern CR_PATTERN = Pattern.compile("(?i)(?:cr|centro de responsabilidade)[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern ATESTADO_PATTERN = Pattern.compile("(?i)atestado[\\s:\\-]*(sim|não|yes|no|s|n)");
-    private static final Pattern IMPUGNACAO_PATTERN = Pattern.compile("(?i)(?:impugnação|impugnacao)[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern OBSERVACAO_PATTERN = Pattern.compile("(?i)(?:observações|observacoes|obs)[\\s:\\-]*([^\\n\\r]+)");
-    private static final Pattern DATA_PATTERN = Pattern.compile("(\\d{1,2}[/\\-]\\d{1,2}[/\\-]\\d{2,4})");
-    private static final Pattern HORA_PATTERN = Pattern.compile("(\\d{1,2}:\\d{2})");
-
-    public PdfReaderService(CloudPdfProcessingService cloudPdfProcessingService, AzureBlobService azureBlobService) {
+    private final ArmazenamentoBlob armazenamentoBlob;
+
+    private final ExtratorCamposCapa extratorCamposCapa;
+    private final ExtratorTextoPdf extratorTextoPdf;
+    private final CarregadorPdf carregadorPdf;
+    private final CacheExtracaoPdf cacheExtracaoPdf;
+    private final NormalizadorDataHora normalizadorDataHora;
+    private final AvaliadorConfianca avaliadorConfianca;
+    private final TriagemPdf triagemPdf;
+    private final SeletorPaginasNuvem seletorPaginasNuvem;
+    private final MonitorSaude monitorSaude;
+
+    private Set<Campo> camposObrigatorios;
+    private Set<Campo> camposEssenciais;
+
+    private final AtomicLong aceitosLocal = new AtomicLong();
+    private final AtomicLong escaladosNuvem = new AtomicLong();
+
+    public PdfReaderService(CloudPdfProcessingService cloudPdfProcessingService, ArmazenamentoBlob armazenamentoBlob,
+                            ExtratorCamposCapa extratorCamposCapa, ExtratorTextoPdf extratorTextoPdf,
+                            CarregadorPdf carregadorPdf, CacheExtracaoPdf cacheExtracaoPdf,
+                            NormalizadorDataHora normalizadorDataHora, AvaliadorConfianca avaliadorConfianca,
+                            TriagemPdf triagemPdf, SeletorPaginasNuvem seletorPaginasNuvem,
+                            MonitorSaude monitorSaude) {
         this.cloudPdfProcessingService = cloudPdfProcessingService;
-        this.azureBlobService = azureBlobService;
+        this.armazenamentoBlob = armazenamentoBlob;
+        this.extratorCamposCapa = extratorCamposCapa;
+        this.extratorTextoPdf = extratorTextoPdf;
+        this.carregadorPdf = carregadorPdf;
+        this.cacheExtracaoPdf = cacheExtracaoPdf;
+        this.normalizadorDataHora = normalizadorDataHora;
+        this.avaliadorConfianca = avaliadorConfianca;
+        this.triagemPdf = triagemPdf;
+        this.seletorPaginasNuvem = seletorPaginasNuvem;
+        this.monitorSaude = monitorSaude;
+    }
+
+    @PostConstruct
+    void inicializarCamposObrigatorios() {
+        camposObrigatorios = lerCampos(camposObrigatoriosConfig);
+        camposEssenciais = lerCampos(camposEssenciaisConfig);
+    }
+
+    private static Set<Campo> lerCampos(String[] nomes) {
+        Set<Campo> campos = EnumSet.noneOf(Campo.class);
+        for (String campo : nomes) {
+            if (!campo.isBlank()) {
+                campos.add(Campo.valueOf(campo.trim().toUpperCase()));
+            }
+        }
+        return campos;
+    }
+
+    /**
+     * Resultado da extração
+     * @param capa Dados extraídos
+     * @param definitiva true se veio do caminho escolhido pela estratégia (nuvem com sucesso, ou local
+     *                   quando a nuvem não está habilitada ou a extração local foi aceita); false para
+     *                   fallbacks causados por indisponibilidade momentânea da nuvem
+     */
+    private record Extracao(CapaDTO capa, boolean definitiva) {
+
+        static Extracao definitiva(CapaDTO capa) {
+            return new Extracao(capa, true);
+        }
+
+        static Extracao provisoria(CapaDTO capa) {
+            return new Extracao(capa, false);
+        }
     }
 
     public CapaDTO extrairDadosPdf(MultipartFile arquivo) throws IOException {
+        if (!cacheExtracaoPdf.isHabilitado()) {
+            return extrairDadosSemCache(arquivo).capa();
+        }
+
+        // Mesmo PDF (mesmo conteúdo) com a mesma estratégia reaproveita o resultado anterior
+        String chave = cacheExtracaoPdf.chave(arquivo, estrategiaAtual());
+        Optional<CapaDTO> emCache = cacheExtracaoPdf.buscar(chave);
+        if (emCache.isPresent()) {
+            logger.info("Resultado de extração do PDF '{}' obtido do cache", arquivo.getOriginalFilename());
+            return emCache.get();
+        }
+
+        // Fallbacks por circuito aberto, bulkhead cheio ou nuvem fora do ar não vão para o cache:
+        // a próxima requisição com o mesmo PDF tenta a nuvem de novo
+        Extracao resultado = extrairDadosSemCache(arquivo);
+        if (resultado.definitiva()) {
+            cacheExtracaoPdf.armazenar(chave, resultado.capa());
+        } else {
+            logger.info("Resultado provisório de '{}' (fallback da nuvem) não armazenado no cache", arquivo.getOriginalFilename());
+        }
+        return resultado.capa();
+    }
+
+    /**
+     * Indica se a estratégia configurada usa o serviço na nuvem: habilitado e com acesso aos blobs
+     * do armazenamento em uso
+     */
+    private boolean nuvemHabilitada() {
+        return cloudServiceEnabled && cloudPdfProcessingService != null && cloudPdfProcessingService.isServiceAvailable()
+            && (armazenamentoBlob == null || armazenamentoBlob.acessivelPelaNuvem());
+    }
+
+    /**
+     * Identifica a estratégia de extração em uso; compõe a chave do cache
+     */
+    private String estrategiaAtual() {
+        String base;
+        boolean nuvem = nuvemHabilitada();
+        if (!nuvem) {
+            base = "local";
+        } else if (estrategia == EstrategiaExtracao.LOCAL_PRIMEIRO) {
+            base = "local-primeiro-" + confiancaMinima;
+        } else {
+            base = "nuvem";
+        }
+        if (nuvem && seletorPaginasNuvem.isHabilitado()) {
+            base += "-sel";
+        }
+        return streamingHabilitado ? base + "-p" + maxPaginas : base;
+    }
+
+    private Extracao extrairDadosSemCache(MultipartFile arquivo) throws IOException {
+        // Triagem, seleção de páginas e extração local usam o mesmo documento carregado
+        try (CarregadorPdf.DocumentoSobDemanda documento = carregadorPdf.sobDemanda(arquivo)) {
+            return extrairDadosSemCache(arquivo, documento);
+        }
+    }
+
+    private Extracao extrairDadosSemCache(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento) throws IOException {
+        TriagemPdf.ResultadoTriagem triagem = triagemPdf.triar(arquivo, documento);
+        if (!triagem.aceito()) {
+            throw new IOException("PDF rejeitado na triagem: " + triagem.motivo());
+        }
+        if (triagem.rota() == TriagemPdf.Rota.NUVEM) {
+            // Sem camada de texto a extração local não encontraria nada
+            logger.info("PDF '{}' sem camada de texto, processando apenas via serviço na nuvem", arquivo.getOriginalFilename());
+            CapaDTO resultadoNuvem = tentarNuvem(arquivo, documento);
+            return resultadoNuvem != null ? Extracao.definitiva(resultadoNuvem)
+                : semNuvem(montarCapa(extratorCamposCapa.extrair("")));
+        }
+
+        if (estrategia == EstrategiaExtracao.LOCAL_PRIMEIRO) {
+            return extrairLocalPrimeiro(arquivo, documento);
+        }
+
         // Estratégia 1: Tentar usar serviço na nuvem se habilitado e configurado
-        if (cloudServiceEnabled && cloudPdfProcessingService != null && cloudPdfProcessingService.isServiceAvailable()) {
-            try {
-                logger.info("Tentando processar PDF '{}' via serviço na nuvem", arquivo.getOriginalFilename());
-                
-                // Fazer upload do arquivo para Azure primeiro (se configurado)
-                String nomeBlob = null;
-                if (azureBlobService != null && azureBlobService.isConfigured()) {
-                    try {
-                        nomeBlob = azureBlobService.uploadPdf(arquivo);
-                        logger.info("PDF '{}' enviado para Azure como '{}'", arquivo.getOriginalFilename(), nomeBlob);
-                    } catch (Exception e) {
-                        logger.warn("Erro ao fazer upload para Azure, continuando com nome original: {}", e.getMessage());
-                        nomeBlob = arquivo.getOriginalFilename();
-                    }
-                } else {
+        CapaDTO resultadoNuvem = tentarNuvem(arquivo, documento);
+        if (resultadoNuvem != null) {
+            return Extracao.definitiva(resultadoNuvem);
+        }
+
+        // Estratégia 2: Fallback para processamento local usando regex
+        logger.info("Processando PDF '{}' via método local (regex)", arquivo.getOriginalFilename());
+        return semNuvem(extrairDadosLocal(arquivo, documento));
+    }
+
+    /**
+     * Resultado obtido sem a nuvem: definitivo se ela não faz parte da estratégia, provisório se
+     * ela deveria ter respondido
+     */
+    private Extracao semNuvem(CapaDTO capa) {
+        return nuvemHabilitada() ? Extracao.provisoria(capa) : Extracao.definitiva(capa);
+    }
+
+    /**
+     * Extrai localmente e só recorre à nuvem se a confiança ficar abaixo do mínimo
+     * ou se faltar algum campo essencial
+     */
+    private Extracao extrairLocalPrimeiro(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento) throws IOException {
+        ExtratorCamposCapa.CamposExtraidos campos = extrairCamposLocal(arquivo, documento);
+        AvaliadorConfianca.Avaliacao avaliacao = avaliadorConfianca.avaliar(campos, camposObrigatorios);
+
+        if (avaliacao.confianca() >= confiancaMinima && avaliacao.contemTodos(camposEssenciais)) {
+            aceitosLocal.incrementAndGet();
+            logger.info("Extração local aceita para '{}' (confiança {})",
+                arquivo.getOriginalFilename(), String.format("%.2f", avaliacao.confianca()));
+            return Extracao.definitiva(montarCapa(campos));
+        }
+
+        escaladosNuvem.incrementAndGet();
+        logger.info("Confiança local {} para '{}' (ausentes: {}), consultando serviço na nuvem",
+            String.format("%.2f", avaliacao.confianca()), arquivo.getOriginalFilename(), avaliacao.ausentes());
+        CapaDTO resultadoNuvem = tentarNuvem(arquivo, documento);
+        return resultadoNuvem != null ? Extracao.definitiva(resultadoNuvem) : semNuvem(montarCapa(campos));
+    }
+
+    /**
+     * Processa via serviço na nuvem
+     * @return Resultado válido da nuvem, ou null se indisponível ou inválido
+     */
+    private CapaDTO tentarNuvem(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento) {
+        if (!nuvemHabilitada()) {
+            return null;
+        }
+        if (!monitorSaude.disponivel(MonitorSaude.Dependencia.NUVEM)) {
+            logger.warn("Serviço na nuvem fora do ar segundo o monitor de saúde, usando processamento local para '{}'",
+                arquivo.getOriginalFilename());
+            return null;
+        }
+        if (!cloudPdfProcessingService.aceitaChamadas()) {
+            // Circuito aberto ou bulkhead cheio: evita o upload para o Azure, a chamada seria recusada
+            logger.warn("Serviço na nuvem indisponível no momento (circuito aberto ou sem capacidade), usando processamento local para '{}'",
+                arquivo.getOriginalFilename());
+            return null;
+        }
+        try {
+            logger.info("Tentando processar PDF '{}' via serviço na nuvem", arquivo.getOriginalFilename());
+
+            // Páginas relevantes para o serviço: page_len reduzido ou PDF condensado
+            // Azure sabidamente fora do ar: não tenta o upload, segue com o nome original
+            boolean azureConfigurado = armazenamentoBlob != null && armazenamentoBlob.isConfigured()
+                && monitorSaude.disponivel(MonitorSaude.Dependencia.AZURE);
+            SeletorPaginasNuvem.Selecao selecao = seletorPaginasNuvem.selecionar(arquivo, documento, azureConfigurado);
+            String pageLen = selecao.pageLen();
+
+            // Fazer upload do arquivo para Azure primeiro (se configurado); um DocumentoPdf já enviado reaproveita o blob
+            String nomeBlob = null;
+            if (azureConfigurado) {
+                try {
+                    nomeBlob = armazenamentoBlob.uploadPdf(selecao.condensado() ? selecao.pdfCondensado() : arquivo);
+                    logger.info("PDF '{}' enviado para Azure como '{}'", arquivo.getOriginalFilename(), nomeBlob);
+                } catch (Exception e) {
+                    logger.warn("Erro ao fazer upload para Azure, continuando com nome original: {}", e.getMessage());
                     nomeBlob = arquivo.getOriginalFilename();
+                    pageLen = selecao.pageLenOriginal();
+                } finally {
+                    selecao.descartar();
                 }
+            } else {
+                nomeBlob = arquivo.getOriginalFilename();
+            }
 
-                // Processar via serviço na nuvem usando o nome do blob
-                CapaDTO resultado = cloudPdfProcessingService.processarPdfNaNuvem(nomeBlob);
-                
-                // Verificar se o resultado é válido (contém dados úteis)
-                if (isValidCloudResult(resultado)) {
-                    logger.info("Processamento via serviço na nuvem bem-sucedido para '{}'", arquivo.getOriginalFilename());
-                    return resultado;
-                } else {
-                    logger.warn("Resultado do serviço na nuvem inválido, usando fallback local para '{}'", arquivo.getOriginalFilename());
-                }
-                
-            } catch (Exception e) {
+            // Processar via serviço na nuvem usando o nome do blob
+            // Chamadas simultâneas com o mesmo conteúdo compartilham a mesma requisição; a espera é
+            // limitada para não prender a thread da requisição (ou do job) pela chamada inteira
+            CapaDTO resultado = cloudPdfProcessingService.processarPdfNaNuvemAsync(nomeBlob, hashConteudo(arquivo), pageLen)
+                .get(esperaMaximaNuvem.toMillis(), TimeUnit.MILLISECONDS);
+
+            // Verificar se o resultado é válido (contém dados úteis)
+            if (isValidCloudResult(resultado)) {
+                logger.info("Processamento via serviço na nuvem bem-sucedido para '{}'", arquivo.getOriginalFilename());
+                return resultado;
+            }
+            logger.warn("Resultado do serviço na nuvem inválido, usando fallback local para '{}'", arquivo.getOriginalFilename());
+
+        } catch (TimeoutException e) {
+            // A chamada segue em segundo plano; se concluir, o memo do coalescimento pode atender a próxima
+            logger.warn("Serviço na nuvem não respondeu em {} para '{}', usando processamento local",
+                esperaMaximaNuvem, arquivo.getOriginalFilename());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Espera pelo serviço na nuvem interrompida para '{}', usando processamento local",
+                arquivo.getOriginalFilename());
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof BulkheadCheioException) {
+                logger.warn("Serviço na nuvem sem capacidade, usando processamento local para '{}'", arquivo.getOriginalFilename());
+            } else if (e.getCause() instanceof FalhaServicoNuvemException falha) {
+                logger.warn("Serviço na nuvem falhou para '{}' ({}), usando processamento local",
+                    arquivo.getOriginalFilename(), falha.getMessage());
+            } else {
                 logger.error("Erro ao processar PDF '{}' via serviço na nuvem: {}", arquivo.getOriginalFilename(), e.getMessage());
                 logger.warn("Usando fallback para processamento local");
             }
+        } catch (Exception e) {
+            logger.error("Erro ao processar PDF '{}' via serviço na nuvem: {}", arquivo.getOriginalFilename(), e.getMessage());
+            logger.warn("Usando fallback para processamento local");
         }
+        return null;
+    }
 
-        // Estratégia 2: Fallback para processamento local usando regex
-        logger.info("Processando PDF '{}' via método local (regex)", arquivo.getOriginalFilename());
-        return extrairDadosLocal(arquivo);
+    /**
+     * Contadores da estratégia de extração
+     * @return Mapa com a estratégia em uso e quantos documentos foram aceitos localmente ou escalados
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("estrategia", estrategia);
+        estatisticas.put("confiancaMinima", confiancaMinima);
+        estatisticas.put("camposEssenciais", camposEssenciais);
+        estatisticas.put("aceitosLocal", aceitosLocal.get());
+        estatisticas.put("escaladosNuvem", escaladosNuvem.get());
+        return estatisticas;
     }
 
     /**
      * Método original de extração usando regex (fallback)
      */
-    private CapaDTO extrairDadosLocal(MultipartFile arquivo) throws IOException {
-        try (PDDocument document = PDDocument.load(arquivo.getInputStream())) {
+    private CapaDTO extrairDadosLocal(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento) throws IOException {
+        return montarCapa(extrairCamposLocal(arquivo, documento));
+    }
+
+    private ExtratorCamposCapa.CamposExtraidos extrairCamposLocal(MultipartFile arquivo,
+                                                                  CarregadorPdf.DocumentoSobDemanda documento) throws IOException {
+        PDDocument document = documento.getDocumento();
+        if (!streamingHabilitado) {
             PDFTextStripper stripper = new PDFTextStripper();
             String texto = stripper.getText(document);
-            
-            return extrairInformacoes(texto);
+
+            return extratorCamposCapa.extrair(texto);
+        }
+
+        // Alimenta o extrator página a página e para assim que os campos obrigatórios forem resolvidos
+        ExtratorCamposCapa.Varredura varredura = extratorCamposCapa.iniciarVarredura();
+        int paginas = extratorTextoPdf.extrairPorPaginas(document, arquivo, maxPaginas, (inicio, fim, trecho) -> {
+            varredura.alimentar(trecho);
+            return !varredura.resolvidos(camposObrigatorios);
+        });
+        logger.info("PDF '{}': {} de {} páginas lidas para extração local",
+            arquivo.getOriginalFilename(), paginas, document.getNumberOfPages());
+
+        return varredura.concluir();
+    }
+
+    /**
+     * Hash do conteúdo, usado para agrupar chamadas à nuvem com o mesmo PDF
+     * @return SHA-256 do arquivo, ou null se não puder ser calculado
+     */
+    private String hashConteudo(MultipartFile arquivo) {
+        try {
+            return cacheExtracaoPdf.hash(arquivo);
+        } catch (IOException e) {
+            logger.debug("Não foi possível calcular o hash de '{}': {}", arquivo.getOriginalFilename(), e.getMessage());
+            return null;
         }
     }
 
@@ -108,7 +400,7 @@ public class PdfReaderService {
      */
     private boolean isValidCloudResult(CapaDTO resultado) {
         logger.info("[isValidCloudResult] Valor de obs recebido: {}", resultado != null ? resultado.obs() : null);
-        if (resultado == null) {
+        if (resultado == null || cloudPdfProcessingService.isCapaFalha(resultado)) {
             return false;
         }
         // Considera válido se pelo menos um campo principal está preenchido E obs não está vazio
@@ -120,27 +412,26 @@ public class PdfReaderService {
         ) && (resultado.obs() != null && !resultado.obs().trim().isEmpty());
     }
 
-    private CapaDTO extrairInformacoes(String texto) {
-        // Extrai informações usando regex
-        String processo = extrairTexto(texto, PROCESSO_PATTERN);
-        String orgao = extrairTexto(texto, ORGAO_PATTERN);
-        String headerTitle = extrairTexto(texto, TITULO_PATTERN);
-        String portal = extrairTexto(texto, PORTAL_PATTERN);
-        String edital = extrairTexto(texto, EDITAL_PATTERN);
-        String cliente = extrairTexto(texto, CLIENTE_PATTERN);
-        String objeto = extrairTexto(texto, OBJETO_PATTERN);
-        String modalidade = extrairTexto(texto, MODALIDADE_PATTERN);
-        String amostra = extrairTexto(texto, AMOSTRA_PATTERN);
-        String entrega = extrairTexto(texto, ENTREGA_PATTERN);
-        String cr = extrairTexto(texto, CR_PATTERN);
-        String impugnacao = extrairTexto(texto, IMPUGNACAO_PATTERN);
-        String obs = extrairTexto(texto, OBSERVACAO_PATTERN);
+    private CapaDTO montarCapa(ExtratorCamposCapa.CamposExtraidos campos) {
+        String processo = campos.get(Campo.PROCESSO);
+        String orgao = campos.get(Campo.ORGAO);
+        String headerTitle = campos.get(Campo.TITULO);
+        String portal = campos.get(Campo.PORTAL);
+        String edital = campos.get(Campo.EDITAL);
+        String cliente = campos.get(Campo.CLIENTE);
+        String objeto = campos.get(Campo.OBJETO);
+        String modalidade = campos.get(Campo.MODALIDADE);
+        String amostra = campos.get(Campo.AMOSTRA);
+        String entrega = campos.get(Campo.ENTREGA);
+        String cr = campos.get(Campo.CR);
+        String impugnacao = campos.get(Campo.IMPUGNACAO);
+        String obs = campos.get(Campo.OBS);
         
-        // Extrai e processa atestado (boolean)
-        boolean atestado = extrairAtestado(texto);
+        // Processa atestado (boolean)
+        boolean atestado = extrairAtestado(campos.get(Campo.ATESTADO));
         
-        // Extrai data e hora (se não encontrar, usa data/hora atual)
-        LocalDateTime dataHora = extrairDataHora(texto);
+        // Processa data e hora (se não encontrar, usa data/hora atual)
+        LocalDateTime dataHora = extrairDataHora(campos.get(Campo.DATA), campos.get(Campo.HORA));
 
         return new CapaDTO(
             processo != null ? processo : "",
@@ -163,62 +454,17 @@ public class PdfReaderService {
         );
     }
 
-    private String extrairTexto(String texto, Pattern pattern) {
-        Matcher matcher = pattern.matcher(texto);
-        if (matcher.find()) {
-            String resultado = matcher.group(1).trim();
-            // Remove quebras de linha e espaços extras
-            resultado = resultado.replaceAll("[\\n\\r]+", " ").trim();
-            return resultado.isEmpty() ? null : resultado;
-        }
-        return null;
-    }
-
-    private boolean extrairAtestado(String texto) {
-        Matcher matcher = ATESTADO_PATTERN.matcher(texto);
-        if (matcher.find()) {
-            String valor = matcher.group(1).toLowerCase().trim();
+    private boolean extrairAtestado(String valor) {
+        if (valor != null) {
+            valor = valor.toLowerCase().trim();
             return valor.equals("sim") || valor.equals("yes") || valor.equals("s");
         }
         return false;
     }
 
-    private LocalDateTime extrairDataHora(String texto) {
-        String data = extrairTexto(texto, DATA_PATTERN);
-        String hora = extrairTexto(texto, HORA_PATTERN);
-        
-        try {
-            if (data != null) {
-                // Normaliza o formato da data
-                data = data.replaceAll("[/\\-]", "/");
-                
-                // Tenta diferentes formatos de data
-                DateTimeFormatter[] formatters = {
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-                    DateTimeFormatter.ofPattern("d/M/yyyy"),
-                    DateTimeFormatter.ofPattern("dd/MM/yy"),
-                    DateTimeFormatter.ofPattern("d/M/yy")
-                };
-                
-                for (DateTimeFormatter formatter : formatters) {
-                    try {
-                        if (hora != null) {
-                            DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(
-                                formatter.toString().replace("yyyy", "yyyy HH:mm").replace("yy", "yy HH:mm"));
-                            return LocalDateTime.parse(data + " " + hora, dateTimeFormatter);
-                        } else {
-                            return LocalDateTime.parse(data + " 00:00", 
-                                DateTimeFormatter.ofPattern(formatter.toString().replace("yyyy", "yyyy HH:mm").replace("yy", "yy HH:mm")));
-                        }
-                    } catch (Exception ignored) {
-                        // Tenta próximo formato
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // Se não conseguir extrair data/hora, usa atual
-        }
-        
-        return LocalDateTime.now();
+    private LocalDateTime extrairDataHora(String data, String hora) {
+        LocalDateTime dataHora = normalizadorDataHora.combinar(data, hora);
+        // Se não conseguir extrair data/hora, usa atual
+        return dataHora != null ? dataHora : LocalDateTime.now();
     }
 }
\ No newline at end of file
@@ -4,9 +4,9 @@ import com.api.licitacao.model.Licitacao;
 import com.api.licitacao.model.Produto;
 import com.api.licitacao.repository.LicitacaoRepository;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,36 +20,75 @@ import java.util.regex.Pattern;
 public class ProcessadorPdfService {
     private static final Logger logger = LoggerFactory.getLogger(ProcessadorPdfService.class);
 
+    // Padrões do cabeçalho da licitação
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.MULTILINE;
+    private static final Pattern PORTAL_PATTERN = Pattern.compile("(?i)Portal[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern EDITAL_PATTERN = Pattern.compile("(?i)Edital[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern CLIENTE_PATTERN = Pattern.compile("(?i)Cliente[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern OBJETO_PATTERN = Pattern.compile("(?i)Objeto[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern MODALIDADE_PATTERN = Pattern.compile("(?i)Modalidade[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern ENTREGA_PATTERN = Pattern.compile("(?i)Entrega[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern ATESTADO_PATTERN = Pattern.compile("(?i)Atestado[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern AMOSTRA_PATTERN = Pattern.compile("(?i)Amostra[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern CR_PATTERN = Pattern.compile("(?i)CR[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern IMPUGNACAO_PATTERN = Pattern.compile("(?i)Impugnação[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+    private static final Pattern OBS_PATTERN = Pattern.compile("(?i)Obs[\\s:]+(.*?)(?=\\n|$)", FLAGS);
+
+    @Value("${pdf.extracao.max-paginas:20}")
+    private int maxPaginasCabecalho;
+
     private final FornecedorService fornecedorService;
     private final LicitacaoRepository licitacaoRepository;
+    private final ExtratorTextoPdf extratorTextoPdf;
+    private final ParserItensEdital parserItensEdital;
+    private final CarregadorPdf carregadorPdf;
 
-    public ProcessadorPdfService(FornecedorService fornecedorService, LicitacaoRepository licitacaoRepository) {
+    public ProcessadorPdfService(FornecedorService fornecedorService, LicitacaoRepository licitacaoRepository,
+                                 ExtratorTextoPdf extratorTextoPdf, ParserItensEdital parserItensEdital,
+                                 CarregadorPdf carregadorPdf) {
         this.fornecedorService = fornecedorService;
         this.licitacaoRepository = licitacaoRepository;
+        this.extratorTextoPdf = extratorTextoPdf;
+        this.parserItensEdital = parserItensEdital;
+        this.carregadorPdf = carregadorPdf;
     }
 
     public List<Produto> processarPdf(MultipartFile arquivo) throws IOException {
         List<Produto> produtos = new ArrayList<>();
         
-        try (PDDocument document = PDDocument.load(arquivo.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String texto = stripper.getText(document);
-            
-            logger.info("Texto extraído do PDF: {}", texto);
+        try (CarregadorPdf.DocumentoCarregado carregado = carregadorPdf.carregar(arquivo)) {
+            PDDocument document = carregado.getDocumento();
+
+            // O texto é lido página a página: o cabeçalho vem das primeiras páginas e os itens
+            // são segmentados à medida que chegam, sem manter o documento inteiro em memória
+            StringBuilder textoCabecalho = new StringBuilder();
+            ParserItensEdital.Sessao parser = parserItensEdital.iniciar(produtos::add);
+
+            int paginas = extratorTextoPdf.extrairPorPaginas(document, arquivo, 0, (inicio, fim, trecho) -> {
+                if (maxPaginasCabecalho <= 0 || inicio <= maxPaginasCabecalho) {
+                    textoCabecalho.append(trecho);
+                }
+                parser.alimentar(trecho);
+                return true;
+            });
+            parser.concluir();
+
+            logger.debug("Texto extraído do PDF: {} páginas, {} itens", paginas, produtos.size());
+            String texto = textoCabecalho.toString();
 
             Licitacao licitacao = new Licitacao();
 
-            String portal = extrairInformacao(texto, "(?i)Portal[\\s:]+(.*?)(?=\\n|$)");
-            String edital = extrairInformacao(texto, "(?i)Edital[\\s:]+(.*?)(?=\\n|$)");
-            String cliente = extrairInformacao(texto, "(?i)Cliente[\\s:]+(.*?)(?=\\n|$)");
-            String objeto = extrairInformacao(texto, "(?i)Objeto[\\s:]+(.*?)(?=\\n|$)");
-            String modalidade = extrairInformacao(texto, "(?i)Modalidade[\\s:]+(.*?)(?=\\n|$)");
-            String entrega = extrairInformacao(texto, "(?i)Entrega[\\s:]+(.*?)(?=\\n|$)");
-            String atestado = extrairInformacao(texto, "(?i)Atestado[\\s:]+(.*?)(?=\\n|$)");
-            String amostra = extrairInformacao(texto, "(?i)Amostra[\\s:]+(.*?)(?=\\n|$)");
-            String cr = extrairInformacao(texto, "(?i)CR[\\s:]+(.*?)(?=\\n|$)");
-            String impugnacao = extrairInformacao(texto, "(?i)Impugnação[\\s:]+(.*?)(?=\\n|$)");
-            String observacoes = extrairInformacao(texto, "(?i)Obs[\\s:]+(.*?)(?=\\n|$)");
+            String portal = extrairInformacao(texto, PORTAL_PATTERN);
+            String edital = extrairInformacao(texto, EDITAL_PATTERN);
+            String cliente = extrairInformacao(texto, CLIENTE_PATTERN);
+            String objeto = extrairInformacao(texto, OBJETO_PATTERN);
+            String modalidade = extrairInformacao(texto, MODALIDADE_PATTERN);
+            String entrega = extrairInformacao(texto, ENTREGA_PATTERN);
+            String atestado = extrairInformacao(texto, ATESTADO_PATTERN);
+            String amostra = extrairInformacao(texto, AMOSTRA_PATTERN);
+            String cr = extrairInformacao(texto, CR_PATTERN);
+            String impugnacao = extrairInformacao(texto, IMPUGNACAO_PATTERN);
+            String observacoes = extrairInformacao(texto, OBS_PATTERN);
             
             logger.info("Informações extraídas:");
             logger.info("Portal: {}", portal);
@@ -78,45 +117,15 @@ public class ProcessadorPdfService {
 
             Licitacao licitacaoSalva = licitacaoRepository.save(licitacao);
             logger.info("Licitação salva com ID: {}", licitacaoSalva.getId());
-
-            Pattern pattern = Pattern.compile("Descrição Detalhada: (.*?)(?=Tratamento Diferenciado:|$)", Pattern.DOTALL);
-            Matcher matcher = pattern.matcher(texto);
-            
-            while (matcher.find()) {
-                String descricao = matcher.group(1).trim();
-
-                String tratamentoDiferenciado = extrairInformacao(texto, "Tratamento Diferenciado: (.*?)(?=\\n|$)");
-                String aplicabilidadeDecreto = extrairInformacao(texto, "Aplicabilidade Decreto 7174/2010: (.*?)(?=\\n|$)");
-                String quantidadeTotal = extrairInformacao(texto, "Quantidade Total: (\\d+)");
-                String criterioJulgamento = extrairInformacao(texto, "Critério de Julgamento: (.*?)(?=\\n|$)");
-                String criterioValor = extrairInformacao(texto, "Critério de Valor: (.*?)(?=\\n|$)");
-                String valorTotal = extrairInformacao(texto, "Valor Total \\(R\\$\\): ([\\d.,]+)");
-                String unidadeFornecimento = extrairInformacao(texto, "Unidade de Fornecimento: (.*?)(?=\\n|$)");
-                String intervaloMinimoLances = extrairInformacao(texto, "Intervalo Mínimo entre Lances \\(R\\$\\): ([\\d.,]+)");
-                
-                Produto produto = new Produto();
-                produto.setDescricaoDetalhada(descricao);
-                produto.setTratamentoDiferenciado(tratamentoDiferenciado);
-                produto.setAplicabilidadeDecreto(aplicabilidadeDecreto);
-                produto.setQuantidadeTotal(Integer.parseInt(quantidadeTotal));
-                produto.setCriterioJulgamento(criterioJulgamento);
-                produto.setCriterioValor(criterioValor);
-                produto.setValorTotal(Double.parseDouble(valorTotal.replace(".", "").replace(",", ".")));
-                produto.setUnidadeFornecimento(unidadeFornecimento);
-                produto.setIntervaloMinimoLances(Double.parseDouble(intervaloMinimoLances.replace(".", "").replace(",", ".")));
-                
-                produtos.add(produto);
-            }
         }
         
         return produtos;
     }
     
-    private String extrairInformacao(String texto, String padrao) {
-        Pattern pattern = Pattern.compile(padrao, Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private String extrairInformacao(String texto, Pattern pattern) {
         Matcher matcher = pattern.matcher(texto);
         String resultado = matcher.find() ? matcher.group(1).trim() : "";
-        logger.debug("Extraindo informação com padrão '{}': {}", padrao, resultado);
+        logger.debug("Extraindo informação com padrão '{}': {}", pattern.pattern(), resultado);
         return resultado;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.dto.CapaDTO;
+import com.api.licitacao.dto.CapaItemDTO;
+import com.api.licitacao.model.CotacaoDolar;
+import com.api.licitacao.model.DocumentoPdf;
+import com.api.licitacao.model.Fornecedor;
+import com.api.licitacao.model.Produto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline completo de geração da capa: upload para o Azure, extração de cada PDF, busca de
+ * fornecedores, cotação do dólar e geração do capa.xlsx.
+ *
+ * Usado pelos endpoints síncronos de processamento e pelos jobs assíncronos.
+ */
+@Service
+public class ProcessamentoCompletoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessamentoCompletoService.class);
+
+    /**
+     * Resultado do pipeline
+     * @param planilha Bytes do capa.xlsx
+     * @param capa Capa usada como base (primeiro PDF válido)
+     */
+    public record ResultadoProcessamento(byte[] planilha, CapaDTO capa) {}
+
+    private final PdfReaderService pdfReaderService;
+    private final FornecedorService fornecedorService;
+    private final CotacaoDolarService cotacaoDolarService;
+    private final CapaService capaService;
+    private final ArmazenamentoBlob armazenamentoBlob;
+    private final TriagemPdf triagemPdf;
+    private final MonitorSaude monitorSaude;
+
+    public ProcessamentoCompletoService(PdfReaderService pdfReaderService, FornecedorService fornecedorService,
+                                        CotacaoDolarService cotacaoDolarService, CapaService capaService,
+                                        ArmazenamentoBlob armazenamentoBlob, TriagemPdf triagemPdf,
+                                        MonitorSaude monitorSaude) {
+        this.pdfReaderService = pdfReaderService;
+        this.fornecedorService = fornecedorService;
+        this.cotacaoDolarService = cotacaoDolarService;
+        this.capaService = capaService;
+        this.armazenamentoBlob = armazenamentoBlob;
+        this.triagemPdf = triagemPdf;
+        this.monitorSaude = monitorSaude;
+    }
+
+    /**
+     * Processa os PDFs e gera a planilha. Arquivos vazios ou rejeitados na triagem são ignorados.
+     * Cada documento é enviado ao Azure uma única vez; a extração reaproveita o blob, o hash e o PDF
+     * carregado na triagem do upload, que é liberado assim que a extração do documento termina
+     * @param arquivos PDFs enviados, já copiados com {@link DocumentoPdf#copiar}
+     * @param etapa Recebe a descrição de cada etapa iniciada (acompanhamento de jobs)
+     * @return Planilha e capa base
+     * @throws IllegalArgumentException Se nenhum PDF válido foi processado
+     */
+    public ResultadoProcessamento processar(List<DocumentoPdf> arquivos, Consumer<String> etapa) throws IOException {
+        // 0. Upload dos PDFs para Azure (extensão - não interfere na lógica existente)
+        etapa.accept("upload");
+        try {
+            if (armazenamentoBlob.isConfigured() && monitorSaude.disponivel(MonitorSaude.Dependencia.AZURE)) {
+                for (ArmazenamentoBlob.ResultadoUpload resultado : armazenamentoBlob.uploadLote(arquivos)) {
+                    if (resultado.enviado()) {
+                        logger.info("Arquivo '{}' enviado para Azure como '{}'", resultado.nomeOriginal(), resultado.nomeBlob());
+                    } else {
+                        logger.warn("Arquivo '{}' não enviado para Azure: {}", resultado.nomeOriginal(), resultado.erro());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Continua o processamento mesmo com erro no upload
+            logger.warn("Erro no upload para Azure (continuando processamento): {}", e.getMessage());
+        }
+
+        // 1. Processar todos os PDFs e combinar os dados
+        CapaDTO capaBase = null;
+        List<CapaItemDTO> todosItens = new ArrayList<>();
+
+        int indice = 0;
+        for (DocumentoPdf arquivo : arquivos) {
+            indice++;
+            CapaDTO capaPdf;
+            try {
+                if (arquivo.isEmpty() || !triagemPdf.triar(arquivo).aceito()) {
+                    continue;
+                }
+
+                // 1.1 Ler PDF usando PdfReaderService
+                etapa.accept("extracao " + indice + "/" + arquivos.size());
+                capaPdf = pdfReaderService.extrairDadosPdf(arquivo);
+            } finally {
+                // Triagem e extração usaram o mesmo documento; as etapas seguintes não precisam dele
+                arquivo.fecharDocumentoAberto();
+            }
+
+            // Usa o primeiro PDF como base para informações gerais
+            if (capaBase == null) {
+                capaBase = capaPdf;
+            }
+
+            // 1.2 Buscar produtos e fornecedores para cada PDF
+            etapa.accept("fornecedores " + indice + "/" + arquivos.size());
+            Produto produto = criarProdutoDoCapa(capaPdf);
+            List<Fornecedor> fornecedores = fornecedorService.buscarFornecedores(produto);
+
+            // Converter fornecedores em itens da capa
+            todosItens.addAll(criarItensDosFornecedores(fornecedores, todosItens.size()));
+        }
+
+        if (capaBase == null) {
+            throw new IllegalArgumentException("Nenhum PDF válido foi processado");
+        }
+
+        // 2. Buscar cotação atual do dólar
+        etapa.accept("cotacao");
+        BigDecimal cotacaoDolar = buscarCotacaoDolarAtual();
+
+        // Criar CapaDTO completo com todos os dados
+        CapaDTO capaCompleta = new CapaDTO(
+            capaBase.processo(),
+            capaBase.dataHora(),
+            capaBase.organ(),
+            capaBase.headerTitle(),
+            capaBase.portal(),
+            capaBase.edital(),
+            capaBase.cliente(),
+            capaBase.objeto(),
+            capaBase.modalidade(),
+            capaBase.amostra(),
+            capaBase.entrega(),
+            capaBase.cr(),
+            capaBase.atestado(),
+            capaBase.impugnacao(),
+            capaBase.obs(),
+            cotacaoDolar,
+            todosItens
+        );
+
+        // 3. Gerar planilha capa.xlsx usando CapaService
+        etapa.accept("planilha");
+        return new ResultadoProcessamento(capaService.generateCapa(capaCompleta), capaBase);
+    }
+
+    /**
+     * Nome do arquivo para download: capa_<processo>.xlsx para um PDF, capa_processada.xlsx para vários
+     */
+    public static String nomePlanilha(ResultadoProcessamento resultado, int quantidadeArquivos) {
+        if (quantidadeArquivos == 1 && resultado.capa().processo() != null) {
+            return "capa_" + resultado.capa().processo().replaceAll("[^a-zA-Z0-9]", "_") + ".xlsx";
+        }
+        return "capa_processada.xlsx";
+    }
+
+    private Produto criarProdutoDoCapa(CapaDTO capa) {
+        Produto produto = new Produto();
+        produto.setDescricaoDetalhada(capa.objeto() != null ? capa.objeto() : "Produto padrão");
+        produto.setQuantidadeTotal(1);
+        produto.setUnidadeFornecimento("UN");
+        produto.setValorTotal(1000.0); // Valor padrão para busca
+        return produto;
+    }
+
+    private List<CapaItemDTO> criarItensDosFornecedores(List<Fornecedor> fornecedores, int numeroInicialItem) {
+        List<CapaItemDTO> itens = new ArrayList<>();
+        Random random = new Random();
+
+        for (int i = 0; i < fornecedores.size(); i++) {
+            Fornecedor fornecedor = fornecedores.get(i);
+
+            boolean nacional;
+            BigDecimal custoUnitario;
+            BigDecimal frete;
+
+            if (fornecedor.getNome().contains("Tactical Gear USA")) {
+                nacional = false; // Importado
+                double custoUSD = 25.0 + (random.nextDouble() * 75.0); // $25 a $100 USD
+                double freteUSD = 15.0 + (random.nextDouble() * 35.0); // $15 a $50 USD
+                custoUnitario = BigDecimal.valueOf(custoUSD);
+                frete = BigDecimal.valueOf(freteUSD);
+            } else {
+                nacional = true; // Nacional
+                double custoBase = 50.0 + (random.nextDouble() * 200.0); // R$ 50 a R$ 250
+                double freteBase = 10.0 + (random.nextDouble() * 40.0); // R$ 10 a R$ 50
+                custoUnitario = BigDecimal.valueOf(custoBase);
+                frete = BigDecimal.valueOf(freteBase);
+            }
+
+            int quantidade = random.nextInt(50) + 1;
+
+            CapaItemDTO item = new CapaItemDTO(
+                numeroInicialItem + i + 1,
+                "Produto",
+                fornecedor.getNome() + " - " + fornecedor.getObservacao(),
+                quantidade,
+                custoUnitario,
+                frete,
+                nacional
+            );
+
+            itens.add(item);
+        }
+
+        return itens;
+    }
+
+    private BigDecimal buscarCotacaoDolarAtual() {
+        try {
+            logger.info("Buscando cotação atual do dólar via AwesomeAPI...");
+
+            CotacaoDolar cotacao = cotacaoDolarService.getCotacaoDolar();
+
+            if (cotacao != null && cotacao.getCotacao() != null && !cotacao.getCotacao().isEmpty()) {
+                Double cotacaoVenda = Double.parseDouble(cotacao.getCotacao());
+                logger.info("Cotação encontrada: {}", cotacaoVenda);
+                return BigDecimal.valueOf(cotacaoVenda);
+            } else {
+                logger.info("Cotação não encontrada na resposta da API");
+            }
+
+        } catch (Exception e) {
+            logger.error("Erro ao buscar cotação do dólar: {}", e.getMessage(), e);
+        }
+
+        // Valor padrão caso não encontre a cotação
+        logger.info("Usando cotação padrão: 5.50");
+        return BigDecimal.valueOf(5.50);
+    }
+}
@@ -0,0 +1,320 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.dto.CloudServiceRequestDTO;
+import com.api.licitacao.model.DocumentoPdf;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+/**
+ * Seleção das páginas enviadas ao serviço de score na nuvem.
+ *
+ * Antes da chamada o texto das primeiras páginas é sondado com o PDFBox para localizar o
+ * cabeçalho do edital, a tabela de itens e a data do certame. Se tudo está no início do
+ * documento, o page_len é reduzido até a última página relevante; se alguma delas está além do
+ * limite de prefixo, é gerado um PDF condensado apenas com as páginas selecionadas, gravado num
+ * arquivo temporário. A sondagem usa o documento já carregado pela triagem.
+ *
+ * Quando o PDF condensado não pode ser enviado, o serviço recebe o PDF original com o page_len
+ * padrão, como antes da seleção.
+ */
+@Service
+public class SeletorPaginasNuvem {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeletorPaginasNuvem.class);
+
+    private static final int PAGINAS_PADRAO = Integer.parseInt(CloudServiceRequestDTO.PAGINAS_PADRAO);
+
+    private static final Pattern ROTULOS_CABECALHO = Pattern.compile(
+        "edital|preg[aã]o|processo|objeto|modalidade|[oó]rg[aã]o");
+    private static final Pattern MARCADOR_ITENS = Pattern.compile(
+        "quantidade total|valor unit[aá]rio|valor estimado|unidade de fornecimento|(?m)^\\s*item\\s+\\d+");
+    private static final Pattern DATA_CERTAME = Pattern.compile(
+        "(?s)(abertura|sess[aã]o p[uú]blica|certame|in[ií]cio da disputa).{0,200}?\\d{1,2}[/\\-]\\d{1,2}[/\\-]\\d{2,4}");
+
+    /**
+     * Como as páginas são enviadas ao serviço
+     */
+    public enum Modo {
+        /** Nada relevante identificado: page_len padrão com o PDF original */
+        PADRAO,
+        /** Páginas relevantes no início do documento: page_len até a última delas */
+        PREFIXO,
+        /** PDF condensado com as páginas selecionadas */
+        CONDENSADO
+    }
+
+    /**
+     * Tipo de conteúdo procurado nas páginas
+     */
+    public enum Marcador {
+        CABECALHO,
+        ITENS,
+        DATA_CERTAME
+    }
+
+    /**
+     * Resultado da seleção
+     * @param modo Forma de envio
+     * @param paginas Páginas selecionadas (base 1), em ordem
+     * @param totalPaginas Páginas do documento
+     * @param pageLen page_len a enviar junto com o PDF condensado (ou com o original, fora do modo condensado)
+     * @param pageLenOriginal page_len a usar com o PDF original, caso o condensado não possa ser enviado
+     * @param pdfCondensado PDF condensado em arquivo temporário (null fora do modo condensado)
+     */
+    public record Selecao(Modo modo, List<Integer> paginas, int totalPaginas, String pageLen,
+                          String pageLenOriginal, DocumentoPdf pdfCondensado) {
+
+        public boolean condensado() {
+            return modo == Modo.CONDENSADO && pdfCondensado != null;
+        }
+
+        /**
+         * Remove o arquivo temporário do PDF condensado
+         */
+        public void descartar() {
+            if (pdfCondensado != null) {
+                pdfCondensado.excluir();
+            }
+        }
+
+        static Selecao padrao(int totalPaginas) {
+            return new Selecao(Modo.PADRAO, List.of(), totalPaginas,
+                CloudServiceRequestDTO.PAGINAS_PADRAO, CloudServiceRequestDTO.PAGINAS_PADRAO, null);
+        }
+    }
+
+    @Value("${cloud.pdf.paginas.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${cloud.pdf.paginas.max-paginas-varredura:60}")
+    private int maxPaginasVarredura;
+
+    @Value("${cloud.pdf.paginas.limite-prefixo:8}")
+    private int limitePrefixo;
+
+    @Value("${cloud.pdf.paginas.max-paginas-enviadas:8}")
+    private int maxPaginasEnviadas;
+
+    @Value("${cloud.pdf.paginas.max-paginas-itens:4}")
+    private int maxPaginasItens;
+
+    private final TriagemPdf triagemPdf;
+
+    private final Map<Modo, AtomicLong> contagemPorModo = new EnumMap<>(Modo.class);
+    private final AtomicLong paginasVarridas = new AtomicLong();
+    private final AtomicLong paginasSelecionadas = new AtomicLong();
+    private final AtomicLong bytesOriginais = new AtomicLong();
+    private final AtomicLong bytesCondensados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong nanosTotais = new AtomicLong();
+
+    public SeletorPaginasNuvem(TriagemPdf triagemPdf) {
+        this.triagemPdf = triagemPdf;
+        for (Modo modo : Modo.values()) {
+            contagemPorModo.put(modo, new AtomicLong());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Seleciona as páginas a enviar; nunca lança exceção (em caso de erro usa o page_len padrão)
+     * @param arquivo PDF recebido
+     * @param documento Documento do processamento em andamento, já carregado pela triagem
+     * @param podeCondensar Se um PDF condensado pode ser enviado (exige upload próprio)
+     * @return Seleção com o page_len e, se for o caso, o PDF condensado; o chamador deve
+     *         {@linkplain Selecao#descartar() descartá-la} após o envio
+     */
+    public Selecao selecionar(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento, boolean podeCondensar) {
+        TriagemPdf.ResultadoTriagem triagem = triagemPdf.triar(arquivo, documento);
+        if (!habilitado || !triagem.camadaTexto()) {
+            // Sem camada de texto a sondagem não encontraria nada
+            return contar(Selecao.padrao(triagem.paginas()));
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            Selecao selecao = executar(arquivo, documento.getDocumento(), podeCondensar);
+            logger.info("Páginas para a nuvem de '{}': modo {}, páginas {} de {}, page_len {}",
+                arquivo.getOriginalFilename(), selecao.modo(), selecao.paginas(), selecao.totalPaginas(), selecao.pageLen());
+            return contar(selecao);
+        } catch (IOException | RuntimeException e) {
+            falhas.incrementAndGet();
+            logger.warn("Erro na seleção de páginas de '{}', usando page_len padrão: {}",
+                arquivo.getOriginalFilename(), e.getMessage());
+            return contar(Selecao.padrao(triagem.paginas()));
+        } finally {
+            nanosTotais.addAndGet(System.nanoTime() - inicio);
+        }
+    }
+
+    private Selecao executar(MultipartFile arquivo, PDDocument document, boolean podeCondensar) throws IOException {
+        int totalPaginas = document.getNumberOfPages();
+        Map<Marcador, List<Integer>> encontradas = sondar(document, totalPaginas);
+        if (encontradas.isEmpty()) {
+            return Selecao.padrao(totalPaginas);
+        }
+
+        TreeSet<Integer> paginas = new TreeSet<>();
+        encontradas.values().forEach(paginas::addAll);
+        if (encontradas.size() < Marcador.values().length) {
+            // Algo não foi localizado: mantém também as páginas que o serviço já leria hoje
+            for (int pagina = 1; pagina <= Math.min(PAGINAS_PADRAO, totalPaginas); pagina++) {
+                paginas.add(pagina);
+            }
+        }
+        int ultima = paginas.last();
+
+        if (ultima <= limitePrefixo) {
+            String pageLen = String.valueOf(ultima);
+            return new Selecao(Modo.PREFIXO, List.copyOf(paginas), totalPaginas, pageLen, pageLen, null);
+        }
+        if (!podeCondensar) {
+            // Páginas relevantes além do prefixo e sem como enviar o condensado: page_len padrão,
+            // em vez de fazer o serviço ler o documento até a última página encontrada
+            return Selecao.padrao(totalPaginas);
+        }
+
+        List<Integer> enviadas = limitar(paginas, encontradas);
+        DocumentoPdf condensado = condensar(document, enviadas, arquivo.getOriginalFilename());
+        bytesOriginais.addAndGet(arquivo.getSize());
+        bytesCondensados.addAndGet(condensado.getSize());
+        return new Selecao(Modo.CONDENSADO, enviadas, totalPaginas,
+            String.valueOf(enviadas.size()), CloudServiceRequestDTO.PAGINAS_PADRAO, condensado);
+    }
+
+    /**
+     * Sonda o texto página a página até encontrar cabeçalho, data do certame e o fim da tabela de itens
+     * @return Páginas de cada marcador encontrado
+     */
+    private Map<Marcador, List<Integer>> sondar(PDDocument document, int totalPaginas) throws IOException {
+        Map<Marcador, List<Integer>> encontradas = new EnumMap<>(Marcador.class);
+        int ultimaPagina = maxPaginasVarredura > 0 ? Math.min(totalPaginas, maxPaginasVarredura) : totalPaginas;
+        boolean itensEncerrados = false;
+
+        PDFTextStripper stripper = new PDFTextStripper();
+        for (int pagina = 1; pagina <= ultimaPagina; pagina++) {
+            stripper.setStartPage(pagina);
+            stripper.setEndPage(pagina);
+            String texto = stripper.getText(document).toLowerCase(Locale.ROOT);
+            paginasVarridas.incrementAndGet();
+
+            if (!encontradas.containsKey(Marcador.CABECALHO) && contarOcorrencias(texto) >= 2) {
+                encontradas.put(Marcador.CABECALHO, List.of(pagina));
+            }
+            if (!encontradas.containsKey(Marcador.DATA_CERTAME) && DATA_CERTAME.matcher(texto).find()) {
+                encontradas.put(Marcador.DATA_CERTAME, List.of(pagina));
+            }
+            if (!itensEncerrados) {
+                List<Integer> itens = encontradas.get(Marcador.ITENS);
+                if (MARCADOR_ITENS.matcher(texto).find()) {
+                    if (itens == null) {
+                        itens = new ArrayList<>();
+                        encontradas.put(Marcador.ITENS, itens);
+                    }
+                    itens.add(pagina);
+                    itensEncerrados = itens.size() >= Math.max(1, maxPaginasItens);
+                } else if (itens != null) {
+                    // A tabela de itens terminou na página anterior
+                    itensEncerrados = true;
+                }
+            }
+
+            if (itensEncerrados && encontradas.containsKey(Marcador.CABECALHO)
+                    && encontradas.containsKey(Marcador.DATA_CERTAME)) {
+                break;
+            }
+        }
+        return encontradas;
+    }
+
+    private int contarOcorrencias(String texto) {
+        return (int) ROTULOS_CABECALHO.matcher(texto).results().map(MatchResult::group).distinct().count();
+    }
+
+    /**
+     * Aplica o limite de páginas enviadas, priorizando cabeçalho e data do certame
+     */
+    private List<Integer> limitar(TreeSet<Integer> paginas, Map<Marcador, List<Integer>> encontradas) {
+        int limite = Math.max(1, maxPaginasEnviadas);
+        if (paginas.size() <= limite) {
+            return List.copyOf(paginas);
+        }
+        TreeSet<Integer> prioritarias = new TreeSet<>();
+        encontradas.getOrDefault(Marcador.CABECALHO, List.of()).forEach(prioritarias::add);
+        encontradas.getOrDefault(Marcador.DATA_CERTAME, List.of()).forEach(prioritarias::add);
+        for (Integer pagina : encontradas.getOrDefault(Marcador.ITENS, List.of())) {
+            if (prioritarias.size() >= limite) {
+                break;
+            }
+            prioritarias.add(pagina);
+        }
+        for (Integer pagina : paginas) {
+            if (prioritarias.size() >= limite) {
+                break;
+            }
+            prioritarias.add(pagina);
+        }
+        return List.copyOf(prioritarias);
+    }
+
+    /**
+     * Gera, num arquivo temporário, um PDF apenas com as páginas informadas
+     */
+    private DocumentoPdf condensar(PDDocument origem, List<Integer> paginas, String nomeOriginal) throws IOException {
+        // As páginas importadas referenciam recursos da origem, que precisa continuar aberta até o save
+        try (PDDocument condensado = new PDDocument()) {
+            for (Integer pagina : paginas) {
+                condensado.importPage(origem.getPage(pagina - 1));
+            }
+            return DocumentoPdf.gerar(nomeOriginal, condensado::save);
+        }
+    }
+
+    private Selecao contar(Selecao selecao) {
+        contagemPorModo.get(selecao.modo()).incrementAndGet();
+        paginasSelecionadas.addAndGet(selecao.modo() == Modo.PADRAO
+            ? Math.min(PAGINAS_PADRAO, Math.max(0, selecao.totalPaginas())) : selecao.paginas().size());
+        return selecao;
+    }
+
+    /**
+     * Contadores da seleção de páginas
+     * @return Mapa com documentos por modo, páginas sondadas e selecionadas e bytes economizados pelo PDF condensado
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        long documentos = contagemPorModo.values().stream().mapToLong(AtomicLong::get).sum();
+        Map<String, Long> porModo = new LinkedHashMap<>();
+        contagemPorModo.forEach((modo, contagem) -> porModo.put(modo.name(), contagem.get()));
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("documentos", documentos);
+        estatisticas.put("porModo", porModo);
+        estatisticas.put("paginasVarridas", paginasVarridas.get());
+        estatisticas.put("paginasSelecionadas", paginasSelecionadas.get());
+        estatisticas.put("bytesOriginaisCondensados", bytesOriginais.get());
+        estatisticas.put("bytesCondensados", bytesCondensados.get());
+        estatisticas.put("falhas", falhas.get());
+        estatisticas.put("tempoMedioMs", documentos > 0 ? nanosTotais.get() / 1_000_000.0 / documentos : 0.0);
+        return estatisticas;
+    }
+}
@@ -0,0 +1,316 @@
+package com.api.licitacao.service;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Triagem rápida de PDFs antes da extração.
+ *
+ * Primeiro são lidos apenas o início (assinatura %PDF) e o fim do arquivo (startxref, trailer,
+ * %%EOF, /Encrypt). Em seguida o PDFBox abre o documento apenas para ler a árvore de páginas e os
+ * recursos das primeiras páginas: nenhum conteúdo de página é decodificado. Para um
+ * {@link com.api.licitacao.model.DocumentoPdf} o documento aberto aqui fica associado à cópia e é o
+ * mesmo usado pelo upload, pela extração e pela seleção de páginas, então a triagem não custa um
+ * carregamento extra. Um MultipartFile da própria requisição é carregado só para a triagem, a menos
+ * que a etapa passe o seu documento. O resultado indica se o arquivo deve ser rejeitado e para onde
+ * encaminhá-lo (extração local, nuvem ou lote).
+ */
+@Service
+public class TriagemPdf {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriagemPdf.class);
+
+    private static final String ASSINATURA = "%PDF-";
+    /** A especificação tolera lixo antes da assinatura, limitado ao primeiro KB */
+    private static final int TAMANHO_INICIO = 1024;
+    private static final int TAMANHO_FIM = 2048;
+    private static final int TAMANHO_JANELA_XREF = 1024;
+
+    /**
+     * Destino sugerido para o documento
+     */
+    public enum Rota {
+        /** Tem camada de texto: a extração local consegue ler */
+        LOCAL,
+        /** Sem camada de texto (digitalizado): só o serviço na nuvem pode extrair algo */
+        NUVEM,
+        /** Documento grande: candidato a processamento em lote */
+        LOTE,
+        /** Não é um PDF legível */
+        REJEITADO
+    }
+
+    /**
+     * Resultado da triagem
+     * @param rota Destino sugerido
+     * @param motivo Motivo da rejeição (null se aceito)
+     * @param versao Versão declarada no cabeçalho (ex.: 1.7)
+     * @param paginas Número de páginas (-1 se não verificado)
+     * @param criptografado Se o documento declara criptografia
+     * @param camadaTexto Se as páginas amostradas usam fontes
+     */
+    public record ResultadoTriagem(Rota rota, String motivo, String versao, int paginas,
+                                   boolean criptografado, boolean camadaTexto) {
+
+        public boolean aceito() {
+            return rota != Rota.REJEITADO;
+        }
+
+        static ResultadoTriagem rejeitado(String motivo) {
+            return new ResultadoTriagem(Rota.REJEITADO, motivo, null, -1, false, false);
+        }
+    }
+
+    @Value("${pdf.triagem.estrutural.enabled:true}")
+    private boolean estruturalHabilitada;
+
+    @Value("${pdf.triagem.paginas-amostra:3}")
+    private int paginasAmostra;
+
+    @Value("${pdf.triagem.paginas-lote:300}")
+    private int paginasLote;
+
+    @Value("${pdf.triagem.rejeitar-sem-texto:false}")
+    private boolean rejeitarSemTexto;
+
+    private final CarregadorPdf carregadorPdf;
+
+    // O mesmo upload passa por controller, Azure e extração: a triagem é feita uma vez por arquivo
+    private final Map<MultipartFile, ResultadoTriagem> resultados = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<Rota, AtomicLong> contagemPorRota = new EnumMap<>(Rota.class);
+    private final AtomicLong nanosTotais = new AtomicLong();
+
+    public TriagemPdf(CarregadorPdf carregadorPdf) {
+        this.carregadorPdf = carregadorPdf;
+        for (Rota rota : Rota.values()) {
+            contagemPorRota.put(rota, new AtomicLong());
+        }
+    }
+
+    /**
+     * Faz a triagem do arquivo
+     * @param arquivo PDF recebido
+     * @return Resultado com a rota sugerida; nunca lança exceção
+     */
+    public ResultadoTriagem triar(MultipartFile arquivo) {
+        return triar(arquivo, null);
+    }
+
+    /**
+     * Faz a triagem reutilizando o documento do processamento em andamento
+     * @param arquivo PDF recebido
+     * @param documento Documento compartilhado com as etapas seguintes (null para carregar só para a triagem)
+     * @return Resultado com a rota sugerida; nunca lança exceção
+     */
+    public ResultadoTriagem triar(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento) {
+        ResultadoTriagem anterior = resultados.get(arquivo);
+        if (anterior != null) {
+            return anterior;
+        }
+
+        long inicio = System.nanoTime();
+        ResultadoTriagem resultado;
+        try {
+            resultado = executar(arquivo, documento);
+        } catch (IOException e) {
+            resultado = ResultadoTriagem.rejeitado("Erro ao ler arquivo: " + e.getMessage());
+        }
+        long nanos = System.nanoTime() - inicio;
+        nanosTotais.addAndGet(nanos);
+        contagemPorRota.get(resultado.rota()).incrementAndGet();
+        resultados.put(arquivo, resultado);
+
+        if (resultado.aceito()) {
+            logger.debug("Triagem de '{}': rota {}, {} páginas, texto={}, {} ms", arquivo.getOriginalFilename(),
+                resultado.rota(), resultado.paginas(), resultado.camadaTexto(), nanos / 1_000_000);
+        } else {
+            logger.warn("PDF '{}' rejeitado na triagem: {}", arquivo.getOriginalFilename(), resultado.motivo());
+        }
+        return resultado;
+    }
+
+    /**
+     * Reaproveita para uma cópia do arquivo (mesmo conteúdo) o resultado da triagem já feita, sem
+     * carregar o PDF de novo
+     * @param original Arquivo já triado
+     * @param copia Cópia do arquivo
+     */
+    public void associarCopia(MultipartFile original, MultipartFile copia) {
+        ResultadoTriagem resultado = resultados.get(original);
+        if (resultado != null) {
+            resultados.put(copia, resultado);
+        }
+    }
+
+    private ResultadoTriagem executar(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda documento) throws IOException {
+        long tamanho = arquivo.getSize();
+        if (arquivo.isEmpty() || tamanho < ASSINATURA.length()) {
+            return ResultadoTriagem.rejeitado("Arquivo vazio");
+        }
+
+        // Cabeçalho: %PDF-x.y
+        String inicio = lerTrecho(arquivo, 0, TAMANHO_INICIO);
+        int posAssinatura = inicio.indexOf(ASSINATURA);
+        if (posAssinatura < 0) {
+            return ResultadoTriagem.rejeitado("Assinatura %PDF ausente");
+        }
+        String versao = lerVersao(inicio, posAssinatura + ASSINATURA.length());
+
+        // Final: startxref e trailer. Sem eles o PDFBox ainda pode reconstruir a tabela xref,
+        // então a decisão fica com a verificação estrutural
+        String fim = lerTrecho(arquivo, Math.max(0, tamanho - TAMANHO_FIM), TAMANHO_FIM);
+        boolean eofPresente = fim.contains("%%EOF");
+        long offsetXref = lerStartXref(fim);
+        boolean criptografado = fim.contains("/Encrypt");
+        if (!criptografado && offsetXref >= 0 && offsetXref < tamanho) {
+            // PDF 1.5+: o dicionário do trailer fica no próprio xref stream
+            criptografado = lerTrecho(arquivo, offsetXref, TAMANHO_JANELA_XREF).contains("/Encrypt");
+        }
+        boolean estruturaIntegra = eofPresente && offsetXref >= 0 && offsetXref < tamanho;
+
+        if (!estruturalHabilitada) {
+            if (!estruturaIntegra) {
+                return ResultadoTriagem.rejeitado("Trailer ausente ou truncado (startxref/%%EOF)");
+            }
+            return new ResultadoTriagem(Rota.LOCAL, null, versao, -1, criptografado, true);
+        }
+
+        return verificarEstrutura(arquivo, documento, versao, criptografado, estruturaIntegra);
+    }
+
+    /**
+     * Lê do documento apenas a contagem de páginas e os recursos das primeiras páginas
+     * @param compartilhado Documento do processamento; sem ele o PDF é carregado só para a triagem
+     */
+    private ResultadoTriagem verificarEstrutura(MultipartFile arquivo, CarregadorPdf.DocumentoSobDemanda compartilhado,
+                                                String versao, boolean criptografado, boolean estruturaIntegra) {
+        try (CarregadorPdf.DocumentoSobDemanda proprio = compartilhado == null ? carregadorPdf.sobDemanda(arquivo) : null) {
+            PDDocument document = (compartilhado != null ? compartilhado : proprio).getDocumento();
+            int paginas = document.getNumberOfPages();
+            if (paginas == 0) {
+                return ResultadoTriagem.rejeitado("PDF sem páginas");
+            }
+
+            boolean camadaTexto = false;
+            int amostra = Math.min(paginas, Math.max(1, paginasAmostra));
+            for (int i = 0; i < amostra && !camadaTexto; i++) {
+                camadaTexto = usaFontes(document.getPage(i));
+            }
+
+            if (!estruturaIntegra) {
+                logger.debug("PDF '{}' com trailer irregular, mas legível", arquivo.getOriginalFilename());
+            }
+
+            Rota rota;
+            if (!camadaTexto && rejeitarSemTexto) {
+                return ResultadoTriagem.rejeitado("PDF sem camada de texto (digitalizado)");
+            } else if (!camadaTexto) {
+                rota = Rota.NUVEM;
+            } else if (paginasLote > 0 && paginas >= paginasLote) {
+                rota = Rota.LOTE;
+            } else {
+                rota = Rota.LOCAL;
+            }
+            return new ResultadoTriagem(rota, null, versao, paginas, criptografado || document.isEncrypted(), camadaTexto);
+
+        } catch (InvalidPasswordException e) {
+            return ResultadoTriagem.rejeitado("PDF protegido por senha");
+        } catch (IOException e) {
+            return ResultadoTriagem.rejeitado("PDF corrompido: " + e.getMessage());
+        }
+    }
+
+    private boolean usaFontes(PDPage page) throws IOException {
+        PDResources resources = page.getResources();
+        if (resources == null) {
+            return false;
+        }
+        if (resources.getFontNames().iterator().hasNext()) {
+            return true;
+        }
+        // Texto também pode estar dentro de form XObjects (um nível é suficiente na prática)
+        for (COSName nome : resources.getXObjectNames()) {
+            PDXObject xobject = resources.getXObject(nome);
+            if (xobject instanceof PDFormXObject form && form.getResources() != null
+                    && form.getResources().getFontNames().iterator().hasNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String lerTrecho(MultipartFile arquivo, long posicao, int tamanho) throws IOException {
+        try (InputStream entrada = arquivo.getInputStream()) {
+            entrada.skipNBytes(posicao);
+            return new String(entrada.readNBytes(tamanho), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private String lerVersao(String texto, int pos) {
+        int fim = pos;
+        while (fim < texto.length() && fim - pos < 4
+                && (Character.isDigit(texto.charAt(fim)) || texto.charAt(fim) == '.')) {
+            fim++;
+        }
+        return texto.substring(pos, fim);
+    }
+
+    private long lerStartXref(String fim) {
+        int pos = fim.lastIndexOf("startxref");
+        if (pos < 0) {
+            return -1;
+        }
+        pos += "startxref".length();
+        while (pos < fim.length() && Character.isWhitespace(fim.charAt(pos))) {
+            pos++;
+        }
+        long valor = 0;
+        int digitos = 0;
+        while (pos < fim.length() && Character.isDigit(fim.charAt(pos)) && digitos < 18) {
+            valor = valor * 10 + (fim.charAt(pos) - '0');
+            digitos++;
+            pos++;
+        }
+        return digitos > 0 ? valor : -1;
+    }
+
+    /**
+     * Contadores da triagem
+     * @return Mapa com a quantidade de documentos por rota e o tempo médio
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Rota, AtomicLong> entrada : contagemPorRota.entrySet()) {
+            long valor = entrada.getValue().get();
+            estatisticas.put(entrada.getKey().name().toLowerCase(), valor);
+            total += valor;
+        }
+        estatisticas.put("total", total);
+        estatisticas.put("tempoMedioMs", total > 0 ? nanosTotais.get() / total / 1_000_000.0 : 0.0);
+        estatisticas.put("estruturalHabilitada", estruturalHabilitada);
+        estatisticas.put("paginasLote", paginasLote);
+        return estatisticas;
+    }
+}
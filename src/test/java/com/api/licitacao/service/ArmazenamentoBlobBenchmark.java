@@ -0,0 +1,116 @@
+package com.api.licitacao.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Medição das operações do armazenamento de PDFs: gravação, regravação do mesmo conteúdo
+ * (deduplicada), consulta de existência, leitura completa, listagem e exclusão.
+ *
+ * Cada implementação tem sua subclasse com o contexto configurado para ela. Os testes só rodam com
+ * {@code -Dbenchmark=true}, por exemplo {@code mvn test -Dtest='*BenchmarkTest' -Dbenchmark=true};
+ * quantidade e tamanho dos arquivos podem ser ajustados com {@code -Dbenchmark.arquivos} e
+ * {@code -Dbenchmark.tamanho} (bytes).
+ */
+abstract class ArmazenamentoBlobBenchmark {
+
+    private static final int AQUECIMENTO = 5;
+
+    @Autowired
+    private ArmazenamentoBlob armazenamento;
+
+    @Test
+    void medirOperacoes() throws IOException {
+        int quantidade = Integer.getInteger("benchmark.arquivos", 50);
+        int tamanho = Integer.getInteger("benchmark.tamanho", 1024 * 1024);
+        Random aleatorio = new Random(42);
+
+        List<byte[]> conteudos = new ArrayList<>();
+        for (int i = 0; i < AQUECIMENTO + quantidade; i++) {
+            byte[] conteudo = new byte[tamanho];
+            aleatorio.nextBytes(conteudo);
+            conteudos.add(conteudo);
+        }
+
+        // Aquecimento: JIT, pool de conexões e diretórios
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            String nome = armazenamento.uploadPdf(conteudos.get(i), "aquecimento-" + i + ".pdf");
+            try (InputStream entrada = armazenamento.abrir(nome)) {
+                entrada.readAllBytes();
+            }
+        }
+        List<byte[]> medidos = conteudos.subList(AQUECIMENTO, conteudos.size());
+
+        List<String> nomes = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < medidos.size(); i++) {
+            nomes.add(armazenamento.uploadPdf(medidos.get(i), "edital-" + i + ".pdf"));
+        }
+        long gravacao = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < medidos.size(); i++) {
+            assertEquals(nomes.get(i), armazenamento.uploadPdf(medidos.get(i), "copia-" + i + ".pdf"));
+        }
+        long regravacao = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (String nome : nomes) {
+            assertTrue(armazenamento.existe(nome));
+        }
+        long existencia = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < nomes.size(); i++) {
+            try (InputStream entrada = armazenamento.abrir(nomes.get(i))) {
+                assertArrayEquals(medidos.get(i), entrada.readAllBytes());
+            }
+        }
+        long leitura = System.nanoTime() - inicio;
+
+        // Cada listagem devolve todos os blobs gravados, inclusive os do aquecimento
+        int listagens = Math.max(1, quantidade / 10);
+        List<String> listados = List.of();
+        inicio = System.nanoTime();
+        for (int i = 0; i < listagens; i++) {
+            listados = armazenamento.listar("");
+        }
+        long listagem = System.nanoTime() - inicio;
+        assertEquals(AQUECIMENTO + quantidade, listados.size());
+        assertTrue(listados.containsAll(nomes));
+
+        inicio = System.nanoTime();
+        for (String nome : nomes) {
+            assertTrue(armazenamento.excluir(nome));
+        }
+        long exclusao = System.nanoTime() - inicio;
+        assertFalse(armazenamento.existe(nomes.get(0)));
+        assertFalse(armazenamento.excluir(nomes.get(0)));
+
+        String implementacao = armazenamento.getClass().getSimpleName();
+        System.out.printf("%n%s: %d arquivos de %d KB%n", implementacao, quantidade, tamanho / 1024);
+        imprimir("gravação", gravacao, quantidade, tamanho);
+        imprimir("regravação (deduplicada)", regravacao, quantidade, tamanho);
+        imprimir("existe", existencia, quantidade, 0);
+        imprimir("leitura", leitura, quantidade, tamanho);
+        imprimir("listagem (" + (AQUECIMENTO + quantidade) + " blobs)", listagem, listagens, 0);
+        imprimir("exclusão", exclusao, quantidade, 0);
+    }
+
+    private static void imprimir(String operacao, long nanos, int quantidade, long tamanho) {
+        double msPorOperacao = nanos / 1_000_000.0 / quantidade;
+        double mbPorSegundo = tamanho > 0 ? quantidade * tamanho / (1024.0 * 1024.0) / (nanos / 1e9) : 0;
+        System.out.printf("  %-26s %9.3f ms/op %10.1f MB/s%n", operacao, msPorOperacao, mbPorSegundo);
+    }
+}
@@ -0,0 +1,18 @@
+package com.api.licitacao.service;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Benchmark do armazenamento em diretório local
+ */
+@SpringBootTest(properties = {
+    "armazenamento.tipo=local",
+    "armazenamento.local.diretorio=${java.io.tmpdir}/licitacao-blobs-benchmark-${random.uuid}",
+    "simulado.porta=18089"
+})
+@ActiveProfiles("simulado")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ArmazenamentoLocalBenchmarkTest extends ArmazenamentoBlobBenchmark {
+}
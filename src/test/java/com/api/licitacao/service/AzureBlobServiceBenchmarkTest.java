@@ -0,0 +1,22 @@
+package com.api.licitacao.service;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Benchmark do Azure Blob Storage contra o Azure simulado, sem latência artificial: mede o custo do
+ * SDK e do protocolo
+ */
+@SpringBootTest(properties = {
+    "armazenamento.tipo=azure",
+    "azure.upload.deduplicar=true",
+    "simulado.porta=18090",
+    "simulado.azure.latencia=0ms",
+    "simulado.azure.variacao=0ms",
+    "simulado.azure.guardar-conteudo=true"
+})
+@ActiveProfiles("simulado")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AzureBlobServiceBenchmarkTest extends ArmazenamentoBlobBenchmark {
+}
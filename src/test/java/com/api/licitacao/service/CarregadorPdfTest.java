@@ -0,0 +1,75 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.model.DocumentoPdf;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Carregamento sob demanda: uma cópia {@link DocumentoPdf} é carregada uma única vez para todas as etapas
+ */
+class CarregadorPdfTest {
+
+    private final CarregadorPdf carregadorPdf = new CarregadorPdf();
+    private MockMultipartFile upload;
+
+    @BeforeEach
+    void configurar() throws IOException {
+        ReflectionTestUtils.setField(carregadorPdf, "modo", CarregadorPdf.ModoMemoria.AUTO);
+        ReflectionTestUtils.setField(carregadorPdf, "limiarSpill", DataSize.ofMegabytes(5));
+        ReflectionTestUtils.setField(carregadorPdf, "orcamentoPorDocumento", DataSize.ofMegabytes(16));
+        try (PDDocument documento = new PDDocument()) {
+            documento.addPage(new PDPage());
+            ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+            documento.save(conteudo);
+            upload = new MockMultipartFile("arquivo", "edital.pdf", "application/pdf", conteudo.toByteArray());
+        }
+    }
+
+    @Test
+    void copiaCompartilhaUmDocumentoEntreAsEtapas() throws IOException {
+        DocumentoPdf copia = DocumentoPdf.copiar(upload);
+        try {
+            PDDocument triagem;
+            try (CarregadorPdf.DocumentoSobDemanda etapa = carregadorPdf.sobDemanda(copia)) {
+                triagem = etapa.getDocumento();
+            }
+            // Fechar a referência de uma etapa não fecha o documento da cópia
+            try (CarregadorPdf.DocumentoSobDemanda etapa = carregadorPdf.sobDemanda(copia)) {
+                assertSame(triagem, etapa.getDocumento());
+                assertEquals(1, triagem.getNumberOfPages());
+            }
+            assertEquals(1L, carregadorPdf.getEstatisticas().get("totalCarregados"));
+            assertEquals(1, carregadorPdf.getEstatisticas().get("documentosAbertos"));
+
+            copia.fecharDocumentoAberto();
+            assertEquals(0, carregadorPdf.getEstatisticas().get("documentosAbertos"));
+        } finally {
+            copia.excluir();
+        }
+    }
+
+    @Test
+    void uploadDaRequisicaoCarregaPorEtapa() throws IOException {
+        PDDocument primeiro;
+        try (CarregadorPdf.DocumentoSobDemanda etapa = carregadorPdf.sobDemanda(upload)) {
+            primeiro = etapa.getDocumento();
+        }
+        try (CarregadorPdf.DocumentoSobDemanda etapa = carregadorPdf.sobDemanda(upload)) {
+            assertNotSame(primeiro, etapa.getDocumento());
+        }
+        assertEquals(2L, carregadorPdf.getEstatisticas().get("totalCarregados"));
+        assertEquals(0, carregadorPdf.getEstatisticas().get("documentosAbertos"));
+    }
+}
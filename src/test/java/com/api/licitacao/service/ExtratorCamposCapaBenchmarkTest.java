@@ -0,0 +1,114 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.service.ExtratorCamposCapa.Campo;
+import com.api.licitacao.service.ExtratorCamposCapa.CamposExtraidos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Medição da extração dos campos da capa: a varredura única do {@link ExtratorCamposCapa} contra o
+ * caminho anterior, um {@code Pattern.matcher(texto).find()} por campo sobre o texto inteiro.
+ *
+ * O texto sintético tem a capa na primeira página e o restante com cláusulas do edital; campos
+ * ausentes da capa (cliente, amostra) obrigam o caminho anterior a percorrer o documento todo.
+ * Só roda com {@code -Dbenchmark=true}; páginas e repetições podem ser ajustadas com
+ * {@code -Dbenchmark.paginas} e {@code -Dbenchmark.repeticoes}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExtratorCamposCapaBenchmarkTest {
+
+    private static final int AQUECIMENTO = 5;
+
+    private static final String CAPA = """
+        PREFEITURA MUNICIPAL
+        Processo: 123/2024-PM
+        Órgão: Secretaria de Saúde
+        Objeto: Aquisição de cadeiras giratórias
+        Portal: Compras Públicas
+        Edital nº: PE-045/2024
+        Modalidade: Pregão Eletrônico
+        Data da sessão: 10/05/2024 às 09:30
+        Prazo de entrega: 30 dias
+        Atestado: sim
+        Impugnação: até 3 dias úteis
+        """;
+
+    private final ExtratorCamposCapa extrator = new ExtratorCamposCapa();
+
+    @Test
+    void medirExtracao() {
+        int paginas = Integer.getInteger("benchmark.paginas", 500);
+        int repeticoes = Integer.getInteger("benchmark.repeticoes", 20);
+        String texto = gerarTexto(paginas);
+
+        CamposExtraidos campos = extrator.extrair(texto);
+        Map<Campo, String> esperados = porRegex(texto);
+        for (Campo campo : Campo.values()) {
+            assertEquals(esperados.get(campo), campos.get(campo), campo.name());
+        }
+
+        // Aquecimento: JIT dos dois caminhos
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            extrator.extrair(texto);
+            porRegex(texto);
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            porRegex(texto);
+        }
+        long regex = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            extrator.extrair(texto);
+        }
+        long varredura = System.nanoTime() - inicio;
+
+        System.out.printf("%nCampos da capa: %d páginas, %d KB de texto%n", paginas, texto.length() / 1024);
+        imprimir("regex por campo", regex, repeticoes, texto.length());
+        imprimir("varredura única", varredura, repeticoes, texto.length());
+        System.out.printf("  %-26s %9.2fx%n", "ganho", (double) regex / varredura);
+    }
+
+    /**
+     * Caminho anterior: cada campo aplica o próprio padrão desde o início do texto
+     */
+    private static Map<Campo, String> porRegex(String texto) {
+        Map<Campo, String> valores = new EnumMap<>(Campo.class);
+        for (Campo campo : Campo.values()) {
+            Matcher matcher = campo.getPattern().matcher(texto);
+            if (matcher.find()) {
+                String valor = matcher.group(1).trim().replaceAll("[\\n\\r]+", " ").trim();
+                valores.put(campo, valor.isEmpty() ? null : valor);
+            }
+        }
+        return valores;
+    }
+
+    private static String gerarTexto(int paginas) {
+        StringBuilder texto = new StringBuilder(CAPA);
+        for (int pagina = 2; pagina <= paginas; pagina++) {
+            texto.append("\nPágina ").append(pagina).append('\n');
+            for (int clausula = 1; clausula <= 20; clausula++) {
+                texto.append(pagina).append('.').append(clausula)
+                    .append(". A licitante deverá apresentar a documentação de habilitação conforme ")
+                    .append("as condições estabelecidas neste instrumento e seus anexos, observada ")
+                    .append("a legislação vigente e as disposições do termo de referência.\n");
+            }
+        }
+        return texto.toString();
+    }
+
+    private static void imprimir(String operacao, long nanos, int quantidade, long tamanho) {
+        double msPorOperacao = nanos / 1_000_000.0 / quantidade;
+        double mbPorSegundo = quantidade * tamanho / (1024.0 * 1024.0) / (nanos / 1e9);
+        System.out.printf("  %-26s %9.3f ms/op %10.1f MB/s%n", operacao, msPorOperacao, mbPorSegundo);
+    }
+}
@@ -0,0 +1,122 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.service.ExtratorCamposCapa.Campo;
+import com.api.licitacao.service.ExtratorCamposCapa.CamposExtraidos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Varredura dos rótulos da capa: o resultado deve ser o mesmo de aplicar o padrão de cada campo
+ * com {@code Pattern.matcher(texto).find()}, inclusive quando o texto chega em trechos.
+ */
+class ExtratorCamposCapaTest {
+
+    private static final String CAPA = """
+        PREFEITURA MUNICIPAL
+        Processo: 123/2024-PM
+        orgao: Secretaria de Saúde
+        Objeto: Aquisição de cadeiras giratórias
+        Portal: Compras Públicas
+        Edital nº: PE-045/2024
+        Modalidade: Pregão Eletrônico
+        Data da sessão: 10/05/2024 às 09:30
+        Prazo de entrega: 30 dias
+        Atestado: sim
+        Impugnação: até 3 dias úteis
+        Obs: documento de teste
+        Processo: 999/1999
+        """;
+
+    private final ExtratorCamposCapa extrator = new ExtratorCamposCapa();
+
+    @Test
+    void extraiPrimeiraOcorrenciaDeCadaCampo() {
+        CamposExtraidos campos = extrator.extrair(CAPA);
+
+        assertEquals("123/2024-PM", campos.get(Campo.PROCESSO));
+        assertEquals("Secretaria de Saúde", campos.get(Campo.ORGAO));
+        assertEquals("Aquisição de cadeiras giratórias", campos.get(Campo.TITULO));
+        assertEquals("Aquisição de cadeiras giratórias", campos.get(Campo.OBJETO));
+        assertEquals("Compras Públicas", campos.get(Campo.PORTAL));
+        assertEquals("Pregão Eletrônico", campos.get(Campo.MODALIDADE));
+        assertEquals("10/05/2024", campos.get(Campo.DATA));
+        assertEquals("09:30", campos.get(Campo.HORA));
+        assertEquals("sim", campos.get(Campo.ATESTADO));
+        assertEquals("até 3 dias úteis", campos.get(Campo.IMPUGNACAO));
+        assertNull(campos.get(Campo.CLIENTE));
+        assertFalse(campos.encontrado(Campo.CLIENTE));
+    }
+
+    @Test
+    void resultadoIgualAoDoRegex() {
+        List<String> textos = List.of(
+            CAPA,
+            "",
+            "sem rótulos aqui",
+            "EDITAL: 12-A\nedital: 13-B",
+            "OBJETO - Serviços de limpeza\nTítulo: Outro título",
+            "prazo\n\nentrega: imediata",
+            "Centro de Responsabilidade: 42\ncr: 7",
+            "observações:\nvalor na linha seguinte",
+            "processoprocesso: 1",
+            "hora 9:15 e data 1-2-24, depois 31/12/2030 10:00",
+            "atestado: talvez\natestado: não");
+        for (String texto : textos) {
+            CamposExtraidos campos = extrator.extrair(texto);
+            for (Campo campo : Campo.values()) {
+                assertEquals(porRegex(campo, texto), campos.get(campo), campo + " em \"" + texto + "\"");
+            }
+        }
+    }
+
+    @Test
+    void varreduraEmTrechosIgualAoTextoCompleto() {
+        CamposExtraidos completo = extrator.extrair(CAPA);
+        for (int tamanhoTrecho = 1; tamanhoTrecho <= 40; tamanhoTrecho++) {
+            ExtratorCamposCapa.Varredura varredura = extrator.iniciarVarredura();
+            for (int i = 0; i < CAPA.length(); i += tamanhoTrecho) {
+                varredura.alimentar(CAPA.substring(i, Math.min(CAPA.length(), i + tamanhoTrecho)));
+            }
+            assertEquals(CAPA.length(), varredura.tamanho());
+            CamposExtraidos campos = varredura.concluir();
+            for (Campo campo : Campo.values()) {
+                assertEquals(completo.get(campo), campos.get(campo), campo + " com trechos de " + tamanhoTrecho);
+            }
+        }
+    }
+
+    @Test
+    void campoSoFicaResolvidoQuandoNenhumTextoPodeAlterarLo() {
+        ExtratorCamposCapa.Varredura varredura = extrator.iniciarVarredura();
+
+        // O valor ainda pode continuar no próximo trecho
+        varredura.alimentar("Processo: 12");
+        assertFalse(varredura.resolvidos(List.of(Campo.PROCESSO)));
+
+        varredura.alimentar("3/2024\n");
+        varredura.alimentar("x".repeat(40));
+        assertTrue(varredura.resolvidos(List.of(Campo.PROCESSO)));
+        assertFalse(varredura.resolvidos(List.of(Campo.PROCESSO, Campo.EDITAL)));
+
+        assertEquals("123/2024", varredura.concluir().get(Campo.PROCESSO));
+    }
+
+    /**
+     * Extração de referência: primeiro match do padrão no texto, com a mesma normalização
+     */
+    private static String porRegex(Campo campo, String texto) {
+        Matcher matcher = campo.getPattern().matcher(texto);
+        if (!matcher.find()) {
+            return null;
+        }
+        String valor = matcher.group(1).trim().replaceAll("[\\n\\r]+", " ").trim();
+        return valor.isEmpty() ? null : valor;
+    }
+}
@@ -0,0 +1,136 @@
+package com.api.licitacao.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Medição da extração de texto de um PDF sintético em série e em paralelo.
+ *
+ * O modo paralelo usa a mesma configuração da aplicação (tarefas de
+ * {@code pdf.extracao.paralela.paginas-por-tarefa} páginas, uma cópia do documento por worker);
+ * o tempo inclui o carregamento dessas cópias. Só roda com {@code -Dbenchmark=true}; páginas,
+ * repetições e threads podem ser ajustadas com {@code -Dbenchmark.paginas},
+ * {@code -Dbenchmark.repeticoes} e {@code -Dbenchmark.threads}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExtratorTextoPdfBenchmarkTest {
+
+    private static final int AQUECIMENTO = 3;
+    private static final int LINHAS_POR_PAGINA = 40;
+
+    @Test
+    void medirExtracao() throws IOException {
+        int paginas = Integer.getInteger("benchmark.paginas", 300);
+        int repeticoes = Integer.getInteger("benchmark.repeticoes", 5);
+        int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+        byte[] conteudo = gerarPdf(paginas);
+        MockMultipartFile origem = new MockMultipartFile("file", "edital.pdf", "application/pdf", conteudo);
+
+        CarregadorPdf carregadorPdf = new CarregadorPdf();
+        ReflectionTestUtils.setField(carregadorPdf, "modo", CarregadorPdf.ModoMemoria.MEMORIA);
+        ExtratorTextoPdf serial = extrator(carregadorPdf, false, threads);
+        ExtratorTextoPdf paralelo = extrator(carregadorPdf, true, threads);
+
+        try (PDDocument documento = PDDocument.load(conteudo)) {
+            int textoSerial = extrair(serial, documento, origem);
+            int textoParalelo = extrair(paralelo, documento, origem);
+            assertEquals(textoSerial, textoParalelo);
+
+            for (int i = 0; i < AQUECIMENTO; i++) {
+                extrair(serial, documento, origem);
+                extrair(paralelo, documento, origem);
+            }
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                extrair(serial, documento, origem);
+            }
+            long emSerie = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                extrair(paralelo, documento, origem);
+            }
+            long emParalelo = System.nanoTime() - inicio;
+
+            System.out.printf("%nExtração de texto: %d páginas, %d KB, %d threads%n",
+                paginas, conteudo.length / 1024, threads);
+            imprimir("em série", emSerie, repeticoes, paginas);
+            imprimir("em paralelo", emParalelo, repeticoes, paginas);
+            System.out.printf("  %-26s %9.2fx%n", "ganho", (double) emSerie / emParalelo);
+        } finally {
+            paralelo.encerrar();
+        }
+    }
+
+    private static ExtratorTextoPdf extrator(CarregadorPdf carregadorPdf, boolean paralela, int threads) {
+        ExtratorTextoPdf extrator = new ExtratorTextoPdf(carregadorPdf);
+        ReflectionTestUtils.setField(extrator, "paginasPorBloco", 2);
+        ReflectionTestUtils.setField(extrator, "paralelaHabilitada", paralela);
+        ReflectionTestUtils.setField(extrator, "minPaginasParalela", 1);
+        ReflectionTestUtils.setField(extrator, "paginasPorTarefa", 16);
+        ReflectionTestUtils.setField(extrator, "threadsConfiguradas", threads);
+        // Sem limite de memória: a medição é do paralelismo, não do orçamento de heap
+        ReflectionTestUtils.setField(extrator, "memoriaMaxima", DataSize.ofGigabytes(1));
+        extrator.inicializar();
+        return extrator;
+    }
+
+    /**
+     * @return Tamanho total do texto extraído
+     */
+    private static int extrair(ExtratorTextoPdf extrator, PDDocument documento, MockMultipartFile origem)
+            throws IOException {
+        int[] tamanho = new int[1];
+        int extraidas = extrator.extrairPorPaginas(documento, origem, 0, (inicio, fim, texto) -> {
+            tamanho[0] += texto.length();
+            return true;
+        });
+        assertEquals(documento.getNumberOfPages(), extraidas);
+        assertTrue(tamanho[0] > 0);
+        return tamanho[0];
+    }
+
+    private static byte[] gerarPdf(int paginas) throws IOException {
+        try (PDDocument documento = new PDDocument()) {
+            for (int pagina = 1; pagina <= paginas; pagina++) {
+                PDPage page = new PDPage();
+                documento.addPage(page);
+                try (PDPageContentStream conteudo = new PDPageContentStream(documento, page)) {
+                    conteudo.beginText();
+                    conteudo.setFont(PDType1Font.HELVETICA, 9);
+                    conteudo.setLeading(14);
+                    conteudo.newLineAtOffset(40, 750);
+                    for (int linha = 1; linha <= LINHAS_POR_PAGINA; linha++) {
+                        conteudo.showText(pagina + "." + linha + ". A licitante devera apresentar a documentacao "
+                            + "de habilitacao conforme as condicoes deste edital e seus anexos.");
+                        conteudo.newLine();
+                    }
+                    conteudo.endText();
+                }
+            }
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            documento.save(saida);
+            return saida.toByteArray();
+        }
+    }
+
+    private static void imprimir(String operacao, long nanos, int quantidade, int paginas) {
+        double msPorOperacao = nanos / 1_000_000.0 / quantidade;
+        double paginasPorSegundo = (double) quantidade * paginas / (nanos / 1e9);
+        System.out.printf("  %-26s %9.3f ms/op %10.1f páginas/s%n", operacao, msPorOperacao, paginasPorSegundo);
+    }
+}
@@ -0,0 +1,172 @@
+package com.api.licitacao.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Extração de texto em blocos de páginas, em série e em paralelo, com interrupção pelo consumidor
+ */
+class ExtratorTextoPdfTest {
+
+    private static final int TOTAL_PAGINAS = 10;
+
+    private final CarregadorPdf carregadorPdf = new CarregadorPdf();
+    private final ExtratorTextoPdf extrator = new ExtratorTextoPdf(carregadorPdf);
+    private PDDocument documento;
+
+    @BeforeEach
+    void criarDocumento() throws IOException {
+        ReflectionTestUtils.setField(carregadorPdf, "modo", CarregadorPdf.ModoMemoria.MEMORIA);
+        ReflectionTestUtils.setField(extrator, "paginasPorBloco", 2);
+        documento = new PDDocument();
+        for (int pagina = 1; pagina <= TOTAL_PAGINAS; pagina++) {
+            PDPage page = new PDPage();
+            documento.addPage(page);
+            try (PDPageContentStream conteudo = new PDPageContentStream(documento, page)) {
+                conteudo.beginText();
+                conteudo.setFont(PDType1Font.HELVETICA, 12);
+                conteudo.newLineAtOffset(50, 700);
+                conteudo.showText("Pagina " + pagina);
+                conteudo.endText();
+            }
+        }
+    }
+
+    @AfterEach
+    void fecharDocumento() throws IOException {
+        extrator.encerrar();
+        documento.close();
+    }
+
+    @Test
+    void entregaTodosOsBlocosEmOrdem() throws IOException {
+        List<int[]> blocos = new ArrayList<>();
+        StringBuilder texto = new StringBuilder();
+
+        int extraidas = extrator.extrairPorPaginas(documento, 0, (inicio, fim, trecho) -> {
+            blocos.add(new int[]{inicio, fim});
+            texto.append(trecho);
+            return true;
+        });
+
+        assertEquals(TOTAL_PAGINAS, extraidas);
+        assertEquals(5, blocos.size());
+        for (int i = 0; i < blocos.size(); i++) {
+            assertEquals(2 * i + 1, blocos.get(i)[0]);
+            assertEquals(2 * i + 2, blocos.get(i)[1]);
+        }
+        int anterior = -1;
+        for (int pagina = 1; pagina <= TOTAL_PAGINAS; pagina++) {
+            int posicao = texto.indexOf("Pagina " + pagina + System.lineSeparator());
+            assertTrue(posicao > anterior, "página " + pagina + " fora de ordem");
+            anterior = posicao;
+        }
+    }
+
+    @Test
+    void interrompeQuandoOConsumidorRecusa() throws IOException {
+        List<Integer> iniciosRecebidos = new ArrayList<>();
+
+        int extraidas = extrator.extrairPorPaginas(documento, 0, (inicio, fim, trecho) -> {
+            iniciosRecebidos.add(inicio);
+            return !trecho.contains("Pagina 3");
+        });
+
+        // Para no bloco que contém a página 3; as páginas seguintes nem são lidas
+        assertEquals(4, extraidas);
+        assertEquals(List.of(1, 3), iniciosRecebidos);
+    }
+
+    @Test
+    void respeitaLimiteDePaginas() throws IOException {
+        List<int[]> blocos = new ArrayList<>();
+
+        int extraidas = extrator.extrairPorPaginas(documento, 5, (inicio, fim, trecho) -> {
+            blocos.add(new int[]{inicio, fim});
+            return true;
+        });
+
+        assertEquals(5, extraidas);
+        assertEquals(3, blocos.size());
+        int[] ultimo = blocos.get(blocos.size() - 1);
+        assertEquals(5, ultimo[0]);
+        assertEquals(5, ultimo[1]);
+    }
+
+    @Test
+    void documentoMenorQueOLimite() throws IOException {
+        int extraidas = extrator.extrairPorPaginas(documento, 50, (inicio, fim, trecho) -> true);
+
+        assertEquals(TOTAL_PAGINAS, extraidas);
+    }
+
+    @Test
+    void modoParaleloEntregaEmOrdemEInterrompe() throws IOException {
+        MockMultipartFile origem = habilitarParalela();
+        ReflectionTestUtils.setField(extrator, "memoriaMaxima", DataSize.ofMegabytes(64));
+
+        List<int[]> blocos = new ArrayList<>();
+        int extraidas = extrator.extrairPorPaginas(documento, origem, 0, (inicio, fim, trecho) -> {
+            blocos.add(new int[]{inicio, fim});
+            assertTrue(trecho.contains("Pagina " + inicio), "bloco " + inicio + " com texto de outras páginas");
+            return true;
+        });
+        assertEquals(TOTAL_PAGINAS, extraidas);
+        assertEquals(4, blocos.size());
+        assertEquals(10, blocos.get(3)[0]);
+        assertEquals(10, blocos.get(3)[1]);
+
+        List<Integer> iniciosRecebidos = new ArrayList<>();
+        extraidas = extrator.extrairPorPaginas(documento, origem, 0, (inicio, fim, trecho) -> {
+            iniciosRecebidos.add(inicio);
+            return !trecho.contains("Pagina 5");
+        });
+        assertEquals(6, extraidas);
+        assertEquals(List.of(1, 4), iniciosRecebidos);
+    }
+
+    @Test
+    void memoriaParaUmaCopiaSoExtraiEmSerie() throws IOException {
+        MockMultipartFile origem = habilitarParalela();
+        // Memória para uma única cópia do documento
+        ReflectionTestUtils.setField(extrator, "memoriaMaxima", DataSize.ofBytes(origem.getSize()));
+
+        List<int[]> blocos = new ArrayList<>();
+        int extraidas = extrator.extrairPorPaginas(documento, origem, 0, (inicio, fim, trecho) -> {
+            blocos.add(new int[]{inicio, fim});
+            return true;
+        });
+
+        // Blocos de paginas-por-bloco (2), não de paginas-por-tarefa (3): nenhum worker carregou cópia
+        assertEquals(TOTAL_PAGINAS, extraidas);
+        assertEquals(5, blocos.size());
+        assertEquals(2, blocos.get(0)[1]);
+    }
+
+    private MockMultipartFile habilitarParalela() throws IOException {
+        ReflectionTestUtils.setField(extrator, "paralelaHabilitada", true);
+        ReflectionTestUtils.setField(extrator, "minPaginasParalela", 4);
+        ReflectionTestUtils.setField(extrator, "paginasPorTarefa", 3);
+        ReflectionTestUtils.setField(extrator, "threadsConfiguradas", 2);
+        extrator.inicializar();
+        ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+        documento.save(conteudo);
+        return new MockMultipartFile("file", "edital.pdf", "application/pdf", conteudo.toByteArray());
+    }
+}
@@ -0,0 +1,185 @@
+package com.api.licitacao.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Medição da normalização de datas contra os caminhos anteriores, que criavam os
+ * DateTimeFormatter a cada chamada e testavam um formato após o outro capturando exceções:
+ * o {@code parseDataHora} do serviço na nuvem e o {@code extrairDataHora} da extração local.
+ *
+ * As entradas misturam formatos aceitos logo no primeiro formatador, formatos que só são aceitos
+ * pelos últimos e textos inválidos, que percorrem a lista inteira.
+ * Só roda com {@code -Dbenchmark=true}; o número de conversões pode ser ajustado com
+ * {@code -Dbenchmark.conversoes}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NormalizadorDataHoraBenchmarkTest {
+
+    private static final int AQUECIMENTO = 5;
+
+    private static final List<String> DATAS_HORAS = List.of(
+        "10/05/2024 14:30",
+        "10/05/2024 14:30:15",
+        "2024-05-10T09:05:07",
+        "2024-05-10 09:05:07",
+        "2024-05-10T14:30:15.250Z",
+        "10-05-2024 14:30",
+        "05/31/2024 14:30",
+        "a definir",
+        "10/05/2024 25:00",
+        "");
+
+    /** Pares data e hora como saem dos padrões da capa */
+    private static final List<String[]> DATAS_E_HORAS = List.of(
+        new String[]{"10/05/2024", "09:30"},
+        new String[]{"1-5-24", "14:00"},
+        new String[]{"31/12/2030", null},
+        new String[]{"10/05/202", "09:30"});
+
+    private final NormalizadorDataHora normalizador = new NormalizadorDataHora();
+
+    @Test
+    void medirConversoes() {
+        int conversoes = Integer.getInteger("benchmark.conversoes", 200_000);
+
+        // Onde o formatador anterior aceitava a entrada, o resultado é o mesmo
+        for (String texto : DATAS_HORAS) {
+            LocalDateTime anterior = parseDataHoraAnterior(texto);
+            if (anterior != null) {
+                assertEquals(anterior, normalizador.parseDataHora(texto), texto);
+            }
+        }
+
+        // Aquecimento: JIT dos quatro caminhos
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            converterNuvemAnterior(conversoes / 10);
+            converterNuvem(conversoes / 10);
+            converterLocalAnterior(conversoes / 10);
+            converterLocal(conversoes / 10);
+        }
+
+        long inicio = System.nanoTime();
+        converterNuvemAnterior(conversoes);
+        long nuvemAnterior = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        converterNuvem(conversoes);
+        long nuvem = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        converterLocalAnterior(conversoes);
+        long localAnterior = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        converterLocal(conversoes);
+        long local = System.nanoTime() - inicio;
+
+        System.out.printf("%nDatas e horas: %d conversões%n", conversoes);
+        imprimir("nuvem: formatadores", nuvemAnterior, conversoes);
+        imprimir("nuvem: normalizador", nuvem, conversoes);
+        imprimir("local: formatadores", localAnterior, conversoes);
+        imprimir("local: normalizador", local, conversoes);
+    }
+
+    private int converterNuvemAnterior(int conversoes) {
+        int reconhecidas = 0;
+        for (int i = 0; i < conversoes; i++) {
+            if (parseDataHoraAnterior(DATAS_HORAS.get(i % DATAS_HORAS.size())) != null) {
+                reconhecidas++;
+            }
+        }
+        return reconhecidas;
+    }
+
+    private int converterNuvem(int conversoes) {
+        int reconhecidas = 0;
+        for (int i = 0; i < conversoes; i++) {
+            if (normalizador.parseDataHora(DATAS_HORAS.get(i % DATAS_HORAS.size())) != null) {
+                reconhecidas++;
+            }
+        }
+        return reconhecidas;
+    }
+
+    private int converterLocalAnterior(int conversoes) {
+        int reconhecidas = 0;
+        for (int i = 0; i < conversoes; i++) {
+            String[] par = DATAS_E_HORAS.get(i % DATAS_E_HORAS.size());
+            if (extrairDataHoraAnterior(par[0], par[1]) != null) {
+                reconhecidas++;
+            }
+        }
+        return reconhecidas;
+    }
+
+    private int converterLocal(int conversoes) {
+        int reconhecidas = 0;
+        for (int i = 0; i < conversoes; i++) {
+            String[] par = DATAS_E_HORAS.get(i % DATAS_E_HORAS.size());
+            if (normalizador.combinar(par[0], par[1]) != null) {
+                reconhecidas++;
+            }
+        }
+        return reconhecidas;
+    }
+
+    /**
+     * Cópia do parse anterior do serviço na nuvem; null no lugar do LocalDateTime.now() de fallback
+     */
+    private static LocalDateTime parseDataHoraAnterior(String dataHoraStr) {
+        DateTimeFormatter[] formatters = {
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"),
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
+        };
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                return LocalDateTime.parse(dataHoraStr.trim(), formatter);
+            } catch (Exception ignored) {
+                // Tenta próximo formato
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cópia da extração local anterior. Os padrões derivados de {@code formatter.toString()} nunca
+     * eram válidos, então toda chamada percorria os quatro formatos até o fallback; o custo medido
+     * é esse mesmo.
+     */
+    private static LocalDateTime extrairDataHoraAnterior(String data, String hora) {
+        data = data.replaceAll("[/\\-]", "/");
+        DateTimeFormatter[] formatters = {
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("d/M/yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yy"),
+            DateTimeFormatter.ofPattern("d/M/yy")
+        };
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                String padrao = formatter.toString().replace("yyyy", "yyyy HH:mm").replace("yy", "yy HH:mm");
+                return LocalDateTime.parse(data + " " + (hora != null ? hora : "00:00"),
+                    DateTimeFormatter.ofPattern(padrao));
+            } catch (Exception ignored) {
+                // Tenta próximo formato
+            }
+        }
+        return null;
+    }
+
+    private static void imprimir(String operacao, long nanos, int quantidade) {
+        System.out.printf("  %-26s %9.1f ns/op%n", operacao, (double) nanos / quantidade);
+    }
+}
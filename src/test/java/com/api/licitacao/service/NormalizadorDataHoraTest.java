@@ -0,0 +1,91 @@
+package com.api.licitacao.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Formatos de data e hora aceitos pela normalização
+ */
+class NormalizadorDataHoraTest {
+
+    private final NormalizadorDataHora normalizador = new NormalizadorDataHora();
+
+    @Test
+    void reconheceFormatosDeData() {
+        LocalDateTime esperado = LocalDateTime.of(2024, 5, 10, 0, 0);
+
+        assertEquals(esperado, normalizador.parseDataHora("10/05/2024"));
+        assertEquals(esperado, normalizador.parseDataHora("10-05-2024"));
+        assertEquals(esperado, normalizador.parseDataHora("10.05.2024"));
+        assertEquals(esperado, normalizador.parseDataHora("10/5/24"));
+        assertEquals(esperado, normalizador.parseDataHora("2024-05-10"));
+        assertEquals(esperado, normalizador.parseDataHora("  10/05/2024\n"));
+        assertEquals(LocalDate.of(2024, 5, 1), normalizador.parseData("1-5-24"));
+    }
+
+    @Test
+    void reconheceDataComHora() {
+        assertEquals(LocalDateTime.of(2024, 5, 10, 14, 30), normalizador.parseDataHora("10/05/2024 14:30"));
+        assertEquals(LocalDateTime.of(2024, 5, 10, 9, 5, 7), normalizador.parseDataHora("2024-05-10T09:05:07"));
+        assertEquals(LocalDateTime.of(2024, 5, 10, 14, 30, 15, 250_000_000),
+            normalizador.parseDataHora("2024-05-10T14:30:15.250Z"));
+        // Sufixo de fuso é descartado, sem conversão
+        assertEquals(LocalDateTime.of(2024, 5, 10, 14, 30, 15),
+            normalizador.parseDataHora("2024-05-10T14:30:15-03:00"));
+    }
+
+    @Test
+    void usaMesDiaQuandoDiaMesEhInvalido() {
+        assertEquals(LocalDate.of(2024, 5, 31), normalizador.parseData("05/31/2024"));
+        // Ambígua: prevalece dia/mês
+        assertEquals(LocalDate.of(2024, 12, 5), normalizador.parseData("05/12/2024"));
+    }
+
+    @Test
+    void validaCalendario() {
+        assertEquals(LocalDate.of(2024, 2, 29), normalizador.parseData("29/02/2024"));
+        assertNull(normalizador.parseData("29/02/2023"));
+        assertNull(normalizador.parseData("31/04/2024"));
+        assertNull(normalizador.parseData("2024-13-01"));
+        assertNull(normalizador.parseData("00/05/2024"));
+    }
+
+    @Test
+    void rejeitaFormatosNaoReconhecidos() {
+        assertNull(normalizador.parseDataHora(null));
+        assertNull(normalizador.parseDataHora(""));
+        assertNull(normalizador.parseDataHora("a definir"));
+        assertNull(normalizador.parseDataHora("10/05/202"));
+        assertNull(normalizador.parseDataHora("10/05"));
+        assertNull(normalizador.parseDataHora("10/05/2024 25:00"));
+        assertNull(normalizador.parseDataHora("10/05/2024 14:30 horas"));
+        assertNull(normalizador.parseDataHora("10/05/2024às14:30"));
+        // parseData não aceita hora
+        assertNull(normalizador.parseData("10/05/2024 14:30"));
+    }
+
+    @Test
+    void reconheceHora() {
+        assertEquals(LocalTime.of(9, 5), normalizador.parseHora("09:05"));
+        assertEquals(LocalTime.of(9, 5), normalizador.parseHora("9:05"));
+        assertEquals(LocalTime.of(23, 59, 59), normalizador.parseHora("23:59:59"));
+        assertNull(normalizador.parseHora("9:5"));
+        assertNull(normalizador.parseHora("24:00"));
+        assertNull(normalizador.parseHora("12:60"));
+        assertNull(normalizador.parseHora(null));
+    }
+
+    @Test
+    void combinaDataEHoraExtraidasSeparadamente() {
+        assertEquals(LocalDateTime.of(2024, 5, 10, 9, 30), normalizador.combinar("10/05/2024", "09:30"));
+        assertEquals(LocalDateTime.of(2024, 5, 10, 0, 0), normalizador.combinar("10/05/2024", null));
+        assertEquals(LocalDateTime.of(2024, 5, 10, 0, 0), normalizador.combinar("10/05/2024", "manhã"));
+        assertNull(normalizador.combinar("amanhã", "09:30"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.model.Produto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Medição do parse dos itens de um edital sintético contra o caminho anterior, que para cada
+ * item recompilava oito padrões e os procurava desde o início do texto.
+ *
+ * O parser recebe o texto em trechos de uma página, como na extração por blocos do PDF.
+ * Só roda com {@code -Dbenchmark=true}; itens e repetições podem ser ajustados com
+ * {@code -Dbenchmark.itens} e {@code -Dbenchmark.repeticoes}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ParserItensEditalBenchmarkTest {
+
+    private static final int AQUECIMENTO = 5;
+    private static final int ITENS_POR_PAGINA = 4;
+
+    private final ParserItensEdital parser = new ParserItensEdital();
+
+    @Test
+    void medirParse() {
+        int itens = Integer.getInteger("benchmark.itens", 500);
+        int repeticoes = Integer.getInteger("benchmark.repeticoes", 10);
+        List<String> paginas = gerarPaginas(itens);
+        String texto = String.join("", paginas);
+
+        List<Produto> produtos = porTrechos(paginas);
+        assertEquals(itens, produtos.size());
+        for (int i = 0; i < itens; i++) {
+            assertEquals(i + 1, produtos.get(i).getQuantidadeTotal(), "item " + (i + 1));
+        }
+        assertEquals(itens, porRegexAnterior(texto).size());
+
+        // Aquecimento: JIT dos dois caminhos
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            porTrechos(paginas);
+            porRegexAnterior(texto);
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            porRegexAnterior(texto);
+        }
+        long anterior = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            porTrechos(paginas);
+        }
+        long blocos = System.nanoTime() - inicio;
+
+        System.out.printf("%nItens do edital: %d itens em %d páginas, %d KB de texto%n",
+            itens, paginas.size(), texto.length() / 1024);
+        imprimir("regex por item", anterior, repeticoes);
+        imprimir("blocos em uma passada", blocos, repeticoes);
+        System.out.printf("  %-26s %9.2fx%n", "ganho", (double) anterior / blocos);
+    }
+
+    private List<Produto> porTrechos(List<String> paginas) {
+        List<Produto> produtos = new ArrayList<>();
+        ParserItensEdital.Sessao sessao = parser.iniciar(produtos::add);
+        for (String pagina : paginas) {
+            sessao.alimentar(pagina);
+        }
+        sessao.concluir();
+        return produtos;
+    }
+
+    /**
+     * Cópia do parse anterior; os campos de todo item vinham da primeira ocorrência no documento
+     */
+    private static List<Produto> porRegexAnterior(String texto) {
+        List<Produto> produtos = new ArrayList<>();
+        Pattern pattern = Pattern.compile("Descrição Detalhada: (.*?)(?=Tratamento Diferenciado:|$)", Pattern.DOTALL);
+        Matcher matcher = pattern.matcher(texto);
+        while (matcher.find()) {
+            Produto produto = new Produto();
+            produto.setDescricaoDetalhada(matcher.group(1).trim());
+            produto.setTratamentoDiferenciado(extrairInformacao(texto, "Tratamento Diferenciado: (.*?)(?=\\n|$)"));
+            produto.setAplicabilidadeDecreto(extrairInformacao(texto, "Aplicabilidade Decreto 7174/2010: (.*?)(?=\\n|$)"));
+            produto.setQuantidadeTotal(Integer.parseInt(extrairInformacao(texto, "Quantidade Total: (\\d+)")));
+            produto.setCriterioJulgamento(extrairInformacao(texto, "Critério de Julgamento: (.*?)(?=\\n|$)"));
+            produto.setCriterioValor(extrairInformacao(texto, "Critério de Valor: (.*?)(?=\\n|$)"));
+            String valorTotal = extrairInformacao(texto, "Valor Total \\(R\\$\\): ([\\d.,]+)");
+            produto.setValorTotal(Double.parseDouble(valorTotal.replace(".", "").replace(",", ".")));
+            produto.setUnidadeFornecimento(extrairInformacao(texto, "Unidade de Fornecimento: (.*?)(?=\\n|$)"));
+            String intervalo = extrairInformacao(texto, "Intervalo Mínimo entre Lances \\(R\\$\\): ([\\d.,]+)");
+            produto.setIntervaloMinimoLances(Double.parseDouble(intervalo.replace(".", "").replace(",", ".")));
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+
+    private static String extrairInformacao(String texto, String padrao) {
+        Matcher matcher = Pattern.compile(padrao, Pattern.CASE_INSENSITIVE | Pattern.MULTILINE).matcher(texto);
+        return matcher.find() ? matcher.group(1).trim() : "";
+    }
+
+    /**
+     * Edital sintético: cabeçalho na primeira página e {@value #ITENS_POR_PAGINA} itens por página
+     */
+    private static List<String> gerarPaginas(int itens) {
+        List<String> paginas = new ArrayList<>();
+        StringBuilder pagina = new StringBuilder("""
+            PREGÃO ELETRÔNICO Nº 45/2024
+            Objeto: Aquisição de mobiliário para as unidades de saúde
+            Relação de Itens
+            """);
+        for (int item = 1; item <= itens; item++) {
+            pagina.append("Descrição Detalhada: Item ").append(item)
+                .append(" - Cadeira giratória com braços reguláveis, assento em espuma injetada\n")
+                .append("e base em nylon com rodízios duplos, conforme termo de referência\n")
+                .append("Tratamento Diferenciado: Tipo I - Participação Exclusiva de ME/EPP\n")
+                .append("Aplicabilidade Decreto 7174/2010: Não\n")
+                .append("Quantidade Total: ").append(item).append('\n')
+                .append("Critério de Julgamento: Menor Preço\n")
+                .append("Critério de Valor: Valor Estimado\n")
+                .append(String.format(Locale.ROOT, "Valor Total (R$): %d.%03d,%02d%n", item, item % 1000, item % 100))
+                .append("Unidade de Fornecimento: Unidade\n")
+                .append("Intervalo Mínimo entre Lances (R$): 1,50\n");
+            if (item % ITENS_POR_PAGINA == 0) {
+                paginas.add(pagina.toString());
+                pagina.setLength(0);
+            }
+        }
+        if (!pagina.isEmpty()) {
+            paginas.add(pagina.toString());
+        }
+        return paginas;
+    }
+
+    private static void imprimir(String operacao, long nanos, int quantidade) {
+        System.out.printf("  %-26s %9.3f ms/op%n", operacao, nanos / 1_000_000.0 / quantidade);
+    }
+}
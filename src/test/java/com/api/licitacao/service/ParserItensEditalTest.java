@@ -0,0 +1,118 @@
+package com.api.licitacao.service;
+
+import com.api.licitacao.model.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parse dos itens do edital, segmentados pelo marcador "Descrição Detalhada: "
+ */
+class ParserItensEditalTest {
+
+    private static final String ITENS = """
+        Relação de Itens
+        Descrição Detalhada: Cadeira giratória
+        com braços reguláveis
+        Tratamento Diferenciado: Tipo I - Participação Exclusiva de ME/EPP
+        Aplicabilidade Decreto 7174/2010: Não
+        Quantidade Total: 25
+        Critério de Julgamento: Menor Preço
+        Critério de Valor: Valor Estimado
+        Valor Total (R$): 12.345,67
+        Unidade de Fornecimento: Unidade
+        Intervalo Mínimo entre Lances (R$): 1,50
+        Descrição Detalhada: Mesa de reunião
+        Quantidade Total: 3
+        """;
+
+    private final ParserItensEdital parser = new ParserItensEdital();
+
+    @Test
+    void extraiCamposDeCadaItem() {
+        List<Produto> produtos = new ArrayList<>();
+        ParserItensEdital.Sessao sessao = parser.iniciar(produtos::add);
+        sessao.alimentar(ITENS);
+
+        assertEquals(2, sessao.concluir());
+        assertEquals(2, produtos.size());
+
+        Produto cadeira = produtos.get(0);
+        assertEquals("Cadeira giratória\ncom braços reguláveis", cadeira.getDescricaoDetalhada());
+        assertEquals("Tipo I - Participação Exclusiva de ME/EPP", cadeira.getTratamentoDiferenciado());
+        assertEquals("Não", cadeira.getAplicabilidadeDecreto());
+        assertEquals(25, cadeira.getQuantidadeTotal());
+        assertEquals("Menor Preço", cadeira.getCriterioJulgamento());
+        assertEquals("Valor Estimado", cadeira.getCriterioValor());
+        assertEquals(12345.67, cadeira.getValorTotal());
+        assertEquals("Unidade", cadeira.getUnidadeFornecimento());
+        assertEquals(1.5, cadeira.getIntervaloMinimoLances());
+
+        // Sem "Tratamento Diferenciado:" a descrição é o bloco inteiro; campos ausentes ficam vazios ou nulos
+        Produto mesa = produtos.get(1);
+        assertEquals("Mesa de reunião\nQuantidade Total: 3", mesa.getDescricaoDetalhada());
+        assertEquals(3, mesa.getQuantidadeTotal());
+        assertEquals("", mesa.getTratamentoDiferenciado());
+        assertNull(mesa.getValorTotal());
+        assertNull(mesa.getIntervaloMinimoLances());
+    }
+
+    @Test
+    void itensEmTrechosIguaisAoTextoCompleto() {
+        List<Produto> esperados = new ArrayList<>();
+        ParserItensEdital.Sessao completa = parser.iniciar(esperados::add);
+        completa.alimentar(ITENS);
+        completa.concluir();
+
+        // Trechos pequenos dividem o marcador entre duas chamadas
+        for (int tamanhoTrecho = 1; tamanhoTrecho <= 30; tamanhoTrecho++) {
+            List<Produto> produtos = new ArrayList<>();
+            ParserItensEdital.Sessao sessao = parser.iniciar(produtos::add);
+            for (int i = 0; i < ITENS.length(); i += tamanhoTrecho) {
+                sessao.alimentar(ITENS.substring(i, Math.min(ITENS.length(), i + tamanhoTrecho)));
+            }
+            assertEquals(esperados.size(), sessao.concluir(), "trechos de " + tamanhoTrecho);
+            assertEquals(esperados, produtos, "trechos de " + tamanhoTrecho);
+        }
+    }
+
+    @Test
+    void itemSoEhEmitidoQuandoOBlocoFecha() {
+        List<Produto> produtos = new ArrayList<>();
+        ParserItensEdital.Sessao sessao = parser.iniciar(produtos::add);
+
+        sessao.alimentar("Descrição Detalhada: Caneta\nQuantidade Total: 100\n");
+        assertTrue(produtos.isEmpty());
+
+        sessao.alimentar("Descrição Detalhada: Lápis\n");
+        assertEquals(1, produtos.size());
+        assertEquals(100, produtos.get(0).getQuantidadeTotal());
+
+        assertEquals(2, sessao.concluir());
+        assertEquals("Lápis", produtos.get(1).getDescricaoDetalhada());
+    }
+
+    @Test
+    void textoSemItensNaoEmiteNada() {
+        List<Produto> produtos = new ArrayList<>();
+        ParserItensEdital.Sessao sessao = parser.iniciar(produtos::add);
+        sessao.alimentar("Edital sem relação de itens\n".repeat(100));
+
+        assertEquals(0, sessao.concluir());
+        assertTrue(produtos.isEmpty());
+    }
+
+    @Test
+    void quantidadeEValorInvalidosFicamNulos() {
+        Produto produto = parser.extrairProduto(
+            "Item\nQuantidade Total: 99999999999\nValor Total (R$): ,,\n");
+
+        assertNull(produto.getQuantidadeTotal());
+        assertNull(produto.getValorTotal());
+    }
+}